@@ -0,0 +1,113 @@
+package com.alura.literalura.benchmarks;
+
+import com.alura.literalura.corpus.AnalisadorTexto;
+import com.alura.literalura.corpus.EstatisticasTexto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contagem de palavras de um texto sintético de {@code megabytes} MB (vocabulário de 50 mil
+ * palavras com distribuição concentrada, linhas de até 80 caracteres):
+ * <ul>
+ *   <li>{@code ingenuo}: {@code BufferedReader} + {@code HashMap<String, Integer>}, uma
+ *       {@code String} por palavra lida;</li>
+ *   <li>{@code mapeadoSequencial}: {@link AnalisadorTexto} sem dividir o arquivo;</li>
+ *   <li>{@code mapeadoParalelo}: {@link AnalisadorTexto} com os trechos padrão, no pool comum.</li>
+ * </ul>
+ *
+ * <pre>java -jar target/benchmarks.jar AnaliseTexto -prof gc</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnaliseTextoBenchmark {
+
+    @Param({"16"})
+    public int megabytes;
+
+    private Path arquivo;
+    private final AnalisadorTexto sequencial = new AnalisadorTexto(Integer.MAX_VALUE);
+    private final AnalisadorTexto paralelo = new AnalisadorTexto();
+
+    @Setup(Level.Trial)
+    public void gerar() throws IOException {
+        arquivo = Files.createTempFile("analise-texto", ".txt");
+        Random aleatorio = new Random(11);
+        String[] vocabulario = new String[50_000];
+        for (int i = 0; i < vocabulario.length; i++) {
+            StringBuilder palavra = new StringBuilder();
+            int tamanho = 2 + aleatorio.nextInt(10);
+            for (int k = 0; k < tamanho; k++) palavra.append((char) ('a' + aleatorio.nextInt(26)));
+            vocabulario[i] = palavra.toString();
+        }
+        long alvo = megabytes * 1024L * 1024L;
+        try (Writer out = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            long escritos = 0;
+            int coluna = 0;
+            while (escritos < alvo) {
+                String palavra = vocabulario[(int) Math.min(vocabulario.length - 1,
+                        Math.abs(aleatorio.nextGaussian()) * 2000)];
+                out.write(palavra);
+                coluna += palavra.length() + 1;
+                char separador = coluna > 72 ? '\n' : (aleatorio.nextInt(15) == 0 ? '.' : ' ');
+                out.write(separador);
+                if (separador == '\n') coluna = 0;
+                escritos += palavra.length() + 1;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void apagar() throws IOException {
+        Files.deleteIfExists(arquivo);
+    }
+
+    @Benchmark
+    public Map<String, Integer> ingenuo() throws IOException {
+        Map<String, Integer> contagens = new HashMap<>();
+        try (BufferedReader in = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = in.readLine()) != null) {
+                for (String palavra : linha.toLowerCase().split("[^\\p{L}']+")) {
+                    if (!palavra.isEmpty()) contagens.merge(palavra, 1, Integer::sum);
+                }
+            }
+        }
+        return contagens;
+    }
+
+    @Benchmark
+    public EstatisticasTexto mapeadoSequencial() throws IOException {
+        return sequencial.analisar(arquivo);
+    }
+
+    @Benchmark
+    public EstatisticasTexto mapeadoParalelo() throws IOException {
+        return paralelo.analisar(arquivo);
+    }
+}
@@ -0,0 +1,183 @@
+package com.alura.literalura.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Teste de carga da API ({@code --modo=api}): {@code clientes} conexões simultâneas, cada
+ * uma repetindo as rotas em sequência (um cliente só manda a próxima requisição quando a
+ * anterior termina), por {@code segundos} depois de um aquecimento. Mostra requisições
+ * por segundo e latências p50/p99/máx por rota e no total; o corpo de cada resposta é
+ * lido até o fim, então rotas NDJSON contam o tempo do streaming completo.
+ *
+ * <pre>
+ * java -jar literalura/target/literalura-0.0.1-SNAPSHOT-exec.jar --modo=api
+ * java -cp literalura-benchmarks/target/benchmarks.jar com.alura.literalura.benchmarks.CargaApi \
+ *     http://localhost:8080 clientes=64 segundos=20 aquecimento=5
+ * </pre>
+ * Rotas diferentes das padrão podem ser passadas como argumentos começando com "/".
+ */
+public class CargaApi {
+
+    private static final List<String> ROTAS_PADRAO = List.of(
+            "/api/livros?tamanho=20",
+            "/api/autores?tamanho=20",
+            "/api/autores/vivos?ano=1850",
+            "/api/livros/mais-baixados?idioma=en&quantidade=10",
+            "/api/estatisticas");
+
+    public static void main(String[] args) throws Exception {
+        String base = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clientes = 32;
+        int segundos = 20;
+        int aquecimento = 5;
+        List<String> rotas = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            String a = args[i];
+            if (a.startsWith("/")) rotas.add(a);
+            else if (a.startsWith("clientes=")) clientes = Integer.parseInt(a.substring(9));
+            else if (a.startsWith("segundos=")) segundos = Integer.parseInt(a.substring(9));
+            else if (a.startsWith("aquecimento=")) aquecimento = Integer.parseInt(a.substring(12));
+            else throw new IllegalArgumentException("Argumento desconhecido: " + a);
+        }
+        if (rotas.isEmpty()) rotas = ROTAS_PADRAO;
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(4))
+                .build();
+        List<HttpRequest> requisicoes = rotas.stream()
+                .map(r -> HttpRequest.newBuilder(URI.create(base + r)).timeout(Duration.ofSeconds(30)).GET().build())
+                .toList();
+
+        System.out.printf("Aquecendo por %d s com %d clientes...%n", aquecimento, clientes);
+        executar(http, requisicoes, clientes, aquecimento);
+        System.out.printf("Medindo por %d s com %d clientes...%n", segundos, clientes);
+        Medicao[] porCliente = executar(http, requisicoes, clientes, segundos);
+
+        System.out.printf("%n%-55s %10s %10s %9s %9s %9s %7s%n", "rota", "requisições", "req/s", "p50 ms", "p99 ms", "máx ms", "erros");
+        Medicao total = new Medicao(rotas.size());
+        for (int r = 0; r < rotas.size(); r++) {
+            Medicao daRota = new Medicao(rotas.size());
+            for (Medicao m : porCliente) daRota.somar(m, r);
+            daRota.imprimir(rotas.get(r), segundos);
+            total.somar(daRota);
+        }
+        total.imprimir("TOTAL", segundos);
+        http.executor().ifPresent(e -> ((ExecutorService) e).shutdown());
+    }
+
+    /**
+     * Cada cliente guarda as próprias latências (sem sincronização durante a medição).
+     */
+    private static Medicao[] executar(HttpClient http, List<HttpRequest> requisicoes, int clientes, int segundos)
+            throws InterruptedException {
+        Medicao[] medicoes = new Medicao[clientes];
+        ExecutorService pool = Executors.newFixedThreadPool(clientes);
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+        for (int c = 0; c < clientes; c++) {
+            Medicao medicao = medicoes[c] = new Medicao(requisicoes.size());
+            int inicio = c;
+            pool.execute(() -> {
+                for (int i = inicio; System.nanoTime() < fim; i++) {
+                    int rota = i % requisicoes.size();
+                    long t0 = System.nanoTime();
+                    boolean ok;
+                    try {
+                        HttpResponse<InputStream> resposta = http.send(requisicoes.get(rota),
+                                HttpResponse.BodyHandlers.ofInputStream());
+                        try (InputStream corpo = resposta.body()) {
+                            corpo.transferTo(OutputStreamNulo.INSTANCIA);
+                        }
+                        ok = resposta.statusCode() < 400;
+                    } catch (IOException e) {
+                        ok = false;
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    medicao.registrar(rota, System.nanoTime() - t0, ok);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(segundos + 60L, TimeUnit.SECONDS);
+        return medicoes;
+    }
+
+    private static final class OutputStreamNulo extends java.io.OutputStream {
+        static final OutputStreamNulo INSTANCIA = new OutputStreamNulo();
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+
+    /**
+     * Latências (ns) com a rota de cada uma; falhas são contadas à parte.
+     */
+    private static final class Medicao {
+        long[] latencias = new long[1024];
+        int[] rotas = new int[1024];
+        int tamanho;
+        final int[] erros;
+
+        Medicao(int totalRotas) {
+            erros = new int[totalRotas];
+        }
+
+        void registrar(int rota, long nanos, boolean ok) {
+            if (!ok) {
+                erros[rota]++;
+                return;
+            }
+            if (tamanho == latencias.length) {
+                latencias = Arrays.copyOf(latencias, tamanho * 2);
+                rotas = Arrays.copyOf(rotas, tamanho * 2);
+            }
+            latencias[tamanho] = nanos;
+            rotas[tamanho++] = rota;
+        }
+
+        // só as medições da rota informada
+        void somar(Medicao outra, int rota) {
+            for (int i = 0; i < outra.tamanho; i++) {
+                if (outra.rotas[i] == rota) registrar(rota, outra.latencias[i], true);
+            }
+            erros[rota] += outra.erros[rota];
+        }
+
+        void somar(Medicao outra) {
+            for (int i = 0; i < outra.tamanho; i++) registrar(outra.rotas[i], outra.latencias[i], true);
+            for (int r = 0; r < erros.length; r++) erros[r] += outra.erros[r];
+        }
+
+        void imprimir(String nome, int segundos) {
+            long[] ordenadas = Arrays.copyOf(latencias, tamanho);
+            Arrays.sort(ordenadas);
+            System.out.printf("%-55s %10d %10.1f %9.2f %9.2f %9.2f %7d%n", nome, tamanho, (double) tamanho / segundos,
+                    percentil(ordenadas, 0.50), percentil(ordenadas, 0.99),
+                    tamanho > 0 ? ordenadas[tamanho - 1] / 1e6 : 0, Arrays.stream(erros).sum());
+        }
+
+        private static double percentil(long[] ordenadas, double q) {
+            if (ordenadas.length == 0) return 0;
+            return ordenadas[Math.max(0, (int) Math.ceil(q * ordenadas.length) - 1)] / 1e6;
+        }
+    }
+}
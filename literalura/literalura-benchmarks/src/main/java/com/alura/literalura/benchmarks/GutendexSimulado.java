@@ -0,0 +1,271 @@
+package com.alura.literalura.benchmarks;
+
+import com.alura.literalura.client.CapturaRespostas;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Substituto local da Gutendex para testes de carga, num {@link HttpServer} do JDK.
+ * <p>
+ * Serve as respostas gravadas pelo modo de captura do GutendexClient
+ * ({@code literalura.gutendex.captura.diretorio}), achando o arquivo pela mesma chave
+ * ({@link CapturaRespostas#chave(URI)}); os links "next" que apontavam para a origem passam
+ * a apontar para este servidor. Opcionalmente gera um catálogo sintético de
+ * {@code sinteticos} livros (páginas, {@code /books/{id}}, {@code ?ids=} e buscas que contenham
+ * o número do livro), para quando não há capturas. O que não estiver em nenhum dos dois
+ * responde como a Gutendex responderia a algo inexistente: 404 por id, lista vazia nas buscas.
+ * <p>
+ * Cada resposta espera {@code latencia} ms mais um valor uniforme em [0, {@code jitter}) ms,
+ * sem ocupar as outras conexões (uma thread virtual por requisição).
+ * Com {@code erros} entre 0 e 1, essa fração das respostas (sorteada) é um 503, para
+ * exercitar as novas tentativas e o disjuntor do cliente.
+ *
+ * <pre>
+ * java -cp literalura-benchmarks/target/benchmarks.jar com.alura.literalura.benchmarks.GutendexSimulado \
+ *     porta=8099 capturas=/tmp/capturas latencia=80 jitter=40 sinteticos=5000
+ * java -jar literalura/target/literalura-0.0.1-SNAPSHOT-exec.jar --literalura.gutendex.base-url=http://localhost:8099/books
+ * </pre>
+ */
+public class GutendexSimulado implements AutoCloseable {
+
+    static final String ORIGEM_PADRAO = "https://gutendex.com/books";
+    private static final int POR_PAGINA = 32;
+    private static final Pattern NUMERO = Pattern.compile("\\d+");
+    private static final Pattern LIVRO_POR_ID = Pattern.compile("/books/(\\d+)");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpServer servidor;
+    private final ExecutorService executor;
+    private final Path capturas;
+    private final String origem;
+    private final long latenciaMs;
+    private final long jitterMs;
+    private final int sinteticos;
+    private final double erros;
+    private final ObjectNode modelo;
+    private final String baseUrl;
+
+    // capturas já lidas, com os links reescritos
+    private final Map<String, byte[]> lidas = new ConcurrentHashMap<>();
+    private final LongAdder requisicoes = new LongAdder();
+    private final LongAdder naoEncontradas = new LongAdder();
+    private final LongAdder falhasSimuladas = new LongAdder();
+
+    public GutendexSimulado(int porta, Path capturas, String origem, long latenciaMs, long jitterMs, int sinteticos)
+            throws IOException {
+        this(porta, capturas, origem, latenciaMs, jitterMs, sinteticos, 0);
+    }
+
+    public GutendexSimulado(int porta, Path capturas, String origem, long latenciaMs, long jitterMs, int sinteticos,
+                            double erros) throws IOException {
+        this.capturas = capturas;
+        this.origem = origem;
+        this.latenciaMs = Math.max(0, latenciaMs);
+        this.jitterMs = Math.max(0, jitterMs);
+        this.sinteticos = Math.max(0, sinteticos);
+        this.erros = erros;
+        try (InputStream in = GutendexSimulado.class.getResourceAsStream("/gutendex/livro-1342.json")) {
+            this.modelo = (ObjectNode) MAPPER.readTree(in);
+        }
+        this.servidor = HttpServer.create(new InetSocketAddress("localhost", porta), 1024);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.servidor.setExecutor(executor);
+        this.servidor.createContext("/books", this::responder);
+        this.baseUrl = "http://localhost:" + servidor.getAddress().getPort() + "/books";
+        this.servidor.start();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int porta = 8099;
+        Path capturas = null;
+        String origem = ORIGEM_PADRAO;
+        long latencia = 0;
+        long jitter = 0;
+        int sinteticos = 0;
+        double erros = 0;
+        for (String a : args) {
+            if (a.startsWith("porta=")) porta = Integer.parseInt(a.substring(6));
+            else if (a.startsWith("capturas=")) capturas = Path.of(a.substring(9));
+            else if (a.startsWith("origem=")) origem = a.substring(7);
+            else if (a.startsWith("latencia=")) latencia = Long.parseLong(a.substring(9));
+            else if (a.startsWith("jitter=")) jitter = Long.parseLong(a.substring(7));
+            else if (a.startsWith("sinteticos=")) sinteticos = Integer.parseInt(a.substring(11));
+            else if (a.startsWith("erros=")) erros = Double.parseDouble(a.substring(6));
+            else throw new IllegalArgumentException("Argumento desconhecido: " + a);
+        }
+        GutendexSimulado simulado = new GutendexSimulado(porta, capturas, origem, latencia, jitter, sinteticos, erros);
+        System.out.printf("Gutendex simulada em %s (latência %d ms + até %d ms; capturas: %s; sintéticos: %d)%n",
+                simulado.baseUrl(), latencia, jitter, capturas, sinteticos);
+    }
+
+    /**
+     * Valor para {@code literalura.gutendex.base-url}.
+     */
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    public long requisicoes() {
+        return requisicoes.sum();
+    }
+
+    public long naoEncontradas() {
+        return naoEncontradas.sum();
+    }
+
+    public long falhasSimuladas() {
+        return falhasSimuladas.sum();
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void responder(HttpExchange troca) throws IOException {
+        requisicoes.increment();
+        try (troca) {
+            esperar();
+            if (erros > 0 && ThreadLocalRandom.current().nextDouble() < erros) {
+                falhasSimuladas.increment();
+                troca.sendResponseHeaders(503, -1);
+                return;
+            }
+            URI uri = troca.getRequestURI();
+            String chave = CapturaRespostas.chave(uri);
+            byte[] corpo = capturada(chave);
+            if (corpo == null && sinteticos > 0) corpo = sintetica(uri);
+            if (corpo == null && !LIVRO_POR_ID.matcher(chave).lookingAt()) corpo = pagina(MAPPER.createArrayNode(), 0, null);
+            if (corpo == null) {
+                naoEncontradas.increment();
+                troca.sendResponseHeaders(404, -1);
+                return;
+            }
+            troca.getResponseHeaders().set("Content-Type", "application/json");
+            troca.sendResponseHeaders(200, corpo.length);
+            try (OutputStream out = troca.getResponseBody()) {
+                out.write(corpo);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void esperar() throws InterruptedException {
+        long espera = latenciaMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs) : 0);
+        if (espera > 0) TimeUnit.MILLISECONDS.sleep(espera);
+    }
+
+    private byte[] capturada(String chave) {
+        if (capturas == null) return null;
+        return lidas.computeIfAbsent(chave, c -> {
+            Path arquivo = capturas.resolve(CapturaRespostas.arquivo(c));
+            if (!Files.exists(arquivo)) return null;
+            try {
+                return Files.readString(arquivo, StandardCharsets.UTF_8).replace(origem, baseUrl)
+                        .getBytes(StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // ---- catálogo sintético: livros 1..sinteticos, montados a partir de livro-1342.json ----
+
+    private byte[] sintetica(URI uri) throws IOException {
+        Matcher porId = LIVRO_POR_ID.matcher(uri.getRawPath());
+        if (porId.lookingAt()) {
+            int id = Integer.parseInt(porId.group(1));
+            return id >= 1 && id <= sinteticos ? MAPPER.writeValueAsBytes(livro(id)) : null;
+        }
+        Map<String, String> query = query(uri.getRawQuery());
+        ArrayNode resultados = MAPPER.createArrayNode();
+        if (query.containsKey("ids")) {
+            for (String id : query.get("ids").split(",")) {
+                int n = Integer.parseInt(id.trim());
+                if (n >= 1 && n <= sinteticos) resultados.add(livro(n));
+            }
+            return pagina(resultados, resultados.size(), null);
+        }
+        if (query.containsKey("search")) {
+            Matcher numero = NUMERO.matcher(query.get("search"));
+            if (numero.find()) {
+                int n = Integer.parseInt(numero.group());
+                if (n >= 1 && n <= sinteticos) resultados.add(livro(n));
+            }
+            return pagina(resultados, resultados.size(), null);
+        }
+        int pagina = Integer.parseInt(query.getOrDefault("page", "1"));
+        int de = (pagina - 1) * POR_PAGINA + 1;
+        for (int n = de; n < de + POR_PAGINA && n <= sinteticos; n++) resultados.add(livro(n));
+        String proxima = de + POR_PAGINA <= sinteticos ? baseUrl + "/?page=" + (pagina + 1) : null;
+        return pagina(resultados, sinteticos, proxima);
+    }
+
+    private ObjectNode livro(int id) {
+        ObjectNode livro = modelo.deepCopy();
+        livro.put("id", id);
+        livro.put("title", "Synthetic Book " + id);
+        ObjectNode autor = MAPPER.createObjectNode();
+        int a = id % Math.max(1, sinteticos / 4);
+        autor.put("name", "Author, Synthetic " + a);
+        autor.put("birth_year", 1700 + a % 250);
+        autor.put("death_year", 1760 + a % 250);
+        livro.set("authors", MAPPER.createArrayNode().add(autor));
+        livro.set("languages", MAPPER.createArrayNode().add(List.of("en", "pt", "fr", "de").get(id % 4)));
+        livro.put("download_count", (id * 7919) % 100_000);
+        ObjectNode formatos = MAPPER.createObjectNode();
+        modelo.get("formats").fields().forEachRemaining(f ->
+                formatos.put(f.getKey(), f.getValue().asText().replace("1342", String.valueOf(id))));
+        livro.set("formats", formatos);
+        return livro;
+    }
+
+    private static byte[] pagina(ArrayNode resultados, int total, String proxima) throws IOException {
+        ObjectNode pagina = MAPPER.createObjectNode();
+        pagina.put("count", total);
+        pagina.put("next", proxima);
+        pagina.putNull("previous");
+        pagina.set("results", resultados);
+        return MAPPER.writeValueAsBytes(pagina);
+    }
+
+    private static Map<String, String> query(String bruta) {
+        Map<String, String> parametros = new HashMap<>();
+        if (bruta == null) return parametros;
+        for (String par : bruta.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual > 0) {
+                parametros.put(URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+                        URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parametros;
+    }
+}
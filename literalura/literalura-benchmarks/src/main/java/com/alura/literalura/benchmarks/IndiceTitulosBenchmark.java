@@ -0,0 +1,71 @@
+package com.alura.literalura.benchmarks;
+
+import com.alura.literalura.search.IndiceTitulos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas ao {@link IndiceTitulos} com títulos sintéticos (três palavras sorteadas de um
+ * vocabulário pequeno, mais um número): títulos inteiros, que resolvem pelo título igual, e
+ * duas palavras, que cruzam listas longas de postagens.
+ *
+ * <pre>java -jar target/benchmarks.jar IndiceTitulos</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndiceTitulosBenchmark {
+
+    private static final String[] PALAVRAS = ("amor guerra mar casa noite tempo cidade rio vida morte sombra sol " +
+            "jardim cartas viagem memorias historia coracao segredo ilha montanha reino espelho lua estrela " +
+            "pride prejudice war peace tale cities island treasure sea night heart secret garden kingdom").split(" ");
+
+    @Param({"100000"})
+    public int titulos;
+
+    private IndiceTitulos indice;
+    private String[] consultas;
+    private String[] pares;
+    private int proxima;
+
+    @Setup
+    public void carregar() {
+        Random random = new Random(42);
+        indice = new IndiceTitulos(null);
+        consultas = new String[titulos];
+        pares = new String[titulos];
+        for (int i = 0; i < titulos; i++) {
+            String a = PALAVRAS[random.nextInt(PALAVRAS.length)];
+            String b = PALAVRAS[random.nextInt(PALAVRAS.length)];
+            consultas[i] = a + " " + b + " " + PALAVRAS[random.nextInt(PALAVRAS.length)] + " " + i;
+            pares[i] = a + " " + b;
+            indice.indexar(i, i + 1, consultas[i], "Autor " + (i % 5_000));
+        }
+    }
+
+    @Benchmark
+    public Optional<Long> tituloCompleto() {
+        return indice.buscar(consultas[proxima++ % titulos]);
+    }
+
+    @Benchmark
+    public Optional<Long> duasPalavras() {
+        return indice.buscar(pares[proxima++ % titulos]);
+    }
+}
@@ -0,0 +1,110 @@
+package com.alura.literalura.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Início a frio da aplicação: sobe o comando dado depois de "--" em processos novos
+ * ({@code repeticoes} vezes, mais {@code aquecimento} rodadas descartadas, que só aquecem o
+ * cache de disco do sistema), entrega {@code entrada} na entrada padrão e marca pela saída
+ * <ul>
+ *   <li>o tempo até o primeiro menu (linha "=== MENU ==="),</li>
+ *   <li>o tempo até a primeira consulta respondida: a primeira linha depois de
+ *       {@code marcador} (por padrão o título da opção 2, "Listar livros registrados") e</li>
+ *   <li>o tempo até o processo terminar.</li>
+ * </ul>
+ * Imprime cada rodada e a mediana de cada tempo. A entrada padrão lista a primeira página
+ * de livros e sai ({@code \n} vira quebra de linha). O script {@code scripts/inicio-rapido.sh}
+ * roda as variantes (jar -exec, perfil "rapido", AOT e CDS) com esta classe.
+ *
+ * <pre>
+ * java -cp literalura-benchmarks/target/benchmarks.jar com.alura.literalura.benchmarks.InicioFrio \
+ *     repeticoes=5 rotulo=padrao -- java -jar literalura/target/literalura-0.0.1-SNAPSHOT-exec.jar \
+ *     --spring.datasource.url=jdbc:postgresql://localhost:5432/literalura_bench
+ * </pre>
+ */
+public class InicioFrio {
+
+    private static final String MENU = "=== MENU ===";
+
+    record Rodada(double menuMs, double consultaMs, double totalMs, int saida) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int repeticoes = 5;
+        int aquecimento = 1;
+        String entrada = "2\\n0\\n0\\n";
+        String marcador = "-- Livros Registrados --";
+        String rotulo = "";
+        int separador = Arrays.asList(args).indexOf("--");
+        if (separador < 0 || separador == args.length - 1) {
+            throw new IllegalArgumentException("Informe o comando depois de \"--\"");
+        }
+        for (String a : Arrays.copyOfRange(args, 0, separador)) {
+            if (a.startsWith("repeticoes=")) repeticoes = Integer.parseInt(a.substring(11));
+            else if (a.startsWith("aquecimento=")) aquecimento = Integer.parseInt(a.substring(12));
+            else if (a.startsWith("entrada=")) entrada = a.substring(8);
+            else if (a.startsWith("marcador=")) marcador = a.substring(9);
+            else if (a.startsWith("rotulo=")) rotulo = a.substring(7);
+            else throw new IllegalArgumentException("Argumento desconhecido: " + a);
+        }
+        List<String> comando = List.of(Arrays.copyOfRange(args, separador + 1, args.length));
+        byte[] bytesEntrada = entrada.replace("\\n", "\n").getBytes(StandardCharsets.UTF_8);
+
+        for (int i = 0; i < aquecimento; i++) rodar(comando, bytesEntrada, marcador);
+        List<Rodada> rodadas = new ArrayList<>();
+        for (int i = 0; i < repeticoes; i++) {
+            Rodada r = rodar(comando, bytesEntrada, marcador);
+            rodadas.add(r);
+            System.out.printf("%s rodada %d: menu %.0f ms | primeira consulta %.0f ms | fim %.0f ms%s%n",
+                    rotulo, i + 1, r.menuMs(), r.consultaMs(), r.totalMs(), r.saida() == 0 ? "" : " (saída " + r.saida() + ")");
+        }
+        System.out.printf("%-24s mediana: menu %6.0f ms | primeira consulta %6.0f ms | fim %6.0f ms%n", rotulo,
+                mediana(rodadas.stream().mapToDouble(Rodada::menuMs).toArray()),
+                mediana(rodadas.stream().mapToDouble(Rodada::consultaMs).toArray()),
+                mediana(rodadas.stream().mapToDouble(Rodada::totalMs).toArray()));
+    }
+
+    private static Rodada rodar(List<String> comando, byte[] entrada, String marcador) throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        Process processo = new ProcessBuilder(comando).redirectErrorStream(true).start();
+        try (OutputStream stdin = processo.getOutputStream()) {
+            stdin.write(entrada);
+        }
+        double menu = Double.NaN;
+        double consulta = Double.NaN;
+        boolean depoisDoMarcador = false;
+        try (BufferedReader saida = new BufferedReader(new InputStreamReader(processo.getInputStream(), StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = saida.readLine()) != null) {
+                double agora = (System.nanoTime() - inicio) / 1e6;
+                if (Double.isNaN(menu) && linha.contains(MENU)) {
+                    menu = agora;
+                } else if (depoisDoMarcador && Double.isNaN(consulta)) {
+                    consulta = agora;
+                } else if (linha.contains(marcador)) {
+                    depoisDoMarcador = true;
+                }
+            }
+        }
+        if (!processo.waitFor(2, TimeUnit.MINUTES)) {
+            processo.destroyForcibly();
+            throw new IllegalStateException("O processo não terminou: " + comando);
+        }
+        return new Rodada(menu, consulta, (System.nanoTime() - inicio) / 1e6, processo.exitValue());
+    }
+
+    private static double mediana(double[] valores) {
+        double[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        int meio = ordenados.length / 2;
+        return ordenados.length % 2 == 1 ? ordenados[meio] : (ordenados[meio - 1] + ordenados[meio]) / 2;
+    }
+}
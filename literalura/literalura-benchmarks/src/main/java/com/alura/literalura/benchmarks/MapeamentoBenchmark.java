@@ -0,0 +1,113 @@
+package com.alura.literalura.benchmarks;
+
+import com.alura.literalura.dto.ApiBookResponse;
+import com.alura.literalura.dto.GutenbergBook;
+import com.alura.literalura.mapper.GutenbergResultMapper;
+import com.alura.literalura.mapper.GutendexStreamReader;
+import com.alura.literalura.model.Livro;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho de uma resposta da Gutendex até as entidades, sobre respostas gravadas
+ * (uma página de 32 livros e um {@code /books/{id}}):
+ * desserialização em DTOs ou em árvore, leitura em streaming da ingestão
+ * ({@link GutendexStreamReader}) e os mapeamentos de {@link GutenbergResultMapper}.
+ * Os tempos são por página (ou por livro, no caso do {@code /books/{id}}).
+ *
+ * <pre>java -jar target/benchmarks.jar Mapeamento -prof gc</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeamentoBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] pagina;
+    private byte[] livro;
+    private List<GutenbergBook> resultados;
+    private List<JsonNode> nos;
+
+    @Setup
+    public void carregar() throws IOException {
+        pagina = ler("/gutendex/pagina-livros.json");
+        livro = ler("/gutendex/livro-1342.json");
+        resultados = objectMapper.readValue(pagina, ApiBookResponse.class).getResults();
+        nos = new ArrayList<>();
+        objectMapper.readTree(pagina).path("results").forEach(nos::add);
+    }
+
+    @Benchmark
+    public ApiBookResponse desserializarPagina() throws IOException {
+        return objectMapper.readValue(pagina, ApiBookResponse.class);
+    }
+
+    @Benchmark
+    public GutenbergBook desserializarLivro() throws IOException {
+        return objectMapper.readValue(livro, GutenbergBook.class);
+    }
+
+    @Benchmark
+    public JsonNode lerArvorePagina() throws IOException {
+        return objectMapper.readTree(pagina);
+    }
+
+    /**
+     * Desserialização + mapeamento, como faz a busca: DTOs e depois {@code toLivroList}.
+     */
+    @Benchmark
+    public List<Livro> paginaViaDtos() throws IOException {
+        return GutenbergResultMapper.toLivroList(objectMapper.readValue(pagina, ApiBookResponse.class).getResults());
+    }
+
+    /**
+     * O mesmo pela leitura em streaming usada na importação do catálogo.
+     */
+    @Benchmark
+    public GutendexStreamReader.Pagina paginaViaStreaming(Blackhole bh) throws IOException {
+        return GutendexStreamReader.lerPagina(new ByteArrayInputStream(pagina), bh::consume);
+    }
+
+    @Benchmark
+    public void toLivroDto(Blackhole bh) {
+        for (GutenbergBook b : resultados) bh.consume(GutenbergResultMapper.toLivro(b));
+    }
+
+    @Benchmark
+    public void toLivroJsonNode(Blackhole bh) {
+        for (JsonNode n : nos) bh.consume(GutenbergResultMapper.toLivro(n));
+    }
+
+    @Benchmark
+    public List<Livro> toLivroList() {
+        return GutenbergResultMapper.toLivroList(resultados);
+    }
+
+    private static byte[] ler(String recurso) throws IOException {
+        try (InputStream in = MapeamentoBenchmark.class.getResourceAsStream(recurso)) {
+            return in.readAllBytes();
+        }
+    }
+}
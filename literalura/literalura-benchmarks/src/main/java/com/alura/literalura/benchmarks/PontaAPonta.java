@@ -0,0 +1,127 @@
+package com.alura.literalura.benchmarks;
+
+import com.alura.literalura.LiteraluraApplication;
+import com.alura.literalura.metricas.ResumoMetricas;
+import com.alura.literalura.model.ProgressoIngestao;
+import com.alura.literalura.service.BatchLookupService;
+import com.alura.literalura.service.CatalogIngestionService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark de ponta a ponta contra o {@link GutendexSimulado}: sobe o substituto e a
+ * aplicação inteira (sem menu, sem limite de requisições, com a base-url apontando para o
+ * substituto) e mede
+ * <ol>
+ *   <li>buscas em lote pelo {@link BatchLookupService} (entradas por segundo e latência
+ *       p50/p95/p99 por entrada, até os livros estarem gravados), e</li>
+ *   <li>a importação completa do catálogo pelo {@link CatalogIngestionService} (livros e
+ *       páginas por segundo).</li>
+ * </ol>
+ * Ao final mostra as métricas {@code literalura.*} (tempo por requisição, desserialização,
+ * upserts). Sem capturas, o catálogo é o sintético do substituto e as entradas são títulos
+ * sorteados dele; com {@code entradas=arquivo}, uma entrada por linha.
+ * <p>
+ * A importação grava no banco configurado: use um banco só para isso (argumentos que começam
+ * com "--" vão para o Spring). Numa segunda execução os livros já estão no banco e as buscas
+ * saem do índice local.
+ *
+ * <pre>
+ * java -cp literalura-benchmarks/target/benchmarks.jar com.alura.literalura.benchmarks.PontaAPonta \
+ *     sinteticos=5000 buscas=1000 latencia=80 jitter=40 erros=0.05 \
+ *     --spring.datasource.url=jdbc:postgresql://localhost:5432/literalura_bench
+ * </pre>
+ */
+public class PontaAPonta {
+
+    public static void main(String[] args) throws Exception {
+        Path capturas = null;
+        Path arquivoEntradas = null;
+        String origem = GutendexSimulado.ORIGEM_PADRAO;
+        long latencia = 50;
+        long jitter = 25;
+        int sinteticos = 2000;
+        int buscas = 500;
+        double erros = 0;
+        boolean importar = true;
+        List<String> argsSpring = new ArrayList<>(List.of(
+                "--literalura.menu.ativo=false",
+                "--literalura.http.requisicoes-por-segundo=0",
+                "--literalura.atualizacao-downloads.cron=-",
+                "--spring.jpa.show-sql=false"));
+        for (String a : args) {
+            if (a.startsWith("--")) argsSpring.add(a);
+            else if (a.startsWith("capturas=")) capturas = Path.of(a.substring(9));
+            else if (a.startsWith("entradas=")) arquivoEntradas = Path.of(a.substring(9));
+            else if (a.startsWith("origem=")) origem = a.substring(7);
+            else if (a.startsWith("latencia=")) latencia = Long.parseLong(a.substring(9));
+            else if (a.startsWith("jitter=")) jitter = Long.parseLong(a.substring(7));
+            else if (a.startsWith("sinteticos=")) sinteticos = Integer.parseInt(a.substring(11));
+            else if (a.startsWith("buscas=")) buscas = Integer.parseInt(a.substring(7));
+            else if (a.startsWith("erros=")) erros = Double.parseDouble(a.substring(6));
+            else if (a.startsWith("importar=")) importar = Boolean.parseBoolean(a.substring(9));
+            else throw new IllegalArgumentException("Argumento desconhecido: " + a);
+        }
+
+        try (GutendexSimulado simulado = new GutendexSimulado(0, capturas, origem, latencia, jitter, sinteticos, erros)) {
+            System.out.printf("Gutendex simulada em %s (latência %d ms + até %d ms)%n", simulado.baseUrl(), latencia, jitter);
+            argsSpring.add("--literalura.gutendex.base-url=" + simulado.baseUrl());
+
+            ConfigurableApplicationContext contexto = new SpringApplicationBuilder(LiteraluraApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run(argsSpring.toArray(String[]::new));
+            try {
+                List<String> entradas = arquivoEntradas != null
+                        ? Files.readAllLines(arquivoEntradas, StandardCharsets.UTF_8).stream()
+                            .map(String::trim).filter(l -> !l.isEmpty() && !l.startsWith("#")).toList()
+                        : sorteadas(buscas, sinteticos);
+                if (!entradas.isEmpty()) {
+                    System.out.printf("%n== Buscas: %d entradas ==%n", entradas.size());
+                    contexto.getBean(BatchLookupService.class).processar(entradas).imprimir();
+                }
+
+                if (importar) {
+                    System.out.println("\n== Importação do catálogo ==");
+                    long requisicoesAntes = simulado.requisicoes();
+                    long inicio = System.nanoTime();
+                    ProgressoIngestao progresso = contexto.getBean(CatalogIngestionService.class).importarCatalogo();
+                    double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+                    long paginas = simulado.requisicoes() - requisicoesAntes;
+                    System.out.printf("Importação: %d livros no total, %d páginas nesta execução em %.1f s"
+                                    + " (%.1f páginas/s)%n",
+                            progresso.getLivrosImportados(), paginas, segundos, segundos > 0 ? paginas / segundos : 0);
+                }
+
+                System.out.println("\n== Métricas ==");
+                contexto.getBean(ResumoMetricas.class).linhas().forEach(System.out::println);
+                System.out.printf("%nRequisições ao substituto: %d (404: %d, 503 simulados: %d)%n",
+                        simulado.requisicoes(), simulado.naoEncontradas(), simulado.falhasSimuladas());
+            } finally {
+                contexto.close();
+            }
+        }
+    }
+
+    /**
+     * Títulos do catálogo sintético, com repetições (como buscas reais, que se concentram
+     * em poucos livros) e algumas entradas por id.
+     */
+    private static List<String> sorteadas(int quantidade, int sinteticos) {
+        if (sinteticos <= 0) return List.of();
+        Random aleatorio = new Random(42);
+        List<String> entradas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            int id = 1 + (int) Math.min(sinteticos - 1, Math.abs(aleatorio.nextGaussian()) * sinteticos / 3);
+            entradas.add(i % 10 == 0 ? String.valueOf(id) : "Synthetic Book " + id);
+        }
+        return entradas;
+    }
+}
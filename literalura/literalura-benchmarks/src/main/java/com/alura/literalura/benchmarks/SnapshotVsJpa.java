@@ -0,0 +1,141 @@
+package com.alura.literalura.benchmarks;
+
+import com.alura.literalura.LiteraluraApplication;
+import com.alura.literalura.dto.AutorResumo;
+import com.alura.literalura.dto.LivroResumo;
+import com.alura.literalura.service.BookService;
+import com.alura.literalura.snapshot.ExportadorSnapshot;
+import com.alura.literalura.snapshot.SnapshotCatalogo;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Slice;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Compara as listagens do menu pelo caminho JPA ({@link BookService}) com as mesmas
+ * consultas no snapshot mapeado ({@link SnapshotCatalogo}): tempo até poder responder
+ * (subir o Spring com o banco vs. abrir o arquivo) e latência da primeira chamada e a
+ * mediana de {@code repeticoes} chamadas de
+ * <ul>
+ *   <li>listar todos os livros (página a página de {@code pagina} livros),</li>
+ *   <li>livros de um idioma e</li>
+ *   <li>autores vivos num ano.</li>
+ * </ul>
+ * O snapshot é exportado do mesmo banco logo antes, para um arquivo temporário. Argumentos
+ * que começam com "--" vão para o Spring (use o banco do {@link PontaAPonta} já populado).
+ *
+ * <pre>
+ * java -cp literalura-benchmarks/target/benchmarks.jar com.alura.literalura.benchmarks.SnapshotVsJpa \
+ *     idioma=en ano=1850 repeticoes=50 \
+ *     --spring.datasource.url=jdbc:postgresql://localhost:5432/literalura_bench
+ * </pre>
+ */
+public class SnapshotVsJpa {
+
+    public static void main(String[] args) throws Exception {
+        String idioma = "en";
+        int ano = 1850;
+        int repeticoes = 50;
+        int pagina = 20;
+        List<String> argsSpring = new ArrayList<>(List.of(
+                "--literalura.menu.ativo=false",
+                "--literalura.atualizacao-downloads.cron=-",
+                "--spring.jpa.show-sql=false"));
+        for (String a : args) {
+            if (a.startsWith("--")) argsSpring.add(a);
+            else if (a.startsWith("idioma=")) idioma = a.substring(7);
+            else if (a.startsWith("ano=")) ano = Integer.parseInt(a.substring(4));
+            else if (a.startsWith("repeticoes=")) repeticoes = Integer.parseInt(a.substring(11));
+            else if (a.startsWith("pagina=")) pagina = Integer.parseInt(a.substring(7));
+            else throw new IllegalArgumentException("Argumento desconhecido: " + a);
+        }
+        String idiomaConsulta = idioma;
+        int anoConsulta = ano;
+        int tamanhoPagina = pagina;
+
+        Path arquivo = Files.createTempFile("catalogo", ".snapshot");
+        try {
+            long inicio = System.nanoTime();
+            ConfigurableApplicationContext contexto = new SpringApplicationBuilder(LiteraluraApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run(argsSpring.toArray(String[]::new));
+            double subida = (System.nanoTime() - inicio) / 1e6;
+            try {
+                BookService livros = contexto.getBean(BookService.class);
+                System.out.printf("%n== JPA (Spring subiu em %.0f ms) ==%n", subida);
+                medir("listar todos", repeticoes, () -> todosJpa(livros, tamanhoPagina));
+                medir("livros em " + idioma, repeticoes, () -> (int) livros.paraCadaLivroDoIdioma(idiomaConsulta, livro -> { }));
+                medir("autores vivos em " + ano, repeticoes, () -> vivosJpa(livros, anoConsulta, tamanhoPagina));
+
+                ExportadorSnapshot.ResumoExportacao exportacao = contexto.getBean(ExportadorSnapshot.class).exportar(arquivo);
+                System.out.printf("%nSnapshot exportado: %d livros, %d autores, %.1f KB em %.0f ms%n",
+                        exportacao.livros(), exportacao.autores(), exportacao.bytes() / 1024.0, exportacao.segundos() * 1000);
+            } finally {
+                contexto.close();
+            }
+
+            inicio = System.nanoTime();
+            SnapshotCatalogo catalogo = SnapshotCatalogo.abrir(arquivo);
+            System.out.printf("%n== Snapshot (aberto em %.2f ms) ==%n", (System.nanoTime() - inicio) / 1e6);
+            medir("listar todos", repeticoes, () -> todosSnapshot(catalogo, tamanhoPagina));
+            medir("livros em " + idioma, repeticoes, () -> catalogo.livrosPorIdioma(idiomaConsulta).size());
+            medir("autores vivos em " + ano, repeticoes, () -> catalogo.autoresVivosEm(anoConsulta).size());
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    private static int todosJpa(BookService livros, int tamanho) {
+        int total = 0;
+        long depoisDe = 0;
+        while (true) {
+            Slice<LivroResumo> atual = livros.paginaDeLivros(depoisDe, tamanho);
+            total += atual.getNumberOfElements();
+            if (!atual.hasNext()) return total;
+            depoisDe = atual.getContent().get(atual.getNumberOfElements() - 1).id();
+        }
+    }
+
+    private static int vivosJpa(BookService livros, int ano, int tamanho) {
+        int total = 0;
+        long depoisDe = 0;
+        while (true) {
+            Slice<AutorResumo> atual = livros.paginaDeAutoresVivosEm(ano, depoisDe, tamanho);
+            total += atual.getNumberOfElements();
+            if (!atual.hasNext()) return total;
+            depoisDe = atual.getContent().get(atual.getNumberOfElements() - 1).id();
+        }
+    }
+
+    private static int todosSnapshot(SnapshotCatalogo catalogo, int tamanho) {
+        int total = 0;
+        long depoisDe = 0;
+        while (true) {
+            List<LivroResumo> atual = catalogo.paginaDeLivros(depoisDe, tamanho);
+            total += atual.size();
+            if (atual.size() < tamanho) return total;
+            depoisDe = atual.get(atual.size() - 1).id();
+        }
+    }
+
+    private static void medir(String consulta, int repeticoes, Callable<Integer> chamada) throws Exception {
+        long[] nanos = new long[repeticoes];
+        int linhas = 0;
+        for (int i = 0; i < repeticoes; i++) {
+            long inicio = System.nanoTime();
+            linhas = chamada.call();
+            nanos[i] = System.nanoTime() - inicio;
+        }
+        long primeira = nanos[0];
+        Arrays.sort(nanos);
+        System.out.printf("%-24s %7d linhas | primeira %9.3f ms | mediana %9.3f ms%n",
+                consulta, linhas, primeira / 1e6, nanos[repeticoes / 2] / 1e6);
+    }
+}
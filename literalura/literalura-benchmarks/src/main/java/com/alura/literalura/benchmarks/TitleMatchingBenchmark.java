@@ -0,0 +1,98 @@
+package com.alura.literalura.benchmarks;
+
+import com.alura.literalura.dto.ApiBookResponse;
+import com.alura.literalura.dto.GutenbergBook;
+import com.alura.literalura.search.TitleMatcher;
+import com.alura.literalura.util.TextNormalizer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a escolha antiga do resultado (primeiro título que contém a consulta, senão o
+ * primeiro da lista) com o {@link TitleMatcher}, e a normalização antiga (Normalizer +
+ * regex em toda chamada) com a atual, sobre uma página real de 32 livros da Gutendex.
+ *
+ * <pre>java -jar target/benchmarks.jar TitleMatching -prof gc</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TitleMatchingBenchmark {
+
+    @Param({"pride and prejudice", "Memórias Póstumas de Brás Cubas", "sherlok holmes"})
+    public String consulta;
+
+    private List<GutenbergBook> resultados;
+    private String titulo;
+
+    @Setup
+    public void carregar() throws IOException {
+        try (InputStream in = TitleMatchingBenchmark.class.getResourceAsStream("/gutendex/pagina-livros.json")) {
+            resultados = new ObjectMapper().readValue(in, ApiBookResponse.class).getResults();
+        }
+        titulo = resultados.get(8).getTitle();
+    }
+
+    @Benchmark
+    public Optional<GutenbergBook> escolhaAntiga() {
+        String normalizedSearch = normalizeAntigo(consulta);
+        return Optional.of(resultados.stream()
+                .filter(b -> b.getTitle() != null && normalizeAntigo(b.getTitle()).contains(normalizedSearch))
+                .findFirst()
+                .orElse(resultados.get(0)));
+    }
+
+    @Benchmark
+    public Optional<GutenbergBook> titleMatcher() {
+        return TitleMatcher.melhor(consulta, resultados);
+    }
+
+    @Benchmark
+    public String normalizeAntigoTitulo() {
+        return normalizeAntigo(titulo);
+    }
+
+    @Benchmark
+    public String normalizeAtualTitulo() {
+        return TextNormalizer.normalize(titulo);
+    }
+
+    @Benchmark
+    public String normalizeAntigoConsulta() {
+        return normalizeAntigo(consulta);
+    }
+
+    @Benchmark
+    public String normalizeAtualConsulta() {
+        return TextNormalizer.normalize(consulta);
+    }
+
+    /**
+     * Cópia da implementação anterior de {@link TextNormalizer#normalize}.
+     */
+    static String normalizeAntigo(String s) {
+        if (s == null) return "";
+        String n = Normalizer.normalize(s, Normalizer.Form.NFD);
+        return n.replaceAll("\\p{M}", "").toLowerCase().trim();
+    }
+}
@@ -0,0 +1,77 @@
+package com.alura.literalura.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extração do ID e da primeira palavra da consulta, feitas em toda busca: versões
+ * anteriores (Pattern compilado e split por regex a cada chamada) contra as atuais de
+ * {@link GutenbergService}. Fica no pacote do serviço para chamar os métodos
+ * package-private.
+ *
+ * <pre>java -jar target/benchmarks.jar ExtracaoConsulta -prof gc</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtracaoConsultaBenchmark {
+
+    @Param({"1342", "https://www.gutenberg.org/ebooks/1342", "Memórias Póstumas de Brás Cubas"})
+    public String consulta;
+
+    @Benchmark
+    public String idAntigo() {
+        return extrairIdAntigo(consulta);
+    }
+
+    @Benchmark
+    public String idAtual() {
+        return GutenbergService.extrairIdDoTituloOuLink(consulta);
+    }
+
+    @Benchmark
+    public String primeiraPalavraAntiga() {
+        return extrairPrimeiraPalavraAntiga(consulta);
+    }
+
+    @Benchmark
+    public String primeiraPalavraAtual() {
+        return GutenbergService.extrairPrimeiraPalavra(consulta);
+    }
+
+    /**
+     * Cópias das implementações anteriores.
+     */
+    static String extrairIdAntigo(String entrada) {
+        if (entrada == null) return null;
+        String trimmed = entrada.trim();
+        if (trimmed.matches("\\d+")) return trimmed;
+        Pattern p = Pattern.compile("(\\d+)");
+        Matcher m = p.matcher(trimmed);
+        if (m.find()) return m.group(1);
+        return null;
+    }
+
+    static String extrairPrimeiraPalavraAntiga(String s) {
+        if (s == null) return null;
+        String t = s.trim();
+        if (t.isEmpty()) return null;
+        String[] parts = t.split("\\s+");
+        return parts.length > 0 ? parts[0] : null;
+    }
+}
@@ -1,28 +1,136 @@
 package com.alura.literalura;
 
-import com.alura.literalura.model.Autor;
+import com.alura.literalura.cache.CacheHibernate;
+import com.alura.literalura.cache.GutendexCache;
+import com.alura.literalura.corpus.AnaliseCorpusService;
+import com.alura.literalura.corpus.CorpusService;
+import com.alura.literalura.dto.AutorResumo;
+import com.alura.literalura.dto.LivroResumo;
+import com.alura.literalura.metricas.ResumoMetricas;
 import com.alura.literalura.model.Livro;
+import com.alura.literalura.service.BatchLookupService;
 import com.alura.literalura.service.BookService;
+import com.alura.literalura.service.CatalogIngestionService;
+import com.alura.literalura.service.DownloadRefreshService;
+import com.alura.literalura.service.FilaIngestaoService;
+import com.alura.literalura.stats.EstatisticasCatalogo;
 import com.alura.literalura.service.GutenbergService;
+import com.alura.literalura.snapshot.ExportadorSnapshot;
+import com.alura.literalura.snapshot.ModoSnapshot;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.DefaultApplicationArguments;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
 
 @SpringBootApplication
+@EnableScheduling
 public class LiteraluraApplication {
 
-	public static void main(String[] args) {
-		SpringApplication.run(LiteraluraApplication.class, args);
+	private static final int TAMANHO_PAGINA = 20;
+	private static final int TOP_ESTATISTICAS = 10;
+	private static final String MODO_MENU = "menu";
+	private static final String MODO_API = "api";
+
+	public static void main(String[] args) throws IOException {
+		// modo somente leitura: --snapshot=arquivo responde às listagens direto do snapshot, sem Spring nem banco
+		Optional<String> snapshot = Arrays.stream(args).filter(a -> a.startsWith("--snapshot=")).findFirst();
+		if (snapshot.isPresent()) {
+			ModoSnapshot.executar(Path.of(snapshot.get().substring("--snapshot=".length())));
+			return;
+		}
+		SpringApplication app = new SpringApplication(LiteraluraApplication.class);
+		// o servidor HTTP só sobe no modo API; menu e lote não abrem porta. O tipo de aplicação ainda
+		// pode mudar aqui: o contexto só é criado depois que o Environment fica pronto
+		app.addListeners((ApplicationListener<ApplicationEnvironmentPreparedEvent>) evento -> {
+			if (!modoApi(evento.getEnvironment(), new DefaultApplicationArguments(evento.getArgs()))) {
+				evento.getSpringApplication().setWebApplicationType(WebApplicationType.NONE);
+			}
+		});
+		app.run(args);
+	}
+
+	/**
+	 * Modo API: {@code --modo=api} (ou {@code --modo api}), a propriedade {@code literalura.modo=api}
+	 * ou as variáveis de ambiente {@code MODO}/{@code LITERALURA_MODO}; sem nada disso, o menu.
+	 */
+	static boolean modoApi(Environment ambiente, ApplicationArguments argumentos) {
+		String modo = ambiente.getProperty("modo", ambiente.getProperty("literalura.modo", MODO_MENU));
+		// "--modo api": o Spring lê --modo sem valor e "api" como argumento solto
+		if (argumentos.containsOption("modo") && argumentos.getOptionValues("modo").isEmpty()
+				&& !argumentos.getNonOptionArgs().isEmpty()) {
+			modo = argumentos.getNonOptionArgs().get(0);
+		}
+		return MODO_API.equalsIgnoreCase(modo.trim());
 	}
 
+	// os serviços chegam como ObjectProvider: no perfil "rapido" (lazy-initialization) cada um só é
+	// criado quando a opção escolhida o usa pela primeira vez (@Lazy geraria proxies CGLIB, que não
+	// convivem com as classes de proxy já geradas pelo processamento AOT)
 	@Bean
-	public CommandLineRunner run(GutenbergService gutenbergService, BookService bookService) {
+	@ConditionalOnProperty(name = "literalura.menu.ativo", havingValue = "true", matchIfMissing = true)
+	public CommandLineRunner run(ObjectProvider<GutenbergService> gutenbergService, ObjectProvider<BookService> bookService,
+								 ObjectProvider<CatalogIngestionService> ingestionService, ObjectProvider<BatchLookupService> batchLookupService,
+								 ObjectProvider<DownloadRefreshService> downloadRefreshService,
+								 ObjectProvider<CacheHibernate> cacheHibernate, ObjectProvider<GutendexCache> gutendexCache,
+								 ObjectProvider<ResumoMetricas> resumoMetricas, ObjectProvider<CorpusService> corpusService,
+								 ObjectProvider<AnaliseCorpusService> analiseCorpusService,
+								 ObjectProvider<ExportadorSnapshot> exportadorSnapshot, ObjectProvider<FilaIngestaoService> filaIngestaoService,
+								 ConfigurableApplicationContext contexto, ApplicationArguments argumentos,
+								 @Value("${lote:}") String arquivoLote,
+								 @Value("${exportar-snapshot:}") String exportarSnapshot,
+								 @Value("${fila:}") String filaIngestao) {
 		return args -> {
+			// modo servidor: só a API HTTP (ver pacote api), sem menu
+			if (modoApi(contexto.getEnvironment(), argumentos)) {
+				System.out.println("API do LiterAlura em http://localhost:"
+						+ contexto.getEnvironment().getProperty("local.server.port") + "/api");
+				return;
+			}
+
+			// modo não interativo: --lote=arquivo (ou --lote=- para ler da entrada padrão)
+			if (!arquivoLote.isBlank()) {
+				BatchLookupService.ResumoLote resumo = batchLookupService.getObject().processar(arquivoLote);
+				resumo.imprimir();
+				System.exit(SpringApplication.exit(contexto, () -> resumo.erros() > 0 ? 1 : 0));
+			}
+
+			// modo não interativo: --fila=catalogo importa o catálogo junto com as outras instâncias
+			// no mesmo banco; --fila=nome só trabalha nas tarefas já enfileiradas nessa fila
+			if (!filaIngestao.isBlank()) {
+				FilaIngestaoService.ResumoFila resumo = FilaIngestaoService.FILA_CATALOGO.equals(filaIngestao)
+						? filaIngestaoService.getObject().importarCatalogo()
+						: filaIngestaoService.getObject().trabalhar(filaIngestao);
+				resumo.imprimir();
+				System.exit(SpringApplication.exit(contexto, () -> resumo.falhas() > 0 ? 1 : 0));
+			}
+
+			// modo não interativo: --exportar-snapshot=arquivo grava o snapshot e encerra
+			if (!exportarSnapshot.isBlank()) {
+				System.out.println(exportadorSnapshot.getObject().exportar(Path.of(exportarSnapshot)));
+				System.exit(SpringApplication.exit(contexto, () -> 0));
+			}
+
 			Scanner scanner = new Scanner(System.in);
 			int opcao;
 
@@ -33,6 +141,15 @@ public class LiteraluraApplication {
 				System.out.println("3. Listar nossos autores");
 				System.out.println("4. Listar autores em determinado ano");
 				System.out.println("5. Listar livros em determinado idioma");
+				System.out.println("6. Importar catálogo completo da API");
+				System.out.println("7. Atualizar downloads dos livros registrados");
+				System.out.println("8. Estatísticas de cache");
+				System.out.println("9. Estatísticas do catálogo");
+				System.out.println("10. Métricas de desempenho");
+				System.out.println("11. Baixar textos dos livros registrados (corpus)");
+				System.out.println("12. Analisar textos do corpus");
+				System.out.println("13. Exportar snapshot do catálogo (para --snapshot=arquivo)");
+				System.out.println("14. Importar catálogo pela fila (várias instâncias no mesmo banco)");
 				System.out.println("0. Sair");
 				System.out.print("Escolha uma opção: ");
 
@@ -43,47 +160,131 @@ public class LiteraluraApplication {
 					case 1 -> {
 						System.out.print("Informe o título: ");
 						String titulo = scanner.nextLine();
-						Optional<Livro> resultado = gutenbergService.buscarELancar(titulo);
-						if (resultado.isPresent()) {
+						Optional<Livro> resultado = gutenbergService.getObject().buscarELancar(titulo);
+						if (resultado.isPresent() && resultado.get().getId() != null) {
 							System.out.println("Livro registrado: " + resultado.get());
+						} else if (resultado.isPresent()) {
+							// achado na Gutendex: a gravação segue em segundo plano, ainda sem id
+							Livro livro = resultado.get();
+							System.out.println("Livro encontrado e enviado para gravação: " + livro.getTitulo()
+									+ " (Gutenberg " + livro.getGutenbergId() + ")");
 						} else {
 							System.out.println("Nenhum livro encontrado na API.");
 						}
 					}
 					case 2 -> {
-						List<Livro> livros = bookService.listarTodosLivros();
 						System.out.println("\n-- Livros Registrados --");
-						livros.forEach(System.out::println);
+						listarPaginado(scanner, depoisDe -> bookService.getObject().paginaDeLivros(depoisDe, TAMANHO_PAGINA), LivroResumo::id);
 					}
 					case 3 -> {
-						List<Autor> autores = bookService.listarTodosAutores();
 						System.out.println("\n-- Nossos Autores --");
-						autores.forEach(System.out::println);
+						listarPaginado(scanner, depoisDe -> bookService.getObject().paginaDeAutores(depoisDe, TAMANHO_PAGINA), AutorResumo::id);
 					}
 					case 4 -> {
 						System.out.print("Informe o ano: ");
 						int ano = scanner.nextInt();
-						List<Autor> vivos = bookService.autoresVivosEm(ano);
-						System.out.println("\n-- Autores vivos em " + ano + " --");
-						vivos.forEach(System.out::println);
+						scanner.nextLine();
+						System.out.println("\n-- Autores vivos em " + ano + " (" + bookService.getObject().quantidadeAutoresVivosEm(ano) + ") --");
+						listarPaginado(scanner, depoisDe -> bookService.getObject().paginaDeAutoresVivosEm(ano, depoisDe, TAMANHO_PAGINA),
+								AutorResumo::id);
 					}
 					case 5 -> {
 						System.out.print("Informe o idioma (pt, en, es, fr): ");
 						String idioma = scanner.nextLine();
-						List<Livro> porIdioma = bookService.livrosPorIdioma(idioma);
-						System.out.println("\n-- Livros em " + idioma + " --");
-						if (porIdioma.isEmpty()) {
-							System.out.println("Nenhum livro encontrado nesse idioma.");
-						} else {
-							porIdioma.forEach(System.out::println);
+						System.out.println("\n-- Livros em " + idioma + " (" + bookService.getObject().quantidadeLivrosPorIdioma(idioma) + ") --");
+						listarPaginado(scanner, depoisDe -> bookService.getObject().paginaDeLivrosPorIdioma(idioma, depoisDe, TAMANHO_PAGINA),
+								LivroResumo::id);
+					}
+					case 6 -> {
+						System.out.println("\n-- Importando catálogo completo --");
+						ingestionService.getObject().importarCatalogo();
+					}
+					case 7 -> {
+						System.out.println("\n-- Atualizando downloads --");
+						downloadRefreshService.getObject().atualizarDownloads();
+					}
+					case 8 -> {
+						System.out.println("\n-- Cache do banco (Hibernate, segundo nível) --");
+						cacheHibernate.getObject().estatisticas().forEach(System.out::println);
+						System.out.println("\n-- Cache da Gutendex --");
+						System.out.println(gutendexCache.getObject().estatisticas());
+					}
+					case 9 -> {
+						EstatisticasCatalogo.Resumo resumo = bookService.getObject().estatisticasCatalogo();
+						System.out.println("\n-- Estatísticas do catálogo --");
+						System.out.printf("Livros: %d | autores: %d%n", resumo.livros(), resumo.autores());
+						System.out.printf("Downloads: total %d | média %.1f | mediana ~%d | p90 ~%d | p99 ~%d | máx %d%n",
+								resumo.somaDownloads(), resumo.mediaDownloads(), resumo.p50(), resumo.p90(), resumo.p99(),
+								resumo.maxDownloads());
+						System.out.println("Livros por idioma: " + resumo.livrosPorIdioma());
+						System.out.println("\nAutores com mais livros:");
+						bookService.getObject().autoresComMaisLivros(TOP_ESTATISTICAS).forEach(a -> System.out.println("  " + a));
+						System.out.print("\nIdioma para ver os mais baixados (Enter para voltar): ");
+						String idioma = scanner.nextLine().trim();
+						if (!idioma.isEmpty()) {
+							bookService.getObject().maisBaixadosPorIdioma(idioma, TOP_ESTATISTICAS).forEach(System.out::println);
+						}
+					}
+					case 10 -> {
+						System.out.println("\n-- Métricas de desempenho (desde o início da aplicação) --");
+						List<String> linhas = resumoMetricas.getObject().linhas();
+						if (linhas.isEmpty()) System.out.println("Nenhuma métrica registrada ainda.");
+						linhas.forEach(System.out::println);
+					}
+					case 11 -> {
+						System.out.println("\n-- Baixando textos para o corpus local --");
+						corpusService.getObject().baixarRegistrados();
+						CorpusService.TotaisCorpus totais = corpusService.getObject().totais();
+						System.out.printf("Corpus: %d arquivos em %d objetos, %.1f MB em disco%n",
+								totais.arquivos(), totais.objetos(), totais.bytes() / 1_048_576.0);
+					}
+					case 12 -> {
+						System.out.println("\n-- Análise dos textos do corpus --");
+						analiseCorpusService.getObject().analisar();
+						bookService.getObject().analisesPorIdioma().forEach(System.out::println);
+						System.out.print("\nIdioma para ver os maiores vocabulários (Enter para voltar): ");
+						String idioma = scanner.nextLine().trim();
+						if (!idioma.isEmpty()) {
+							bookService.getObject().maioresVocabularios(idioma, TOP_ESTATISTICAS).forEach(System.out::println);
 						}
 					}
+					case 13 -> {
+						ExportadorSnapshot.ResumoExportacao resumo = exportadorSnapshot.getObject().exportar();
+						System.out.printf("Snapshot gravado em %s: %d livros, %d autores, %.1f KB em %.2f s%n",
+								resumo.arquivo().toAbsolutePath(), resumo.livros(), resumo.autores(),
+								resumo.bytes() / 1024.0, resumo.segundos());
+					}
+					case 14 -> {
+						System.out.println("\n-- Importando catálogo pela fila de ingestão --");
+						filaIngestaoService.getObject().importarCatalogo().imprimir();
+					}
 					case 0 -> System.out.println("Encerrando aplicação.");
 					default -> System.out.println("Opção inválida. Tente novamente.");
 				}
 			} while (opcao != 0);
 
 			scanner.close();
+			// o agendador e a gravação assíncrona mantêm threads vivas: sem isto a JVM não termina
+			System.exit(SpringApplication.exit(contexto, () -> 0));
 		};
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Mostra uma página por vez, buscando a próxima a partir do último id exibido.
+	 */
+	private static <T> void listarPaginado(Scanner scanner, LongFunction<Slice<T>> pagina, ToLongFunction<T> id) {
+		long depoisDe = 0;
+		while (true) {
+			Slice<T> atual = pagina.apply(depoisDe);
+			atual.forEach(System.out::println);
+			if (!atual.hasContent()) {
+				System.out.println("Nenhum registro encontrado.");
+				return;
+			}
+			if (!atual.hasNext()) return;
+			depoisDe = id.applyAsLong(atual.getContent().get(atual.getNumberOfElements() - 1));
+			System.out.print("Enter para a próxima página, 0 para voltar: ");
+			if (scanner.nextLine().trim().equals("0")) return;
+		}
+	}
+}
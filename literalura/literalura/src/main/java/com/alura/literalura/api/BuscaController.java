@@ -0,0 +1,71 @@
+package com.alura.literalura.api;
+
+import com.alura.literalura.client.GutendexIndisponivelException;
+import com.alura.literalura.dto.GutenbergBook;
+import com.alura.literalura.dto.LivroResumo;
+import com.alura.literalura.model.Livro;
+import com.alura.literalura.service.BookService;
+import com.alura.literalura.service.GutenbergService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Busca na Gutendex pela API (modo {@code --modo=api}).
+ */
+@RestController
+@RequestMapping("/api")
+public class BuscaController {
+
+    private final GutenbergService gutenbergService;
+    private final BookService bookService;
+    private final Duration tempoAberto;
+
+    public BuscaController(GutenbergService gutenbergService, BookService bookService,
+                           @Value("${literalura.http.disjuntor.tempo-aberto:PT30S}") Duration tempoAberto) {
+        this.gutenbergService = gutenbergService;
+        this.bookService = bookService;
+        this.tempoAberto = tempoAberto;
+    }
+
+    /**
+     * Resolve o título na Gutendex sem gravar nada. Com a Gutendex fora do ar responde 503.
+     */
+    @GetMapping("/busca")
+    public ResponseEntity<GutenbergBook> buscar(@RequestParam String titulo) {
+        return ResponseEntity.of(gutenbergService.buscar(titulo));
+    }
+
+    /**
+     * Busca e registra, como a opção 1 do menu. Um livro já registrado volta com 200;
+     * um encontrado agora volta com 202, pois vai para a fila de gravação (ainda sem id).
+     */
+    @PostMapping("/livros")
+    public ResponseEntity<LivroResumo> registrar(@RequestParam String titulo) {
+        Optional<Livro> encontrado = gutenbergService.buscarELancar(titulo);
+        if (encontrado.isEmpty()) return ResponseEntity.notFound().build();
+
+        Livro livro = encontrado.get();
+        if (livro.getId() != null) return ResponseEntity.of(bookService.resumoDoLivro(livro.getId()));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new LivroResumo(null, livro.getGutenbergId(),
+                livro.getTitulo(), livro.getIdioma(), livro.getDownloads(),
+                livro.getAutor() != null ? livro.getAutor().getName() : null));
+    }
+
+    @ExceptionHandler(GutendexIndisponivelException.class)
+    public ResponseEntity<String> gutendexIndisponivel(GutendexIndisponivelException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, tempoAberto.toSeconds())))
+                .body(e.getMessage());
+    }
+}
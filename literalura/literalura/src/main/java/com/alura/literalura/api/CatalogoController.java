@@ -0,0 +1,148 @@
+package com.alura.literalura.api;
+
+import com.alura.literalura.dto.AutorResumo;
+import com.alura.literalura.dto.LivroResumo;
+import com.alura.literalura.service.BookService;
+import com.alura.literalura.stats.EstatisticasCatalogo;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Consultas ao catálogo local (modo {@code --modo=api}).
+ * <p>
+ * Listagens paginadas usam a mesma paginação por chave do menu; as rotas {@code /todos}
+ * e a de autores vivos devolvem NDJSON (um objeto JSON por linha), escrito enquanto o
+ * cursor do banco é lido, sem montar a lista inteira em memória.
+ */
+@RestController
+@RequestMapping("/api")
+public class CatalogoController {
+
+    private static final int TAMANHO_MAXIMO = 1000;
+
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+
+    public CatalogoController(BookService bookService, ObjectMapper objectMapper) {
+        this.bookService = bookService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("/livros")
+    public Pagina<LivroResumo> livros(@RequestParam(defaultValue = "0") long depoisDe,
+                                      @RequestParam(defaultValue = "20") int tamanho) {
+        return Pagina.de(bookService.paginaDeLivros(depoisDe, limitar(tamanho)), LivroResumo::id);
+    }
+
+    @GetMapping("/livros/{id}")
+    public ResponseEntity<LivroResumo> livro(@PathVariable long id) {
+        return ResponseEntity.of(bookService.resumoDoLivro(id));
+    }
+
+    @GetMapping(value = "/livros/todos", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody todosOsLivros(@RequestParam(required = false) String idioma) {
+        return this.<LivroResumo>ndjson(escritor -> {
+            if (idioma == null || idioma.isBlank()) bookService.paraCadaLivro(escritor);
+            else bookService.paraCadaLivroDoIdioma(idioma, escritor);
+        });
+    }
+
+    @GetMapping("/livros/mais-baixados")
+    public List<LivroResumo> maisBaixados(@RequestParam String idioma,
+                                          @RequestParam(defaultValue = "10") int quantidade) {
+        return bookService.maisBaixadosPorIdioma(idioma, limitar(quantidade));
+    }
+
+    @GetMapping("/autores")
+    public Pagina<AutorResumo> autores(@RequestParam(defaultValue = "0") long depoisDe,
+                                       @RequestParam(defaultValue = "20") int tamanho) {
+        return Pagina.de(bookService.paginaDeAutores(depoisDe, limitar(tamanho)), AutorResumo::id);
+    }
+
+    @GetMapping(value = "/autores/todos", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody todosOsAutores() {
+        return this.<AutorResumo>ndjson(bookService::paraCadaAutor);
+    }
+
+    /**
+     * Autores vivos em {@code ano}, ou em algum momento entre {@code de} e {@code ate}.
+     */
+    @GetMapping(value = "/autores/vivos", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody autoresVivos(@RequestParam(required = false) Integer ano,
+                                              @RequestParam(required = false) Integer de,
+                                              @RequestParam(required = false) Integer ate) {
+        if (ano != null) {
+            de = ano;
+            ate = ano;
+        }
+        if (de == null || ate == null) throw new IllegalArgumentException("Informe 'ano' ou 'de' e 'ate'.");
+        int inicio = de, fim = ate;
+        return this.<AutorResumo>ndjson(escritor -> bookService.paraCadaAutorVivoEntre(inicio, fim, escritor));
+    }
+
+    @GetMapping("/autores/mais-livros")
+    public List<EstatisticasCatalogo.LivrosDoAutor> autoresComMaisLivros(@RequestParam(defaultValue = "10") int quantidade) {
+        return bookService.autoresComMaisLivros(limitar(quantidade));
+    }
+
+    @GetMapping("/estatisticas")
+    public EstatisticasCatalogo.Resumo estatisticas() {
+        return bookService.estatisticasCatalogo();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> parametroInvalido(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    /**
+     * Resposta NDJSON: o produtor recebe um consumidor que escreve cada item numa linha.
+     */
+    private <T> StreamingResponseBody ndjson(Consumer<Consumer<T>> produtor) {
+        return saida -> {
+            OutputStream buffer = new BufferedOutputStream(saida, 16 * 1024);
+            AtomicBoolean escreveu = new AtomicBoolean();
+            try (SequenceWriter linhas = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(buffer)) {
+                produtor.accept(item -> {
+                    try {
+                        linhas.write(item);
+                        escreveu.set(true);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            // resultado vazio é um corpo vazio, não uma linha em branco
+            if (escreveu.get()) buffer.write('\n');
+            buffer.flush();
+        };
+    }
+
+    private static int limitar(int tamanho) {
+        return Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO));
+    }
+}
@@ -0,0 +1,19 @@
+package com.alura.literalura.api;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Página de uma listagem por chave: {@code proximo} é o valor a passar em
+ * {@code depoisDe} para a página seguinte, ou null na última.
+ */
+public record Pagina<T>(List<T> itens, Long proximo) {
+
+    static <T> Pagina<T> de(Slice<T> slice, ToLongFunction<T> id) {
+        List<T> itens = slice.getContent();
+        Long proximo = slice.hasNext() && !itens.isEmpty() ? id.applyAsLong(itens.get(itens.size() - 1)) : null;
+        return new Pagina<>(itens, proximo);
+    }
+}
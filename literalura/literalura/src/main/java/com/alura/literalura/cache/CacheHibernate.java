@@ -0,0 +1,99 @@
+package com.alura.literalura.cache;
+
+import com.alura.literalura.model.Autor;
+import com.alura.literalura.model.Livro;
+import com.alura.literalura.service.DownloadsAtualizadosEvent;
+import com.alura.literalura.service.LivrosPersistidosEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mantém o cache de segundo nível do Hibernate coerente com as gravações da aplicação.
+ * <p>
+ * Livros e autores são gravados por upserts JDBC (fila de gravação, importação do catálogo,
+ * atualização de downloads), que o Hibernate não enxerga: sem esta invalidação, entidades e
+ * consultas em cache continuariam mostrando o estado antigo. Depois de cada gravação são
+ * removidos os livros e autores afetados e esvaziadas as regiões de consulta.
+ */
+@Component
+public class CacheHibernate {
+
+    private final SessionFactory sessionFactory;
+
+    public CacheHibernate(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /**
+     * Acertos, faltas e inclusões de uma região (ou do total de entidades/consultas)
+     * e quantos elementos ela guarda (-1 quando o provedor não informa).
+     */
+    public record EstatisticasRegiao(String regiao, long acertos, long faltas, long inclusoes, long elementos) {
+
+        public double taxaAcerto() {
+            long total = acertos + faltas;
+            return total > 0 ? (double) acertos / total : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-24s acertos: %d | faltas: %d | inclusões: %d | elementos: %s | taxa: %.0f%%",
+                    regiao, acertos, faltas, inclusoes, elementos >= 0 ? elementos : "?", taxaAcerto() * 100);
+        }
+    }
+
+    @EventListener
+    public void aoPersistirLivros(LivrosPersistidosEvent evento) {
+        Cache cache = sessionFactory.getCache();
+        for (Livro livro : evento.livros()) {
+            if (livro.getId() != null) cache.evictEntityData(Livro.class, livro.getId());
+            Autor autor = livro.getAutor();
+            if (autor != null && autor.getId() != null) cache.evictEntityData(Autor.class, autor.getId());
+        }
+        evictConsultas(cache);
+    }
+
+    @EventListener
+    public void aoAtualizarDownloads(DownloadsAtualizadosEvent evento) {
+        if (evento.alterados() == 0) return;
+        // só os ids do Gutenberg são conhecidos aqui: a região de livros é esvaziada inteira
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(Livro.class);
+        evictConsultas(cache);
+    }
+
+    /**
+     * Totais de entidades e de consultas, seguidos de cada região.
+     */
+    public List<EstatisticasRegiao> estatisticas() {
+        Statistics stats = sessionFactory.getStatistics();
+        List<EstatisticasRegiao> regioes = new ArrayList<>();
+        regioes.add(new EstatisticasRegiao("entidades (total)", stats.getSecondLevelCacheHitCount(),
+                stats.getSecondLevelCacheMissCount(), stats.getSecondLevelCachePutCount(), -1));
+        regioes.add(new EstatisticasRegiao("consultas (total)", stats.getQueryCacheHitCount(),
+                stats.getQueryCacheMissCount(), stats.getQueryCachePutCount(), -1));
+        List<String> nomes = new ArrayList<>(List.of(RegioesCache.LIVROS, RegioesCache.AUTORES));
+        nomes.addAll(List.of(RegioesCache.CONSULTAS));
+        for (String nome : nomes) {
+            CacheRegionStatistics r = stats.getCacheRegionStatistics(nome);
+            if (r == null) continue;
+            regioes.add(new EstatisticasRegiao(nome, r.getHitCount(), r.getMissCount(), r.getPutCount(),
+                    r.getElementCountInMemory()));
+        }
+        return regioes;
+    }
+
+    private static void evictConsultas(Cache cache) {
+        for (String regiao : RegioesCache.CONSULTAS) {
+            cache.evictQueryRegion(regiao);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.alura.literalura.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache das respostas da Gutendex em dois níveis:
+ * memória (Caffeine, limitado por tamanho com política W-TinyLFU e TTL) e,
+ * opcionalmente, disco (um arquivo JSON por chave, que sobrevive a reinícios).
+ * Faltas simultâneas da mesma chave disparam um único carregamento, que todas aguardam.
+ * <p>
+ * Registra no Micrometer as métricas do Caffeine ({@code cache.*} com {@code cache=gutendex})
+ * e {@code literalura.cache.disco} (acertos e faltas do nível em disco) e
+ * {@code literalura.cache.coalescidas} (faltas que aproveitaram um carregamento em andamento).
+ */
+@Component
+public class GutendexCache implements MeterBinder {
+
+    private final Cache<String, Object> memoria;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Path diretorio;   // null quando o nível em disco está desligado
+
+    private final LongAdder acertosDisco = new LongAdder();
+    private final LongAdder faltasDisco = new LongAdder();
+    private final LongAdder coalescidas = new LongAdder();
+
+    // carregamentos em andamento, por chave
+    private final Map<String, CompletableFuture<Object>> emAndamento = new ConcurrentHashMap<>();
+
+    public GutendexCache(ObjectMapper objectMapper,
+                         @Value("${literalura.cache.max-entradas:10000}") long maxEntradas,
+                         @Value("${literalura.cache.ttl:PT24H}") Duration ttl,
+                         @Value("${literalura.cache.disco.diretorio:}") String diretorio) throws IOException {
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.memoria = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        if (diretorio == null || diretorio.isBlank()) {
+            this.diretorio = null;
+        } else {
+            this.diretorio = Path.of(diretorio);
+            Files.createDirectories(this.diretorio);
+        }
+    }
+
+    /**
+     * Devolve na hora o que estiver em memória ou disco para a chave; numa falta,
+     * chama o carregador e guarda o resultado quando ele completar.
+     * Resultados nulos (ex.: livro não encontrado) não são guardados.
+     * Quem chega enquanto a mesma chave já está sendo carregada recebe o mesmo resultado,
+     * sem nova chamada; cancelar o futuro devolvido não afeta os demais.
+     */
+    public <T> CompletableFuture<T> obterAsync(String chave, Class<T> tipo, Supplier<CompletableFuture<T>> carregador) {
+        Object naMemoria = memoria.getIfPresent(chave);
+        if (naMemoria != null) return CompletableFuture.completedFuture(tipo.cast(naMemoria));
+
+        T doDisco = lerDoDisco(chave, tipo);
+        if (doDisco != null) {
+            memoria.put(chave, doDisco);
+            return CompletableFuture.completedFuture(doDisco);
+        }
+
+        CompletableFuture<Object> carregamento = new CompletableFuture<>();
+        CompletableFuture<Object> existente = emAndamento.putIfAbsent(chave, carregamento);
+        if (existente != null) {
+            coalescidas.increment();
+            return existente.thenApply(tipo::cast);
+        }
+        // devolvido antes do carregador rodar, para quem chamou receber a mesma cópia que os demais
+        CompletableFuture<T> resultado = carregamento.thenApply(tipo::cast);
+        CompletableFuture<T> carregado;
+        try {
+            carregado = carregador.get();
+        } catch (RuntimeException e) {
+            carregado = CompletableFuture.failedFuture(e);
+        }
+        carregado.whenComplete((valor, erro) -> {
+            if (valor != null) {
+                memoria.put(chave, valor);
+                gravarNoDisco(chave, valor);
+            }
+            emAndamento.remove(chave, carregamento);
+            if (erro != null) carregamento.completeExceptionally(erro);
+            else carregamento.complete(valor);
+        });
+        return resultado;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registro) {
+        CaffeineCacheMetrics.monitor(registro, memoria, "gutendex");
+        FunctionCounter.builder("literalura.cache.disco", acertosDisco, LongAdder::sum)
+                .tag("resultado", "acerto").register(registro);
+        FunctionCounter.builder("literalura.cache.disco", faltasDisco, LongAdder::sum)
+                .tag("resultado", "falta").register(registro);
+        FunctionCounter.builder("literalura.cache.coalescidas", coalescidas, LongAdder::sum).register(registro);
+    }
+
+    public EstatisticasCache estatisticas() {
+        CacheStats stats = memoria.stats();
+        return new EstatisticasCache(
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                acertosDisco.sum(),
+                faltasDisco.sum(),
+                coalescidas.sum(),
+                memoria.estimatedSize());
+    }
+
+    private <T> T lerDoDisco(String chave, Class<T> tipo) {
+        if (diretorio == null) return null;
+        Path arquivo = arquivoDa(chave);
+        try {
+            if (!Files.exists(arquivo)
+                    || Files.getLastModifiedTime(arquivo).toInstant().isBefore(Instant.now().minus(ttl))) {
+                faltasDisco.increment();
+                return null;
+            }
+            T valor = objectMapper.readValue(arquivo.toFile(), tipo);
+            acertosDisco.increment();
+            return valor;
+        } catch (IOException e) {
+            // arquivo corrompido ou ilegível: trata como falta e deixa ser regravado
+            faltasDisco.increment();
+            return null;
+        }
+    }
+
+    private void gravarNoDisco(String chave, Object valor) {
+        if (diretorio == null) return;
+        Path arquivo = arquivoDa(chave);
+        try {
+            // grava em arquivo temporário e move, para nunca deixar um JSON pela metade
+            Path temp = Files.createTempFile(diretorio, "gutendex", ".tmp");
+            objectMapper.writeValue(temp.toFile(), valor);
+            Files.move(temp, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Não foi possível gravar o cache em disco: " + e.getMessage());
+        }
+    }
+
+    private Path arquivoDa(String chave) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(chave.getBytes(StandardCharsets.UTF_8));
+            return diretorio.resolve(HexFormat.of().formatHex(hash) + ".json");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Contadores do cache: acertos/faltas/remoções da memória, acertos/faltas do disco e faltas
+     * que aproveitaram um carregamento em andamento.
+     */
+    public record EstatisticasCache(long acertos, long faltas, long remocoes,
+                                    long acertosDisco, long faltasDisco, long coalescidas, long tamanho) {
+    }
+}
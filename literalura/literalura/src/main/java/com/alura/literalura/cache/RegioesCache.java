@@ -0,0 +1,18 @@
+package com.alura.literalura.cache;
+
+/**
+ * Nomes das regiões do cache de segundo nível do Hibernate (configuradas em application.conf).
+ */
+public final class RegioesCache {
+
+    public static final String LIVROS = "livros";
+    public static final String AUTORES = "autores";
+    public static final String CONSULTAS_IDIOMA = "consultas-idioma";
+    public static final String CONSULTAS_VIDA = "consultas-vida-autores";
+    public static final String CONSULTAS_LISTAGEM = "consultas-listagem";
+
+    static final String[] CONSULTAS = {CONSULTAS_IDIOMA, CONSULTAS_VIDA, CONSULTAS_LISTAGEM};
+
+    private RegioesCache() {
+    }
+}
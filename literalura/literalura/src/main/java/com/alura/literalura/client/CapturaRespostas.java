@@ -0,0 +1,70 @@
+package com.alura.literalura.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Modo de captura: grava em disco o corpo de cada resposta 2xx que veio da Gutendex,
+ * para depois servir de novo num substituto local (ver o GutendexSimulado do módulo
+ * de benchmarks) sem voltar à API pública.
+ * <p>
+ * Cada resposta vira {@code <sha256 da chave>.json}, em que a chave é o caminho e a query
+ * da requisição ({@link #chave(URI)}); o {@code indice.tsv} guarda chave e arquivo, uma
+ * linha por resposta, para consulta. Respostas servidas pelo cache não passam por aqui.
+ */
+public class CapturaRespostas {
+
+    public static final String INDICE = "indice.tsv";
+
+    private final Path diretorio;
+
+    public CapturaRespostas(Path diretorio) throws IOException {
+        this.diretorio = diretorio;
+        Files.createDirectories(diretorio);
+    }
+
+    /**
+     * Caminho e query da URL, sem a barra final do caminho ({@code /books/?page=2} e
+     * {@code /books?page=2} dão a mesma chave). Não depende de host nem de porta.
+     */
+    public static String chave(URI uri) {
+        String caminho = uri.getRawPath() == null ? "" : uri.getRawPath();
+        while (caminho.length() > 1 && caminho.endsWith("/")) caminho = caminho.substring(0, caminho.length() - 1);
+        return uri.getRawQuery() == null ? caminho : caminho + "?" + uri.getRawQuery();
+    }
+
+    public static String arquivo(String chave) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(chave.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash) + ".json";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void gravar(String url, byte[] corpo) {
+        String chave = chave(URI.create(url));
+        String arquivo = arquivo(chave);
+        try {
+            // temporário + move: o substituto nunca lê uma resposta pela metade
+            Path temp = Files.createTempFile(diretorio, "captura", ".tmp");
+            Files.write(temp, corpo);
+            Files.move(temp, diretorio.resolve(arquivo), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            synchronized (this) {
+                Files.writeString(diretorio.resolve(INDICE), chave + "\t" + arquivo + "\n", StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        } catch (IOException e) {
+            System.err.println("Não foi possível gravar a resposta capturada de " + url + ": " + e.getMessage());
+        }
+    }
+}
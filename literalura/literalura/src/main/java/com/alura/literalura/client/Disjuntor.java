@@ -0,0 +1,111 @@
+package com.alura.literalura.client;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Disjuntor (circuit breaker) para a Gutendex.
+ * <p>
+ * Fechado, tudo passa e as falhas seguidas do servidor são contadas; ao chegar a
+ * {@code falhasParaAbrir} ele abre e, por {@code tempoAbertoNanos}, as chamadas são recusadas
+ * na hora, sem ocupar thread nem conexão esperando um servidor fora do ar. Passado esse
+ * tempo fica meio aberto: uma única chamada de teste passa; se der certo ele fecha, se
+ * falhar abre de novo por mais um período.
+ */
+public class Disjuntor {
+
+    public enum Estado { FECHADO, MEIO_ABERTO, ABERTO }
+
+    private final int falhasParaAbrir;
+    private final long tempoAbertoNanos;
+    private final Consumer<Estado> aoMudar;
+
+    private Estado estado = Estado.FECHADO;
+    private int falhasSeguidas;
+    private long abertoAte;
+    private boolean testeEmAndamento;
+
+    private final LongAdder recusadas = new LongAdder();
+
+    public Disjuntor(int falhasParaAbrir, long tempoAbertoNanos, Consumer<Estado> aoMudar) {
+        this.falhasParaAbrir = Math.max(1, falhasParaAbrir);
+        this.tempoAbertoNanos = Math.max(0, tempoAbertoNanos);
+        this.aoMudar = aoMudar;
+    }
+
+    /**
+     * Diz se a chamada pode seguir. Cada chamada liberada deve terminar em
+     * {@link #sucesso()} ou {@link #falha()}.
+     */
+    public boolean permitir() {
+        Estado novo = null;
+        boolean permitido;
+        synchronized (this) {
+            if (estado == Estado.ABERTO && System.nanoTime() - abertoAte >= 0) {
+                estado = novo = Estado.MEIO_ABERTO;
+            }
+            if (estado == Estado.MEIO_ABERTO) {
+                permitido = !testeEmAndamento;
+                testeEmAndamento = true;
+            } else {
+                permitido = estado == Estado.FECHADO;
+            }
+        }
+        if (novo != null) aoMudar.accept(novo);
+        if (!permitido) recusadas.increment();
+        return permitido;
+    }
+
+    /**
+     * Sem mudar nada: se uma chamada feita agora teria chance de passar.
+     */
+    public synchronized boolean disponivel() {
+        return estado == Estado.FECHADO
+                || (estado == Estado.ABERTO && System.nanoTime() - abertoAte >= 0)
+                || (estado == Estado.MEIO_ABERTO && !testeEmAndamento);
+    }
+
+    /**
+     * O servidor respondeu (mesmo que com 404): a conta de falhas recomeça.
+     */
+    public void sucesso() {
+        boolean fechou;
+        synchronized (this) {
+            falhasSeguidas = 0;
+            testeEmAndamento = false;
+            fechou = estado != Estado.FECHADO;
+            estado = Estado.FECHADO;
+        }
+        if (fechou) aoMudar.accept(Estado.FECHADO);
+    }
+
+    /**
+     * A chamada liberada não chegou a um resultado (interrompida): não conta como sucesso
+     * nem falha, só libera a vaga de teste.
+     */
+    public synchronized void desistir() {
+        testeEmAndamento = false;
+    }
+
+    public void falha() {
+        boolean abriu = false;
+        synchronized (this) {
+            falhasSeguidas++;
+            if (estado == Estado.MEIO_ABERTO || (estado == Estado.FECHADO && falhasSeguidas >= falhasParaAbrir)) {
+                abriu = true;
+                estado = Estado.ABERTO;
+                abertoAte = System.nanoTime() + tempoAbertoNanos;
+                testeEmAndamento = false;
+            }
+        }
+        if (abriu) aoMudar.accept(Estado.ABERTO);
+    }
+
+    public synchronized Estado estado() {
+        return estado;
+    }
+
+    public long recusadas() {
+        return recusadas.sum();
+    }
+}
@@ -0,0 +1,335 @@
+package com.alura.literalura.client;
+
+import com.alura.literalura.cache.GutendexCache;
+import com.alura.literalura.dto.ApiBookResponse;
+import com.alura.literalura.dto.GutenbergBook;
+import com.alura.literalura.mapper.GutendexStreamReader;
+import com.alura.literalura.model.Livro;
+import com.alura.literalura.util.TextNormalizer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Acesso à API Gutendex pelo {@link HttpClient} compartilhado (pool de conexões, HTTP/2).
+ * As consultas por termo e por id são assíncronas e passam pelo {@link GutendexCache},
+ * então buscas repetidas não voltam à rede. As que vão à rede passam por um
+ * {@link LimitadorDeTaxa} compartilhado, para não sobrecarregar a Gutendex.
+ * <p>
+ * Métricas por operação (busca, id, pagina): {@code literalura.gutendex.requisicoes}
+ * (tempo de rede, por status), {@code literalura.gutendex.resposta} (bytes) e
+ * {@code literalura.gutendex.desserializacao} (tempo do Jackson, por tipo).
+ * <p>
+ * O endereço vem de {@code literalura.gutendex.base-url} (para apontar para um substituto
+ * local em testes de carga); com {@code literalura.gutendex.captura.diretorio} as respostas
+ * que vieram da rede são gravadas em disco ({@link CapturaRespostas}).
+ * <p>
+ * Falhas passageiras (5xx, 429, timeouts, conexão) são repetidas conforme {@link Retentativas};
+ * um {@link Disjuntor} recusa as chamadas enquanto a Gutendex estiver fora do ar, com
+ * {@link GutendexIndisponivelException}. Métricas: {@code literalura.gutendex.retentativas}
+ * (por operação e motivo) e {@code literalura.gutendex.disjuntor.*} (estado, transições e
+ * chamadas recusadas).
+ */
+@Component
+public class GutendexClient {
+
+    // padrão de literalura.gutendex.base-url
+    public static final String BASE_URL = "https://gutendex.com/books";
+
+    private static final String METRICA_REQUISICOES = "literalura.gutendex.requisicoes";
+    private static final String METRICA_RESPOSTA = "literalura.gutendex.resposta";
+    private static final String METRICA_DESSERIALIZACAO = "literalura.gutendex.desserializacao";
+    private static final String METRICA_RETENTATIVAS = "literalura.gutendex.retentativas";
+    private static final String METRICA_DISJUNTOR = "literalura.gutendex.disjuntor";
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final GutendexCache cache;
+    private final Duration readTimeout;
+    private final LimitadorDeTaxa limitador;
+    private final MeterRegistry metricas;
+    private final String baseUrl;
+    private final CapturaRespostas captura;   // null fora do modo de captura
+    private final Retentativas retentativas;
+    private final Disjuntor disjuntor;
+
+    public GutendexClient(HttpClient http,
+                          ObjectMapper objectMapper,
+                          GutendexCache cache,
+                          MeterRegistry metricas,
+                          @Value("${literalura.gutendex.base-url:" + BASE_URL + "}") String baseUrl,
+                          @Value("${literalura.gutendex.captura.diretorio:}") String diretorioCaptura,
+                          @Value("${literalura.http.read-timeout:PT20S}") Duration readTimeout,
+                          @Value("${literalura.http.requisicoes-por-segundo:5}") double requisicoesPorSegundo,
+                          @Value("${literalura.http.rajada:5}") int rajada,
+                          @Value("${literalura.http.tentativas:3}") int tentativas,
+                          @Value("${literalura.http.espera-base:PT0.2S}") Duration esperaBase,
+                          @Value("${literalura.http.espera-maxima:PT5S}") Duration esperaMaxima,
+                          @Value("${literalura.http.disjuntor.falhas:5}") int falhasParaAbrir,
+                          @Value("${literalura.http.disjuntor.tempo-aberto:PT30S}") Duration tempoAberto)
+            throws IOException {
+        this.http = http;
+        this.objectMapper = objectMapper;
+        this.cache = cache;
+        this.readTimeout = readTimeout;
+        this.limitador = new LimitadorDeTaxa(requisicoesPorSegundo, rajada);
+        this.metricas = metricas;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.captura = diretorioCaptura.isBlank() ? null : new CapturaRespostas(Path.of(diretorioCaptura));
+        if (captura != null) System.out.println("Capturando respostas da Gutendex em " + diretorioCaptura);
+
+        this.retentativas = new Retentativas(tentativas, esperaBase.toMillis(), esperaMaxima.toMillis());
+        this.disjuntor = new Disjuntor(falhasParaAbrir, tempoAberto.toNanos(), estado -> {
+            System.err.println("Disjuntor da Gutendex: " + estado);
+            metricas.counter(METRICA_DISJUNTOR + ".transicoes", "estado", estado.name().toLowerCase()).increment();
+        });
+        metricas.gauge(METRICA_DISJUNTOR + ".estado", disjuntor, d -> d.estado().ordinal());
+        FunctionCounter.builder(METRICA_DISJUNTOR + ".recusadas", disjuntor, Disjuntor::recusadas).register(metricas);
+    }
+
+    /**
+     * Falso enquanto o disjuntor estiver aberto: quem tiver alternativa local pode usá-la
+     * sem nem tentar a rede.
+     */
+    public boolean disponivel() {
+        return disjuntor.disponivel();
+    }
+
+    public Disjuntor.Estado estadoDisjuntor() {
+        return disjuntor.estado();
+    }
+
+    /**
+     * Endereço de /books em uso (primeira página da importação completa).
+     */
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * GET /books?search={termo}. A chave do cache é o termo normalizado.
+     */
+    public CompletableFuture<ApiBookResponse> buscarPorTermo(String termo) {
+        String chave = "busca:" + TextNormalizer.normalize(termo).replaceAll("\\s+", " ");
+        return cache.obterAsync(chave, ApiBookResponse.class, () -> {
+            String url = UriComponentsBuilder
+                    .fromHttpUrl(baseUrl)
+                    .queryParam("search", termo)
+                    .encode()
+                    .toUriString();
+            System.out.println("Chamando API Gutenberg em: " + url);
+            return getJson(url, ApiBookResponse.class, "busca");
+        });
+    }
+
+    /**
+     * GET /books/{id}. Completa com null quando o livro não existe (404).
+     */
+    public CompletableFuture<GutenbergBook> buscarPorId(String id) {
+        return cache.obterAsync("livro:" + id, GutenbergBook.class, () -> {
+            String urlDireta = baseUrl + "/" + id;
+            System.out.println("Tentando URL direta: " + urlDireta);
+            return getJson(urlDireta, GutenbergBook.class, "id")
+                    .exceptionally(e -> {
+                        if (e.getCause() instanceof GutendexHttpException h && h.getStatus() == 404) return null;
+                        throw e instanceof RuntimeException r ? r : new RuntimeException(e);
+                    });
+        });
+    }
+
+    /**
+     * Lê uma página de resultados (sem cache) em streaming, entregando cada livro ao consumidor.
+     * Usado na importação completa, que percorre cada página uma única vez.
+     * Aqui rede e leitura do JSON se intercalam: o tempo medido é o da página inteira.
+     * No modo de captura o corpo é lido inteiro antes, para ser gravado.
+     * Falhas passageiras são repetidas aqui; como o consumidor pode já ter recebido parte da
+     * página, quem chama deve tolerar livros repetidos (os upserts toleram).
+     */
+    public GutendexStreamReader.Pagina lerPagina(String url, Consumer<Livro> consumidor)
+            throws IOException, InterruptedException {
+        for (int tentativa = 1; ; tentativa++) {
+            if (!disjuntor.permitir()) throw new GutendexIndisponivelException(url);
+            try {
+                GutendexStreamReader.Pagina pagina = lerPaginaUmaVez(url, consumidor);
+                disjuntor.sucesso();
+                return pagina;
+            } catch (InterruptedException e) {
+                disjuntor.desistir();
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                if (!registrarFalha(e, tentativa, "pagina")) throw e;
+                Thread.sleep(retentativas.espera(tentativa));
+            }
+        }
+    }
+
+    private GutendexStreamReader.Pagina lerPaginaUmaVez(String url, Consumer<Livro> consumidor)
+            throws IOException, InterruptedException {
+        limitador.adquirir();
+        Timer.Sample amostra = Timer.start(metricas);
+        String status = "erro";
+        try {
+            if (captura != null) {
+                HttpResponse<byte[]> resposta = http.send(requisicao(url), HttpResponse.BodyHandlers.ofByteArray());
+                status = String.valueOf(resposta.statusCode());
+                if (resposta.statusCode() / 100 != 2) {
+                    throw new GutendexHttpException(url, resposta.statusCode());
+                }
+                tamanhoResposta("pagina").record(resposta.body().length);
+                captura.gravar(url, resposta.body());
+                return GutendexStreamReader.lerPagina(new ByteArrayInputStream(resposta.body()), consumidor);
+            }
+            HttpResponse<InputStream> resposta = http.send(requisicao(url), HttpResponse.BodyHandlers.ofInputStream());
+            status = String.valueOf(resposta.statusCode());
+            resposta.headers().firstValueAsLong("Content-Length")
+                    .ifPresent(bytes -> tamanhoResposta("pagina").record(bytes));
+            try (InputStream corpo = resposta.body()) {
+                if (resposta.statusCode() / 100 != 2) {
+                    throw new GutendexHttpException(url, resposta.statusCode());
+                }
+                return GutendexStreamReader.lerPagina(corpo, consumidor);
+            }
+        } finally {
+            amostra.stop(metricas.timer(METRICA_REQUISICOES, "operacao", "pagina", "status", status));
+        }
+    }
+
+    /**
+     * URL de /books?ids=... para os ids do Gutenberg em {@code ids[de..ate)}.
+     * A Gutendex pagina a resposta (32 livros por página), seguindo "next" como qualquer busca.
+     */
+    public String urlPorIds(int[] ids, int de, int ate) {
+        StringBuilder url = new StringBuilder(baseUrl).append("?ids=");
+        for (int i = de; i < ate; i++) {
+            if (i > de) url.append(',');
+            url.append(ids[i]);
+        }
+        return url.toString();
+    }
+
+    /**
+     * GET /books?ids=... para {@code ids[de..ate)}, sem cache (cada passada quer os dados
+     * atuais). Só a primeira página: quem chama pede no máximo 32 ids por vez.
+     */
+    public CompletableFuture<ApiBookResponse> buscarPorIds(int[] ids, int de, int ate) {
+        return getJson(urlPorIds(ids, de, ate), ApiBookResponse.class, "ids");
+    }
+
+    public GutendexCache.EstatisticasCache estatisticasCache() {
+        return cache.estatisticas();
+    }
+
+    /**
+     * Só é chamado em faltas do cache. Cada tentativa passa pelo disjuntor; as seguintes
+     * esperam sem ocupar thread (executor com atraso) e voltam a passar pelo limitador.
+     */
+    private <T> CompletableFuture<T> getJson(String url, Class<T> tipo, String operacao) {
+        return tentar(url, tipo, operacao, 1);
+    }
+
+    private <T> CompletableFuture<T> tentar(String url, Class<T> tipo, String operacao, int tentativa) {
+        if (!disjuntor.permitir()) return CompletableFuture.failedFuture(new GutendexIndisponivelException(url));
+        return chamar(url, tipo, operacao)
+                .handle((valor, erro) -> {
+                    if (erro == null) {
+                        disjuntor.sucesso();
+                        return CompletableFuture.completedFuture(valor);
+                    }
+                    if (!registrarFalha(erro, tentativa, operacao)) {
+                        return CompletableFuture.<T>failedFuture(Retentativas.causa(erro));
+                    }
+                    Executor depois = CompletableFuture.delayedExecutor(retentativas.espera(tentativa), TimeUnit.MILLISECONDS);
+                    return CompletableFuture.runAsync(() -> { }, depois)
+                            .thenCompose(nada -> tentar(url, tipo, operacao, tentativa + 1));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Conta a falha no disjuntor (se for do servidor) e diz se vale outra tentativa.
+     */
+    private boolean registrarFalha(Throwable erro, int tentativa, String operacao) {
+        Throwable causa = Retentativas.causa(erro);
+        if (causa instanceof InterruptedException || causa instanceof CancellationException) {
+            disjuntor.desistir();
+            return false;
+        }
+        if (!Retentativas.retentavel(causa)) {
+            // 404, JSON inválido etc.: o servidor está respondendo
+            disjuntor.sucesso();
+            return false;
+        }
+        disjuntor.falha();
+        if (tentativa >= retentativas.maximo()) return false;
+        metricas.counter(METRICA_RETENTATIVAS, "operacao", operacao, "motivo", Retentativas.motivo(erro)).increment();
+        return true;
+    }
+
+    /**
+     * A ficha do limitador é esperada sem bloquear: esta chamada também roda em threads do
+     * pool comum (continuações de outras buscas, novas tentativas agendadas).
+     */
+    private <T> CompletableFuture<T> chamar(String url, Class<T> tipo, String operacao) {
+        return limitador.adquirirAsync().thenCompose(liberado -> enviar(url, tipo, operacao));
+    }
+
+    private <T> CompletableFuture<T> enviar(String url, Class<T> tipo, String operacao) {
+        // o tempo de rede vai até o corpo inteiro chegar; a desserialização é medida à parte
+        Timer.Sample rede = Timer.start(metricas);
+        return http.sendAsync(requisicao(url), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((resposta, erro) -> rede.stop(metricas.timer(METRICA_REQUISICOES,
+                        "operacao", operacao, "status", resposta != null ? String.valueOf(resposta.statusCode()) : "erro")))
+                .thenApply(resposta -> {
+                    if (resposta.statusCode() / 100 != 2) {
+                        throw new GutendexHttpException(url, resposta.statusCode());
+                    }
+                    tamanhoResposta(operacao).record(resposta.body().length);
+                    if (captura != null) captura.gravar(url, resposta.body());
+                    Timer.Sample leitura = Timer.start(metricas);
+                    try {
+                        return objectMapper.readValue(resposta.body(), tipo);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } finally {
+                        leitura.stop(metricas.timer(METRICA_DESSERIALIZACAO, "tipo", tipo.getSimpleName()));
+                    }
+                });
+    }
+
+    private DistributionSummary tamanhoResposta(String operacao) {
+        return DistributionSummary.builder(METRICA_RESPOSTA)
+                .baseUnit("bytes")
+                .tag("operacao", operacao)
+                .register(metricas);
+    }
+
+    private HttpRequest requisicao(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(readTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.alura.literalura.client;
+
+/**
+ * Resposta HTTP da Gutendex com status diferente de 2xx.
+ */
+public class GutendexHttpException extends RuntimeException {
+
+    private final int status;
+
+    public GutendexHttpException(String url, int status) {
+        super("Gutendex respondeu " + status + " para " + url);
+        this.status = status;
+    }
+
+    public int getStatus() { return status; }
+}
@@ -0,0 +1,11 @@
+package com.alura.literalura.client;
+
+/**
+ * Chamada recusada sem ir à rede porque o {@link Disjuntor} da Gutendex está aberto.
+ */
+public class GutendexIndisponivelException extends RuntimeException {
+
+    public GutendexIndisponivelException(String url) {
+        super("Gutendex indisponível (disjuntor aberto); chamada a " + url + " não foi feita");
+    }
+}
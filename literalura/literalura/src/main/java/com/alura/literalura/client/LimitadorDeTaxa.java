@@ -0,0 +1,54 @@
+package com.alura.literalura.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket: libera até {@code porSegundo} requisições por segundo, com rajadas de
+ * até {@code capacidade}. Quem chega sem ficha reserva a próxima e espera até ela,
+ * então a ordem de chegada é respeitada e ninguém fica girando em laço.
+ * Uma taxa menor ou igual a zero desliga o limite.
+ * <p>
+ * {@link #adquirir} dorme na thread de quem chama; {@link #adquirirAsync} devolve um futuro
+ * que completa na hora da ficha, sem prender thread nenhuma enquanto isso.
+ */
+public class LimitadorDeTaxa {
+
+    private final double porSegundo;
+    private final double capacidade;
+    private double fichas;
+    private long ultimaRecarga;
+
+    public LimitadorDeTaxa(double porSegundo, double capacidade) {
+        this.porSegundo = porSegundo;
+        this.capacidade = Math.max(1, capacidade);
+        this.fichas = this.capacidade;
+        this.ultimaRecarga = System.nanoTime();
+    }
+
+    public void adquirir() throws InterruptedException {
+        long esperaNanos = reservar();
+        if (esperaNanos > 0) TimeUnit.NANOSECONDS.sleep(esperaNanos);
+    }
+
+    public CompletableFuture<Void> adquirirAsync() {
+        long esperaNanos = reservar();
+        if (esperaNanos <= 0) return CompletableFuture.completedFuture(null);
+        return CompletableFuture.runAsync(() -> { },
+                CompletableFuture.delayedExecutor(esperaNanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Reserva uma ficha e devolve quanto falta para ela valer, em nanossegundos.
+     */
+    private long reservar() {
+        if (porSegundo <= 0) return 0;
+        synchronized (this) {
+            long agora = System.nanoTime();
+            fichas = Math.min(capacidade, fichas + (agora - ultimaRecarga) / 1e9 * porSegundo);
+            ultimaRecarga = agora;
+            fichas -= 1;   // pode ficar negativo: é a fila de quem já reservou
+            return fichas >= 0 ? 0 : (long) (-fichas / porSegundo * 1e9);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.alura.literalura.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Política de novas tentativas para chamadas à Gutendex: até {@code maximo} tentativas,
+ * esperando entre elas um valor sorteado em [0, min(teto, base * 2^(n-1))) ("full jitter"),
+ * para que clientes que falharam juntos não voltem todos no mesmo instante.
+ * <p>
+ * Só vale repetir o que pode passar sozinho: 5xx, 429, timeouts e falhas de conexão.
+ * 404 e JSON inválido voltam na primeira vez.
+ */
+public class Retentativas {
+
+    private final int maximo;
+    private final long baseMs;
+    private final long tetoMs;
+
+    public Retentativas(int maximo, long baseMs, long tetoMs) {
+        this.maximo = Math.max(1, maximo);
+        this.baseMs = Math.max(1, baseMs);
+        this.tetoMs = Math.max(this.baseMs, tetoMs);
+    }
+
+    public int maximo() {
+        return maximo;
+    }
+
+    /**
+     * Espera antes da tentativa {@code tentativa + 1}, em milissegundos.
+     */
+    public long espera(int tentativa) {
+        long limite = baseMs << Math.min(tentativa - 1, 20);
+        return ThreadLocalRandom.current().nextLong(Math.min(tetoMs, limite));
+    }
+
+    public static boolean retentavel(Throwable erro) {
+        Throwable causa = causa(erro);
+        if (causa instanceof GutendexHttpException h) return h.getStatus() >= 500 || h.getStatus() == 429;
+        // JSON inválido também é IOException (JsonParseException, na leitura em streaming), mas
+        // é resposta do servidor: repetir só entregaria a mesma página de novo
+        if (causa instanceof JsonProcessingException) return false;
+        // HttpTimeoutException (conexão ou leitura) também é IOException
+        return causa instanceof IOException;
+    }
+
+    /**
+     * Rótulo curto do motivo da falha, para as métricas (status HTTP ou tipo da exceção).
+     */
+    public static String motivo(Throwable erro) {
+        Throwable causa = causa(erro);
+        if (causa instanceof GutendexHttpException h) return String.valueOf(h.getStatus());
+        if (causa instanceof HttpTimeoutException) return "timeout";
+        return causa.getClass().getSimpleName();
+    }
+
+    static Throwable causa(Throwable erro) {
+        while ((erro instanceof CompletionException || erro instanceof ExecutionException) && erro.getCause() != null) {
+            erro = erro.getCause();
+        }
+        return erro;
+    }
+}
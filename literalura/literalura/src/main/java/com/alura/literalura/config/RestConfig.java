@@ -1,30 +1,26 @@
 package com.alura.literalura.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
-import org.springframework.web.client.RestTemplate;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
 
 @Configuration
 public class RestConfig {
 
+    /**
+     * Cliente HTTP compartilhado: mantém um pool de conexões keep-alive, negocia HTTP/2
+     * quando o servidor aceita e permite chamadas assíncronas (sendAsync).
+     * O timeout de leitura é aplicado por requisição em GutendexClient.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        RestTemplate restTemplate = new RestTemplate();
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
-        MappingJackson2HttpMessageConverter jsonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
-
-        // Remove the default converters and add our customized one
-        List<MappingJackson2HttpMessageConverter> converters = new ArrayList<>();
-        converters.add(jsonConverter);
-        restTemplate.setMessageConverters(Collections.unmodifiableList(converters));
-
-        return restTemplate;
+    public HttpClient httpClient(@Value("${literalura.http.connect-timeout:PT5S}") Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
     }
-}
\ No newline at end of file
+}
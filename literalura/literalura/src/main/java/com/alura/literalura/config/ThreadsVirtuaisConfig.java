@@ -0,0 +1,32 @@
+package com.alura.literalura.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Executors;
+
+/**
+ * No modo API cada requisição roda em uma thread virtual: chamadas bloqueantes (banco,
+ * Gutendex) não prendem threads do sistema, então muitos clientes simultâneos não ficam
+ * limitados ao pool do Tomcat. As respostas em streaming (NDJSON) também são escritas em
+ * threads virtuais.
+ */
+@Configuration
+@ConditionalOnWebApplication
+public class ThreadsVirtuaisConfig implements WebMvcConfigurer {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> tomcatEmThreadsVirtuais() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor()));
+    }
+}
@@ -0,0 +1,200 @@
+package com.alura.literalura.corpus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Conta palavras, linhas e frases de um arquivo de texto (UTF-8 ou ASCII) mapeado em memória
+ * com {@link FileChannel#map}: os bytes são lidos direto do cache de páginas do sistema, sem
+ * passar por {@code String} nem por buffers no heap.
+ * <p>
+ * O texto é dividido em trechos que terminam em fim de linha (uma palavra nunca fica entre
+ * dois trechos) até ficarem menores que {@code limiar}; os trechos são contados em paralelo
+ * pelo fork-join e os {@link ContadorPalavras} somados de volta. Chamado de dentro de um
+ * {@code ForkJoinPool}, usa esse pool; de fora, o pool comum.
+ * <p>
+ * Palavra é uma sequência de letras (A-Z em minúsculas, e qualquer caractere não ASCII),
+ * podendo ter apóstrofo entre letras ({@code don't}); números e pontuação separam. Palavras
+ * com mais de {@value ContadorPalavras#MAX_BYTES_PALAVRA} bytes são ignoradas. Frase termina
+ * em ".", "!" ou "?" seguido de espaço. Nos arquivos do Gutenberg só conta o que está entre
+ * as linhas "*** START OF" e "*** END OF" (a licença fica de fora).
+ */
+public class AnalisadorTexto {
+
+    public static final int LIMIAR_PADRAO = 1024 * 1024;
+
+    private static final byte[] INICIO_GUTENBERG = "*** START OF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FIM_GUTENBERG = "*** END OF".getBytes(StandardCharsets.US_ASCII);
+    // o cabeçalho do Gutenberg fica nas primeiras dezenas de KB; a licença, nas últimas
+    private static final int BUSCA_MARCADOR = 64 * 1024;
+
+    private final int limiar;
+
+    public AnalisadorTexto() {
+        this(LIMIAR_PADRAO);
+    }
+
+    public AnalisadorTexto(int limiar) {
+        this.limiar = Math.max(1, limiar);
+    }
+
+    public EstatisticasTexto analisar(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            if (tamanho > Integer.MAX_VALUE) throw new IOException("Arquivo grande demais para analisar: " + arquivo);
+            if (tamanho == 0) return new EstatisticasTexto();
+            // o mapeamento continua válido depois de fechar o canal
+            return analisar(canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanho));
+        }
+    }
+
+    public EstatisticasTexto analisar(ByteBuffer texto) {
+        int inicio = inicioDoTexto(texto);
+        int fim = fimDoTexto(texto, inicio);
+        return new Trecho(texto, inicio, fim).invoke();
+    }
+
+    private final class Trecho extends RecursiveTask<EstatisticasTexto> {
+
+        private final ByteBuffer texto;
+        private final int inicio;
+        private final int fim;
+
+        Trecho(ByteBuffer texto, int inicio, int fim) {
+            this.texto = texto;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected EstatisticasTexto compute() {
+            if (fim - inicio <= limiar) return contar(texto, inicio, fim);
+            int meio = depoisDaLinha(texto, inicio + (fim - inicio) / 2, fim);
+            if (meio >= fim) return contar(texto, inicio, fim);   // sem quebra de linha na segunda metade
+
+            Trecho esquerda = new Trecho(texto, inicio, meio);
+            esquerda.fork();
+            EstatisticasTexto direita = new Trecho(texto, meio, fim).compute();
+            return esquerda.join().juntar(direita);
+        }
+    }
+
+    /**
+     * Uma passada pelos bytes de {@code [inicio, fim)}, só com leituras absolutas (o mesmo
+     * buffer é lido por várias threads).
+     */
+    static EstatisticasTexto contar(ByteBuffer texto, int inicio, int fim) {
+        // ~1 palavra distinta a cada 64 bytes em trechos pequenos; a tabela cresce se precisar
+        ContadorPalavras contador = new ContadorPalavras(Math.min(1 << 16, (fim - inicio) / 64));
+        byte[] palavra = new byte[ContadorPalavras.MAX_BYTES_PALAVRA];
+        int tamanho = 0;
+        int caracteresDaPalavra = 0;
+        long hash = ContadorPalavras.HASH_INICIAL;
+        long linhas = 0;
+        long frases = 0;
+        long caracteres = 0;
+
+        for (int i = inicio; i < fim; i++) {
+            int b = texto.get(i) & 0xFF;
+            int bytesDoSimbolo = 1;
+            boolean parteDaPalavra;
+            if (b >= 'A' && b <= 'Z') {
+                b += 'a' - 'A';
+                parteDaPalavra = true;
+            } else if (b >= 'a' && b <= 'z') {
+                parteDaPalavra = true;
+            } else if (b == 0xE2 && i + 2 < fim && (texto.get(i + 1) & 0xFF) == 0x80) {
+                // U+2000..U+203F (travessões, aspas curvas): separa, menos o apóstrofo curvo entre letras
+                bytesDoSimbolo = 3;
+                parteDaPalavra = (texto.get(i + 2) & 0xFF) == 0x99 && tamanho > 0 && letra(texto, i + 3, fim);
+            } else if (b >= 0x80) {
+                parteDaPalavra = true;
+            } else {
+                parteDaPalavra = b == '\'' && tamanho > 0 && letra(texto, i + 1, fim);
+            }
+
+            if (parteDaPalavra) {
+                for (int k = 0; k < bytesDoSimbolo; k++) {
+                    int c = k == 0 ? b : texto.get(i + k) & 0xFF;
+                    if (tamanho < palavra.length) palavra[tamanho] = (byte) c;
+                    tamanho++;
+                    hash = ContadorPalavras.hash(hash, c);
+                    if ((c & 0xC0) != 0x80) caracteresDaPalavra++;   // não é continuação UTF-8
+                }
+                i += bytesDoSimbolo - 1;
+                continue;
+            }
+
+            if (tamanho > 0) {
+                if (tamanho <= palavra.length) {
+                    contador.adicionar(hash, palavra, tamanho, 1);
+                    caracteres += caracteresDaPalavra;
+                }
+                tamanho = 0;
+                caracteresDaPalavra = 0;
+                hash = ContadorPalavras.HASH_INICIAL;
+            }
+            if (b == '\n') {
+                linhas++;
+            } else if ((b == '.' || b == '!' || b == '?') && (i + 1 == fim || espaco(texto.get(i + 1)))) {
+                frases++;
+            }
+            i += bytesDoSimbolo - 1;
+        }
+        if (tamanho > 0 && tamanho <= palavra.length) {
+            contador.adicionar(hash, palavra, tamanho, 1);
+            caracteres += caracteresDaPalavra;
+        }
+        return new EstatisticasTexto(fim - inicio, linhas, frases, caracteres, contador);
+    }
+
+    private static boolean letra(ByteBuffer texto, int i, int fim) {
+        if (i >= fim) return false;
+        int b = texto.get(i) & 0xFF;
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= 0x80 && b != 0xE2);
+    }
+
+    private static boolean espaco(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    // posição logo depois do próximo '\n' a partir de "de" (ou fim)
+    private static int depoisDaLinha(ByteBuffer texto, int de, int fim) {
+        for (int i = de; i < fim; i++) {
+            if (texto.get(i) == '\n') return i + 1;
+        }
+        return fim;
+    }
+
+    private static int inicioDoTexto(ByteBuffer texto) {
+        int marcador = procurar(texto, INICIO_GUTENBERG, 0, Math.min(texto.limit(), BUSCA_MARCADOR));
+        return marcador < 0 ? 0 : depoisDaLinha(texto, marcador, texto.limit());
+    }
+
+    private static int fimDoTexto(ByteBuffer texto, int inicio) {
+        int de = Math.max(inicio, texto.limit() - BUSCA_MARCADOR);
+        int marcador = -1;
+        for (int i = procurar(texto, FIM_GUTENBERG, de, texto.limit()); i >= 0;
+             i = procurar(texto, FIM_GUTENBERG, i + 1, texto.limit())) {
+            marcador = i;
+        }
+        if (marcador < 0) return texto.limit();
+        // volta ao início da linha do marcador
+        while (marcador > inicio && texto.get(marcador - 1) != '\n') marcador--;
+        return marcador;
+    }
+
+    private static int procurar(ByteBuffer texto, byte[] alvo, int de, int ate) {
+        for (int i = de; i + alvo.length <= ate; i++) {
+            int k = 0;
+            while (k < alvo.length && texto.get(i + k) == alvo[k]) k++;
+            if (k == alvo.length) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,245 @@
+package com.alura.literalura.corpus;
+
+import com.alura.literalura.model.AnaliseIdioma;
+import com.alura.literalura.model.AnaliseLivro;
+import com.alura.literalura.repository.AnaliseIdiomaRepository;
+import com.alura.literalura.repository.AnaliseLivroRepository;
+import com.alura.literalura.repository.ArquivoCorpusRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Análise dos textos do corpus ({@code text/plain} baixados pelo {@link CorpusService}):
+ * frequência de palavras, vocabulário e medidas de leitura por livro ({@link AnaliseLivro})
+ * e por idioma do livro ({@link AnaliseIdioma}), gravadas para serem consultadas pelo
+ * BookService.
+ * <p>
+ * Cada arquivo é mapeado em memória e contado pelo {@link AnalisadorTexto} num
+ * {@link ForkJoinPool} próprio: vários livros ao mesmo tempo e, nos grandes, vários trechos
+ * do mesmo livro. Os livros vão em lotes, para que só os contadores de um lote e os dos
+ * idiomas fiquem em memória. Métricas: {@code literalura.analise.livro} (tempo por livro) e
+ * {@code literalura.analise.bytes}.
+ */
+@Service
+public class AnaliseCorpusService {
+
+    private final ArquivoCorpusRepository arquivoRepo;
+    private final AnaliseLivroRepository analiseLivroRepo;
+    private final AnaliseIdiomaRepository analiseIdiomaRepo;
+    private final CorpusService corpus;
+    private final MeterRegistry metricas;
+    private final TransactionTemplate tx;
+    private final AnalisadorTexto analisador;
+    private final ForkJoinPool pool;
+    private final int livrosPorLote;
+    private final int palavrasFrequentes;
+    private final double palavrasPorMinuto;
+    private final Counter bytesAnalisados;
+    private final AtomicBoolean emAndamento = new AtomicBoolean();
+
+    public AnaliseCorpusService(ArquivoCorpusRepository arquivoRepo,
+                                AnaliseLivroRepository analiseLivroRepo,
+                                AnaliseIdiomaRepository analiseIdiomaRepo,
+                                CorpusService corpus,
+                                MeterRegistry metricas,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${literalura.analise.paralelismo:0}") int paralelismo,
+                                @Value("${literalura.analise.livros-por-lote:64}") int livrosPorLote,
+                                @Value("${literalura.analise.palavras-frequentes:20}") int palavrasFrequentes,
+                                @Value("${literalura.analise.palavras-por-minuto:238}") double palavrasPorMinuto) {
+        this.arquivoRepo = arquivoRepo;
+        this.analiseLivroRepo = analiseLivroRepo;
+        this.analiseIdiomaRepo = analiseIdiomaRepo;
+        this.corpus = corpus;
+        this.metricas = metricas;
+        this.tx = transactionTemplate;
+        this.analisador = new AnalisadorTexto();
+        this.pool = new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors());
+        this.livrosPorLote = Math.max(1, livrosPorLote);
+        this.palavrasFrequentes = palavrasFrequentes;
+        this.palavrasPorMinuto = palavrasPorMinuto;
+        this.bytesAnalisados = Counter.builder("literalura.analise.bytes").baseUnit("bytes").register(metricas);
+    }
+
+    /**
+     * Resumo de uma análise: livros analisados, os que faltavam no disco ou falharam,
+     * idiomas, bytes lidos e tempo.
+     */
+    public record ResumoAnalise(int livros, int ausentes, int falhas, int idiomas, long bytes, double segundos) {
+    }
+
+    // soma dos livros de um idioma
+    private static final class Agregado {
+        final EstatisticasTexto estatisticas = new EstatisticasTexto();
+        int livros;
+        long maxPalavras;
+    }
+
+    /**
+     * Analisa todos os textos do corpus e substitui os agregados gravados. Devolve null se
+     * já houver uma análise em andamento.
+     */
+    public ResumoAnalise analisar() {
+        if (!emAndamento.compareAndSet(false, true)) {
+            System.out.println("Análise do corpus já em andamento.");
+            return null;
+        }
+        try {
+            return analisarTudo();
+        } finally {
+            emAndamento.set(false);
+        }
+    }
+
+    private ResumoAnalise analisarTudo() {
+        long inicio = System.nanoTime();
+        List<ArquivoCorpusRepository.TextoParaAnalise> textos = arquivoRepo.findTextosParaAnalise();
+        System.out.println("Analisando " + textos.size() + " textos do corpus (" + pool.getParallelism() + " threads)...");
+
+        Map<String, Agregado> porIdioma = new HashMap<>();
+        LocalDateTime agora = LocalDateTime.now();
+        int analisados = 0;
+        int ausentes = 0;
+        int falhas = 0;
+        long bytes = 0;
+
+        for (int de = 0; de < textos.size() && !Thread.currentThread().isInterrupted(); de += livrosPorLote) {
+            List<ArquivoCorpusRepository.TextoParaAnalise> lote = textos.subList(de, Math.min(textos.size(), de + livrosPorLote));
+            List<ForkJoinTask<EstatisticasTexto>> tarefas = new ArrayList<>(lote.size());
+            for (ArquivoCorpusRepository.TextoParaAnalise texto : lote) {
+                Path arquivo = corpus.arquivo(texto.getSha256());
+                tarefas.add(Files.exists(arquivo) ? pool.submit(() -> analisarArquivo(arquivo)) : null);
+            }
+
+            Map<Integer, AnaliseLivro> gravadas = analiseLivroRepo
+                    .findByGutenbergIdIn(lote.stream().map(ArquivoCorpusRepository.TextoParaAnalise::getGutenbergId).toList())
+                    .stream().collect(Collectors.toMap(AnaliseLivro::getGutenbergId, Function.identity()));
+            List<AnaliseLivro> analises = new ArrayList<>(lote.size());
+            for (int i = 0; i < lote.size(); i++) {
+                ArquivoCorpusRepository.TextoParaAnalise texto = lote.get(i);
+                if (tarefas.get(i) == null) {
+                    ausentes++;
+                    continue;
+                }
+                EstatisticasTexto estatisticas;
+                try {
+                    estatisticas = tarefas.get(i).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException e) {
+                    falhas++;
+                    System.err.println("Falha ao analisar o livro " + texto.getGutenbergId() + ": " + e.getCause().getMessage());
+                    continue;
+                }
+                analisados++;
+                bytes += estatisticas.bytes();
+                String idioma = texto.getIdioma() != null ? texto.getIdioma() : "?";
+                // as frequências saem antes da soma no idioma, que pode reaproveitar o contador do livro
+                analises.add(paraLivro(gravadas.getOrDefault(texto.getGutenbergId(), new AnaliseLivro(texto.getGutenbergId())),
+                        idioma, texto.getSha256(), estatisticas, agora));
+                Agregado agregado = porIdioma.computeIfAbsent(idioma, k -> new Agregado());
+                agregado.livros++;
+                agregado.maxPalavras = Math.max(agregado.maxPalavras, estatisticas.palavras());
+                agregado.estatisticas.juntar(estatisticas);
+            }
+            analiseLivroRepo.saveAll(analises);
+        }
+
+        if (Thread.currentThread().isInterrupted()) {
+            // agregados parciais não substituem os da última análise completa
+            System.out.println("Análise interrompida depois de " + analisados + " livros.");
+            return new ResumoAnalise(analisados, ausentes, falhas, porIdioma.size(), bytes,
+                    (System.nanoTime() - inicio) / 1_000_000_000.0);
+        }
+        List<AnaliseIdioma> idiomas = new ArrayList<>(porIdioma.size());
+        porIdioma.forEach((idioma, agregado) -> idiomas.add(paraIdioma(idioma, agregado, agora)));
+        // troca numa transação só: ninguém lê a tabela vazia, e uma falha mantém os agregados anteriores
+        tx.executeWithoutResult(status -> {
+            analiseIdiomaRepo.deleteAllInBatch();
+            analiseIdiomaRepo.saveAll(idiomas);
+        });
+
+        ResumoAnalise resumo = new ResumoAnalise(analisados, ausentes, falhas, idiomas.size(), bytes,
+                (System.nanoTime() - inicio) / 1_000_000_000.0);
+        System.out.printf("Análise: %d livros em %d idiomas (%d sem arquivo, %d falhas), %.1f MB em %.1f s (%.1f MB/s)%n",
+                resumo.livros(), resumo.idiomas(), resumo.ausentes(), resumo.falhas(), resumo.bytes() / 1_048_576.0,
+                resumo.segundos(), resumo.segundos() > 0 ? resumo.bytes() / 1_048_576.0 / resumo.segundos() : 0);
+        return resumo;
+    }
+
+    private EstatisticasTexto analisarArquivo(Path arquivo) throws Exception {
+        Timer.Sample amostra = Timer.start(metricas);
+        try {
+            EstatisticasTexto estatisticas = analisador.analisar(arquivo);
+            bytesAnalisados.increment(estatisticas.bytes());
+            return estatisticas;
+        } finally {
+            amostra.stop(metricas.timer("literalura.analise.livro"));
+        }
+    }
+
+    private AnaliseLivro paraLivro(AnaliseLivro analise, String idioma, String sha256, EstatisticasTexto e,
+                                   LocalDateTime agora) {
+        analise.setIdioma(idioma);
+        analise.setSha256(sha256);
+        analise.setBytes(e.bytes());
+        analise.setLinhas(e.linhas());
+        analise.setPalavras(e.palavras());
+        analise.setVocabulario(e.vocabulario());
+        analise.setFrases(e.frases());
+        analise.setCaracteresPorPalavra(e.caracteresPorPalavra());
+        analise.setPalavrasPorFrase(e.palavrasPorFrase());
+        analise.setMinutosLeitura(e.palavras() / palavrasPorMinuto);
+        analise.setPalavrasFrequentes(frequentes(e));
+        analise.setAnalisadoEm(agora);
+        return analise;
+    }
+
+    private AnaliseIdioma paraIdioma(String idioma, Agregado agregado, LocalDateTime agora) {
+        EstatisticasTexto e = agregado.estatisticas;
+        AnaliseIdioma analise = new AnaliseIdioma(idioma);
+        analise.setLivros(agregado.livros);
+        analise.setPalavras(e.palavras());
+        analise.setVocabulario(e.vocabulario());
+        analise.setPalavrasPorLivro((double) e.palavras() / agregado.livros);
+        analise.setMaxPalavrasPorLivro(agregado.maxPalavras);
+        analise.setCaracteresPorPalavra(e.caracteresPorPalavra());
+        analise.setPalavrasPorFrase(e.palavrasPorFrase());
+        analise.setMinutosLeituraPorLivro(e.palavras() / palavrasPorMinuto / agregado.livros);
+        analise.setPalavrasFrequentes(frequentes(e));
+        analise.setAnalisadoEm(agora);
+        return analise;
+    }
+
+    private String frequentes(EstatisticasTexto e) {
+        String lista = e.maisFrequentes(palavrasFrequentes).stream()
+                .map(ContadorPalavras.Frequencia::toString)
+                .collect(Collectors.joining(", "));
+        return lista.length() <= 2000 ? lista : lista.substring(0, lista.lastIndexOf(", ", 2000));
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        pool.shutdownNow();
+    }
+}
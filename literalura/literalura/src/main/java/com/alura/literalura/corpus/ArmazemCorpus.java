@@ -0,0 +1,105 @@
+package com.alura.literalura.corpus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Armazém em disco endereçado por conteúdo:
+ * <pre>
+ * raiz/objetos/ab/abcdef...   um arquivo por SHA-256 (o nome é o hash do conteúdo)
+ * raiz/parciais/&lt;hash da URL&gt;.part   downloads em andamento, retomáveis
+ * </pre>
+ * Um download só entra em {@code objetos} completo, por move atômico; se o mesmo conteúdo
+ * já estiver lá, o novo é descartado (deduplicação).
+ */
+public class ArmazemCorpus {
+
+    private static final int BLOCO_HASH = 256 * 1024;
+
+    private final Path objetos;
+    private final Path parciais;
+
+    public ArmazemCorpus(Path raiz) throws IOException {
+        this.objetos = Files.createDirectories(raiz.resolve("objetos"));
+        this.parciais = Files.createDirectories(raiz.resolve("parciais"));
+    }
+
+    public Path objeto(String sha256) {
+        return objetos.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    public boolean contem(String sha256) {
+        return sha256 != null && Files.exists(objeto(sha256));
+    }
+
+    /**
+     * Arquivo parcial de uma URL: sempre o mesmo, para que um download interrompido
+     * continue de onde parou.
+     */
+    public Path parcial(String url) {
+        return parciais.resolve(hex(sha256(url.getBytes(StandardCharsets.UTF_8))) + ".part");
+    }
+
+    /**
+     * Move o parcial completo para {@code objetos}. Devolve false quando o conteúdo já
+     * existia (o parcial é apagado).
+     */
+    public boolean publicar(Path parcial, String sha256) throws IOException {
+        Path destino = objeto(sha256);
+        if (Files.exists(destino)) {
+            Files.delete(parcial);
+            return false;
+        }
+        Files.createDirectories(destino.getParent());
+        try {
+            Files.move(parcial, destino, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            // outro download terminou o mesmo conteúdo ao mesmo tempo
+            Files.deleteIfExists(parcial);
+            return false;
+        }
+    }
+
+    /**
+     * SHA-256 do arquivo, lido pelo canal em um buffer direto (o conteúdo não passa pelo heap).
+     */
+    public static String sha256(Path arquivo) throws IOException {
+        MessageDigest digest = novoDigest();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BLOCO_HASH);
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            while (canal.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return hex(digest.digest());
+    }
+
+    private static byte[] sha256(byte[] dados) {
+        return novoDigest().digest(dados);
+    }
+
+    private static MessageDigest novoDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] hash) {
+        return HexFormat.of().formatHex(hash);
+    }
+}
@@ -0,0 +1,98 @@
+package com.alura.literalura.corpus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+/**
+ * Baixa uma URL para o {@link ArmazemCorpus} sem carregar o arquivo no heap: o corpo da
+ * resposta é copiado por {@link FileChannel#transferFrom} direto para o arquivo parcial
+ * (o JDK usa um buffer direto temporário) e o hash é calculado depois, lendo o arquivo
+ * pelo canal.
+ * <p>
+ * Se já existe um parcial da mesma URL, pede só o restante ({@code Range: bytes=n-}). Um
+ * servidor que ignora o Range e responde 200 recomeça o arquivo do zero; 416 significa que
+ * o parcial já estava completo.
+ */
+public class BaixadorCorpus {
+
+    // quanto cada transferFrom tenta copiar de uma vez
+    private static final long BLOCO = 1 << 20;
+
+    private final HttpClient http;
+    private final ArmazemCorpus armazem;
+    private final Duration timeout;
+
+    public BaixadorCorpus(HttpClient http, ArmazemCorpus armazem, Duration timeout) {
+        this.http = http;
+        this.armazem = armazem;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Resultado de um download: hash e tamanho do conteúdo, bytes que vieram pela rede nesta
+     * chamada, se continuou um parcial e se o conteúdo já existia no armazém.
+     */
+    public record Baixado(String url, String sha256, long tamanho, long transferidos,
+                          boolean retomado, boolean duplicado) {
+    }
+
+    public Baixado baixar(String url) throws IOException, InterruptedException {
+        Path parcial = armazem.parcial(url);
+        long existente = Files.exists(parcial) ? Files.size(parcial) : 0;
+
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(url)).timeout(timeout).GET();
+        if (existente > 0) requisicao.header("Range", "bytes=" + existente + "-");
+        HttpResponse<InputStream> resposta = http.send(requisicao.build(), HttpResponse.BodyHandlers.ofInputStream());
+
+        long inicio;
+        try (InputStream corpo = resposta.body()) {
+            int status = resposta.statusCode();
+            if (status == 416 && existente > 0) {
+                inicio = -1;   // nada a transferir
+            } else if (status == 206 && existente > 0) {
+                String faixa = resposta.headers().firstValue("Content-Range").orElse("");
+                if (!faixa.startsWith("bytes " + existente + "-")) {
+                    Files.deleteIfExists(parcial);
+                    throw new IOException("Faixa inesperada (" + faixa + ") ao retomar " + url);
+                }
+                inicio = existente;
+            } else if (status / 100 == 2) {
+                inicio = 0;
+            } else {
+                throw new IOException("HTTP " + status + " ao baixar " + url);
+            }
+            if (inicio >= 0) transferir(corpo, parcial, inicio);
+        }
+
+        long tamanho = Files.size(parcial);
+        long transferidos = inicio < 0 ? 0 : tamanho - inicio;
+        String sha256 = ArmazemCorpus.sha256(parcial);
+        boolean novo = armazem.publicar(parcial, sha256);
+        return new Baixado(url, sha256, tamanho, transferidos, existente > 0 && inicio != 0, !novo);
+    }
+
+    private static void transferir(InputStream corpo, Path parcial, long inicio) throws IOException {
+        try (FileChannel destino = FileChannel.open(parcial, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             ReadableByteChannel origem = Channels.newChannel(corpo)) {
+            // 200 depois de um Range: o servidor mandou o arquivo inteiro de novo
+            destino.truncate(inicio);
+            long posicao = inicio;
+            long copiados;
+            while ((copiados = destino.transferFrom(origem, posicao, BLOCO)) > 0) {
+                posicao += copiados;
+            }
+            destino.force(false);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.alura.literalura.corpus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contagem de palavras sem objetos por palavra: tabela de endereçamento aberto com chaves
+ * {@code long} (hash de 64 bits dos bytes da palavra) e contagens em {@code long[]}; o texto
+ * de cada palavra fica uma vez numa área de bytes, só para ser mostrado no fim. Duas palavras
+ * com o mesmo hash de 64 bits contariam juntas, o que num vocabulário de milhões de palavras
+ * é improvável o bastante para ser ignorado.
+ * <p>
+ * Não é thread-safe: cada trecho do texto conta na sua instância e as instâncias são
+ * somadas depois ({@link #juntar}).
+ */
+public final class ContadorPalavras {
+
+    // palavras maiores são descartadas pelo analisador (cabe num byte de tamanho)
+    static final int MAX_BYTES_PALAVRA = 64;
+
+    // FNV-1a de 64 bits, calculado byte a byte enquanto o analisador lê a palavra
+    static final long HASH_INICIAL = 0xcbf29ce484222325L;
+
+    private static final int CAPACIDADE_MINIMA = 1 << 10;
+
+    private long[] hashes;        // 0 = vazio
+    private long[] contagens;
+    private int[] posicoes;       // início de cada palavra em "textos" (byte de tamanho + bytes)
+    private byte[] textos;
+    private int usados;
+    private int distintas;
+    private long total;
+
+    public ContadorPalavras() {
+        this(CAPACIDADE_MINIMA);
+    }
+
+    ContadorPalavras(int capacidadeInicial) {
+        int capacidade = Integer.highestOneBit(Math.max(CAPACIDADE_MINIMA, capacidadeInicial) - 1) << 1;
+        hashes = new long[capacidade];
+        contagens = new long[capacidade];
+        posicoes = new int[capacidade];
+        textos = new byte[capacidade * 8];
+    }
+
+    /**
+     * Uma palavra com frequência e texto, para exibição.
+     */
+    public record Frequencia(String palavra, long vezes) {
+
+        @Override
+        public String toString() {
+            return palavra + " " + vezes;
+        }
+    }
+
+    /**
+     * Soma {@code vezes} à palavra {@code palavra[0..tamanho)}, cujo hash já foi calculado
+     * (ver {@link #hash}).
+     */
+    void adicionar(long hash, byte[] palavra, int tamanho, long vezes) {
+        somar(hash == 0 ? 1 : hash, palavra, 0, tamanho, vezes);
+    }
+
+    /**
+     * Soma as contagens das duas instâncias e devolve a que ficou com o resultado (a maior
+     * delas, para copiar o mínimo de entradas); a outra não deve mais ser usada.
+     */
+    ContadorPalavras juntar(ContadorPalavras outro) {
+        if (outro.distintas > distintas) return outro.juntar(this);
+        for (int i = 0; i < outro.hashes.length; i++) {
+            if (outro.hashes[i] == 0) continue;
+            int p = outro.posicoes[i];
+            somar(outro.hashes[i], outro.textos, p + 1, outro.textos[p], outro.contagens[i]);
+        }
+        return this;
+    }
+
+    static long hash(long h, int b) {
+        return (h ^ b) * 0x100000001b3L;
+    }
+
+    public int distintas() {
+        return distintas;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    /**
+     * As {@code n} palavras mais frequentes, da mais para a menos (seleção em arrays, sem
+     * ordenar a tabela inteira).
+     */
+    public List<Frequencia> maisFrequentes(int n) {
+        int k = Math.min(n, distintas);
+        int[] melhores = new int[k];
+        int preenchidos = 0;
+        for (int i = 0; i < hashes.length && k > 0; i++) {
+            if (hashes[i] == 0) continue;
+            long c = contagens[i];
+            if (preenchidos == k && c <= contagens[melhores[k - 1]]) continue;
+            int j = preenchidos < k ? preenchidos++ : k - 1;
+            while (j > 0 && contagens[melhores[j - 1]] < c) {
+                melhores[j] = melhores[j - 1];
+                j--;
+            }
+            melhores[j] = i;
+        }
+        List<Frequencia> resultado = new ArrayList<>(k);
+        for (int j = 0; j < preenchidos; j++) {
+            int p = posicoes[melhores[j]];
+            resultado.add(new Frequencia(new String(textos, p + 1, textos[p], StandardCharsets.UTF_8),
+                    contagens[melhores[j]]));
+        }
+        return resultado;
+    }
+
+    private void somar(long hash, byte[] origem, int de, int tamanho, long vezes) {
+        int mascara = hashes.length - 1;
+        int i = (int) espalhar(hash) & mascara;
+        while (true) {
+            long h = hashes[i];
+            if (h == hash) {
+                contagens[i] += vezes;
+                total += vezes;
+                return;
+            }
+            if (h == 0) break;
+            i = (i + 1) & mascara;
+        }
+        hashes[i] = hash;
+        contagens[i] = vezes;
+        posicoes[i] = guardar(origem, de, tamanho);
+        total += vezes;
+        if (++distintas * 10 > hashes.length * 6) crescer();
+    }
+
+    private int guardar(byte[] origem, int de, int tamanho) {
+        if (usados + tamanho + 1 > textos.length) {
+            byte[] maior = new byte[Math.max(textos.length * 2, usados + tamanho + 1)];
+            System.arraycopy(textos, 0, maior, 0, usados);
+            textos = maior;
+        }
+        int posicao = usados;
+        textos[usados++] = (byte) tamanho;
+        System.arraycopy(origem, de, textos, usados, tamanho);
+        usados += tamanho;
+        return posicao;
+    }
+
+    private void crescer() {
+        long[] hashesAntigos = hashes;
+        long[] contagensAntigas = contagens;
+        int[] posicoesAntigas = posicoes;
+        int capacidade = hashesAntigos.length * 2;
+        hashes = new long[capacidade];
+        contagens = new long[capacidade];
+        posicoes = new int[capacidade];
+        int mascara = capacidade - 1;
+        for (int j = 0; j < hashesAntigos.length; j++) {
+            long h = hashesAntigos[j];
+            if (h == 0) continue;
+            int i = (int) espalhar(h) & mascara;
+            while (hashes[i] != 0) i = (i + 1) & mascara;
+            hashes[i] = h;
+            contagens[i] = contagensAntigas[j];
+            posicoes[i] = posicoesAntigas[j];
+        }
+    }
+
+    // o FNV distribui mal os bits baixos, que são os usados como índice
+    private static long espalhar(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,317 @@
+package com.alura.literalura.corpus;
+
+import com.alura.literalura.client.GutendexClient;
+import com.alura.literalura.dto.ApiBookResponse;
+import com.alura.literalura.dto.GutenbergBook;
+import com.alura.literalura.model.ArquivoCorpus;
+import com.alura.literalura.repository.ArquivoCorpusRepository;
+import com.alura.literalura.repository.CatalogoUpsertRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Corpus local dos textos dos livros: baixa os formatos escolhidos
+ * ({@code literalura.corpus.formatos}) das URLs em {@link GutenbergBook#getFormats()} para o
+ * {@link ArmazemCorpus} e registra cada arquivo em {@link ArquivoCorpus}.
+ * <p>
+ * Os downloads rodam em paralelo (em threads virtuais), limitados a
+ * {@code literalura.corpus.concorrencia} ao mesmo tempo; a mesma URL pedida duas vezes ao
+ * mesmo tempo é baixada uma vez só. Arquivos já registrados e presentes no disco não voltam à
+ * rede, e conteúdos iguais (mesmo SHA-256) ficam num único objeto.
+ * <p>
+ * Métricas: {@code literalura.corpus.download} (por resultado: baixado, duplicado, existente,
+ * erro), {@code literalura.corpus.bytes} (bytes recebidos por download) e
+ * {@code literalura.corpus.retomados} (downloads que continuaram um parcial).
+ */
+@Service
+public class CorpusService {
+
+    private static final String METRICA_DOWNLOAD = "literalura.corpus.download";
+    // /books?ids= devolve 32 livros por página: um bloco por requisição
+    private static final int IDS_POR_CONSULTA = 32;
+
+    private final GutendexClient gutendex;
+    private final ArquivoCorpusRepository arquivoRepo;
+    private final CatalogoUpsertRepository catalogoRepo;
+    private final HttpClient http;
+    private final MeterRegistry metricas;
+    private final Path diretorio;
+    private final List<String> formatos;
+    private final Duration timeout;
+    private final Semaphore vagas;
+    private final ExecutorService executor;
+    private final DistributionSummary bytesRecebidos;
+    private final Map<String, CompletableFuture<BaixadorCorpus.Baixado>> emAndamento = new ConcurrentHashMap<>();
+
+    // criado no primeiro download, para a aplicação não criar diretórios sem usar o corpus
+    private volatile BaixadorCorpus baixador;
+    private volatile ArmazemCorpus armazem;
+
+    public CorpusService(GutendexClient gutendex,
+                         ArquivoCorpusRepository arquivoRepo,
+                         CatalogoUpsertRepository catalogoRepo,
+                         HttpClient http,
+                         MeterRegistry metricas,
+                         @Value("${literalura.corpus.diretorio:corpus}") String diretorio,
+                         @Value("${literalura.corpus.formatos:text/plain,application/epub+zip}") List<String> formatos,
+                         @Value("${literalura.corpus.concorrencia:8}") int concorrencia,
+                         @Value("${literalura.corpus.timeout:PT2M}") Duration timeout) {
+        this.gutendex = gutendex;
+        this.arquivoRepo = arquivoRepo;
+        this.catalogoRepo = catalogoRepo;
+        this.http = http;
+        this.metricas = metricas;
+        this.diretorio = Path.of(diretorio);
+        this.formatos = formatos.stream().map(String::trim).filter(f -> !f.isEmpty()).toList();
+        this.timeout = timeout;
+        this.vagas = new Semaphore(Math.max(1, concorrencia));
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.bytesRecebidos = DistributionSummary.builder("literalura.corpus.bytes")
+                .baseUnit("bytes")
+                .register(metricas);
+    }
+
+    /**
+     * Resumo de uma passada pelo corpus: livros consultados, arquivos escolhidos e o que
+     * aconteceu com eles, mais os bytes que vieram pela rede.
+     */
+    public record ResumoCorpus(int livros, int arquivos, int baixados, int duplicados, int existentes, int falhas,
+                               long bytes, double segundos) {
+    }
+
+    /**
+     * Objetos no armazém e quanto ocupam (cada conteúdo conta uma vez).
+     */
+    public record TotaisCorpus(long arquivos, long objetos, long bytes) {
+    }
+
+    public TotaisCorpus totais() {
+        return new TotaisCorpus(arquivoRepo.count(), arquivoRepo.contarObjetos(), arquivoRepo.somarTamanhoDosObjetos());
+    }
+
+    /**
+     * Caminho do objeto com esse SHA-256 no armazém (exista ele ou não).
+     */
+    public Path arquivo(String sha256) {
+        return armazem().objeto(sha256);
+    }
+
+    /**
+     * Baixa (em segundo plano) os formatos escolhidos de um livro. O futuro completa com os
+     * arquivos registrados; formatos que falharem ficam de fora e são contados como erro.
+     */
+    public CompletableFuture<List<ArquivoCorpus>> baixarLivro(GutenbergBook livro) {
+        return baixarLivro(livro, new Contagem());
+    }
+
+    /**
+     * Baixa os textos de todos os livros gravados. As URLs não ficam no banco, então os
+     * livros são consultados de novo na Gutendex por {@code /books?ids=...} (sem cache),
+     * um bloco por vez, enquanto os downloads do bloco anterior continuam.
+     */
+    public ResumoCorpus baixarRegistrados() {
+        long inicio = System.nanoTime();
+        int[] ids = catalogoRepo.downloadsGravados().gutenbergIds();
+        System.out.println("Baixando textos de " + ids.length + " livros para " + diretorio.toAbsolutePath() + "...");
+
+        Contagem contagem = new Contagem();
+        List<CompletableFuture<List<ArquivoCorpus>>> pendentes = new ArrayList<>();
+        for (int de = 0; de < ids.length && !Thread.currentThread().isInterrupted(); de += IDS_POR_CONSULTA) {
+            int ate = Math.min(ids.length, de + IDS_POR_CONSULTA);
+            try {
+                ApiBookResponse resposta = gutendex.buscarPorIds(ids, de, ate).join();
+                if (resposta == null || resposta.getResults() == null) continue;
+                for (GutenbergBook livro : resposta.getResults()) {
+                    contagem.livros.incrementAndGet();
+                    pendentes.add(baixarLivro(livro, contagem));
+                }
+            } catch (CompletionException e) {
+                contagem.falhas.addAndGet(ate - de);
+                System.err.println("Falha ao consultar os livros " + ids[de] + ".." + ids[ate - 1] + ": "
+                        + e.getCause().getMessage());
+            }
+        }
+        CompletableFuture.allOf(pendentes.toArray(CompletableFuture[]::new)).join();
+
+        ResumoCorpus resumo = new ResumoCorpus(contagem.livros.get(), contagem.arquivos.get(), contagem.baixados.get(),
+                contagem.duplicados.get(), contagem.existentes.get(), contagem.falhas.get(), contagem.bytes.get(),
+                (System.nanoTime() - inicio) / 1_000_000_000.0);
+        System.out.printf("Corpus: %d livros, %d arquivos (%d baixados, %d duplicados, %d já existentes, %d falhas),"
+                        + " %.1f MB recebidos em %.1f s%n",
+                resumo.livros(), resumo.arquivos(), resumo.baixados(), resumo.duplicados(), resumo.existentes(),
+                resumo.falhas(), resumo.bytes() / 1_048_576.0, resumo.segundos());
+        return resumo;
+    }
+
+    /**
+     * Escolhe, para cada tipo pedido, a URL do formato correspondente (o tipo MIME sem
+     * parâmetros). Entre várias do mesmo tipo, prefere a UTF-8.
+     */
+    static Map<String, String> selecionar(Map<String, String> disponiveis, List<String> tipos) {
+        Map<String, String> escolhidos = new LinkedHashMap<>();
+        if (disponiveis == null) return escolhidos;
+        for (String tipo : tipos) {
+            String melhor = null;
+            for (Map.Entry<String, String> formato : disponiveis.entrySet()) {
+                if (!semParametros(formato.getKey()).equals(tipo) || formato.getValue() == null) continue;
+                if (melhor == null || formato.getKey().toLowerCase(Locale.ROOT).contains("utf-8")) {
+                    melhor = formato.getValue();
+                }
+            }
+            if (melhor != null) escolhidos.put(tipo, melhor);
+        }
+        return escolhidos;
+    }
+
+    private CompletableFuture<List<ArquivoCorpus>> baixarLivro(GutenbergBook livro, Contagem contagem) {
+        List<CompletableFuture<Optional<ArquivoCorpus>>> arquivos = new ArrayList<>();
+        selecionar(livro.getFormats(), formatos).forEach((tipo, url) -> {
+            contagem.arquivos.incrementAndGet();
+            arquivos.add(baixarArquivo(livro.getId(), tipo, url, contagem));
+        });
+        return CompletableFuture.allOf(arquivos.toArray(CompletableFuture[]::new))
+                .thenApply(nada -> arquivos.stream().map(CompletableFuture::join).flatMap(Optional::stream).toList());
+    }
+
+    private CompletableFuture<Optional<ArquivoCorpus>> baixarArquivo(int gutenbergId, String tipo, String url,
+                                                                      Contagem contagem) {
+        Optional<ArquivoCorpus> registrado = arquivoRepo.findByGutenbergIdAndFormato(gutenbergId, tipo);
+        if (registrado.isPresent() && armazem().contem(registrado.get().getSha256())) {
+            contar(contagem.existentes, "existente");
+            return CompletableFuture.completedFuture(registrado);
+        }
+        return baixar(url).handle((baixado, erro) -> {
+            if (erro != null) {
+                contar(contagem.falhas, "erro");
+                Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+                System.err.println("Falha ao baixar " + url + ": " + causa.getMessage());
+                return Optional.empty();
+            }
+            contar(baixado.duplicado() ? contagem.duplicados : contagem.baixados,
+                    baixado.duplicado() ? "duplicado" : "baixado");
+            contagem.bytes.addAndGet(baixado.transferidos());
+            return Optional.of(registrar(registrado.orElseGet(() -> new ArquivoCorpus(gutenbergId, tipo)), baixado));
+        });
+    }
+
+    /**
+     * Um download por URL de cada vez: quem pedir a mesma URL enquanto ela baixa recebe o
+     * mesmo futuro.
+     */
+    private CompletableFuture<BaixadorCorpus.Baixado> baixar(String url) {
+        CompletableFuture<BaixadorCorpus.Baixado> novo = new CompletableFuture<>();
+        CompletableFuture<BaixadorCorpus.Baixado> existente = emAndamento.putIfAbsent(url, novo);
+        if (existente != null) return existente;
+        executor.execute(() -> {
+            try {
+                vagas.acquire();
+                try {
+                    BaixadorCorpus.Baixado baixado = baixador().baixar(url);
+                    bytesRecebidos.record(baixado.transferidos());
+                    if (baixado.retomado()) metricas.counter("literalura.corpus.retomados").increment();
+                    novo.complete(baixado);
+                } finally {
+                    vagas.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                novo.completeExceptionally(e);
+            } catch (Exception e) {
+                novo.completeExceptionally(e);
+            } finally {
+                emAndamento.remove(url, novo);
+            }
+        });
+        return novo;
+    }
+
+    private ArquivoCorpus registrar(ArquivoCorpus arquivo, BaixadorCorpus.Baixado baixado) {
+        arquivo.setUrl(baixado.url());
+        arquivo.setSha256(baixado.sha256());
+        arquivo.setTamanho(baixado.tamanho());
+        arquivo.setBaixadoEm(LocalDateTime.now());
+        try {
+            return arquivoRepo.save(arquivo);
+        } catch (DataIntegrityViolationException e) {
+            // o mesmo livro/formato foi registrado por outro download ao mesmo tempo
+            return arquivoRepo.findByGutenbergIdAndFormato(arquivo.getGutenbergId(), arquivo.getFormato())
+                    .orElse(arquivo);
+        }
+    }
+
+    private void contar(AtomicInteger contador, String resultado) {
+        contador.incrementAndGet();
+        metricas.counter(METRICA_DOWNLOAD, "resultado", resultado).increment();
+    }
+
+    private ArmazemCorpus armazem() {
+        baixador();
+        return armazem;
+    }
+
+    private BaixadorCorpus baixador() {
+        BaixadorCorpus atual = baixador;
+        if (atual == null) {
+            synchronized (this) {
+                if (baixador == null) {
+                    try {
+                        armazem = new ArmazemCorpus(diretorio);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Não foi possível criar o corpus em " + diretorio, e);
+                    }
+                    baixador = new BaixadorCorpus(http, armazem, timeout);
+                }
+                atual = baixador;
+            }
+        }
+        return atual;
+    }
+
+    private static String semParametros(String tipoMime) {
+        int fim = tipoMime.indexOf(';');
+        return (fim < 0 ? tipoMime : tipoMime.substring(0, fim)).trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Contadores de uma passada (o download de um livro avulso usa uma própria e a descarta).
+     */
+    private static final class Contagem {
+        final AtomicInteger livros = new AtomicInteger();
+        final AtomicInteger arquivos = new AtomicInteger();
+        final AtomicInteger baixados = new AtomicInteger();
+        final AtomicInteger duplicados = new AtomicInteger();
+        final AtomicInteger existentes = new AtomicInteger();
+        final AtomicInteger falhas = new AtomicInteger();
+        final AtomicLong bytes = new AtomicLong();
+    }
+}
@@ -0,0 +1,60 @@
+package com.alura.literalura.corpus;
+
+import java.util.List;
+
+/**
+ * Contagens de um texto (ou de um trecho, ou de vários textos somados): bytes, linhas,
+ * palavras com suas frequências, frases e caracteres das palavras.
+ * Mutável: {@link #juntar} soma outra instância nesta.
+ */
+public final class EstatisticasTexto {
+
+    private long bytes;
+    private long linhas;
+    private long frases;
+    private long caracteres;
+    private ContadorPalavras palavras;
+
+    public EstatisticasTexto() {
+        this(0, 0, 0, 0, new ContadorPalavras());
+    }
+
+    EstatisticasTexto(long bytes, long linhas, long frases, long caracteres, ContadorPalavras palavras) {
+        this.bytes = bytes;
+        this.linhas = linhas;
+        this.frases = frases;
+        this.caracteres = caracteres;
+        this.palavras = palavras;
+    }
+
+    public EstatisticasTexto juntar(EstatisticasTexto outra) {
+        bytes += outra.bytes;
+        linhas += outra.linhas;
+        frases += outra.frases;
+        caracteres += outra.caracteres;
+        palavras = palavras.juntar(outra.palavras);
+        return this;
+    }
+
+    public long bytes() { return bytes; }
+
+    public long linhas() { return linhas; }
+
+    public long palavras() { return palavras.total(); }
+
+    public int vocabulario() { return palavras.distintas(); }
+
+    public long frases() { return frases; }
+
+    public double caracteresPorPalavra() {
+        return palavras.total() > 0 ? (double) caracteres / palavras.total() : 0;
+    }
+
+    public double palavrasPorFrase() {
+        return frases > 0 ? (double) palavras.total() / frases : palavras.total();
+    }
+
+    public List<ContadorPalavras.Frequencia> maisFrequentes(int n) {
+        return palavras.maisFrequentes(n);
+    }
+}
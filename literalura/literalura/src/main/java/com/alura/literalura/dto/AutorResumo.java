@@ -0,0 +1,18 @@
+package com.alura.literalura.dto;
+
+/**
+ * Linha de listagem de autores com a quantidade de livros, sem carregar a coleção de livros.
+ */
+public record AutorResumo(Long id, String name, Integer birthYear, Integer deathYear, long livros) {
+
+    @Override
+    public String toString() {
+        return "Autor{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", birthYear=" + birthYear +
+                ", deathYear=" + deathYear +
+                ", livros=" + livros +
+                '}';
+    }
+}
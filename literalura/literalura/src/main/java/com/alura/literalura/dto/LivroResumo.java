@@ -0,0 +1,19 @@
+package com.alura.literalura.dto;
+
+/**
+ * Linha de listagem de livros: só as colunas exibidas, sem carregar entidades.
+ */
+public record LivroResumo(Long id, Integer gutenbergId, String titulo, String idioma, Integer downloads, String autor) {
+
+    @Override
+    public String toString() {
+        return "Livro{" +
+                "id=" + id +
+                ", gutenbergId=" + gutenbergId +
+                ", titulo='" + titulo + '\'' +
+                ", idioma='" + idioma + '\'' +
+                ", downloads=" + downloads +
+                ", autor='" + autor + '\'' +
+                '}';
+    }
+}
@@ -20,6 +20,7 @@ public class GutenbergResultMapper {
         if (book == null) return null;
 
         Livro livro = new Livro();
+        livro.setGutenbergId(book.getId() > 0 ? book.getId() : null);
         livro.setTitulo(Optional.ofNullable(book.getTitle()).orElse(""));
 
         String idioma = "pt";
@@ -55,6 +56,7 @@ public class GutenbergResultMapper {
         if (itemNode == null || itemNode.isMissingNode()) return null;
 
         Livro livro = new Livro();
+        livro.setGutenbergId(itemNode.path("id").isInt() ? itemNode.path("id").asInt() : null);
         livro.setTitulo(itemNode.path("title").asText(""));
 
         // idioma (pega primeiro elemento do array "languages" se existir)
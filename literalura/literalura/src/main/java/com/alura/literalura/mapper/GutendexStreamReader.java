@@ -0,0 +1,130 @@
+package com.alura.literalura.mapper;
+
+import com.alura.literalura.model.Livro;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Leitura em streaming de uma página da Gutendex ({"count", "next", "results": [...]}).
+ * Cada item de "results" é entregue ao consumidor assim que lido, já como Livro.
+ * Só os campos usados pelo {@link GutenbergResultMapper#toLivro(JsonNode)} viram nós;
+ * "formats", "summaries", "subjects" etc. são pulados sem serem alocados.
+ */
+public class GutendexStreamReader {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    /**
+     * Resumo da página lida: total de livros da consulta, URL da próxima página e itens lidos.
+     */
+    public record Pagina(int count, String next, int itens) {
+    }
+
+    /**
+     * Lê uma página inteira do stream, entregando cada livro mapeado ao consumidor.
+     * O stream não é fechado aqui.
+     */
+    public static Pagina lerPagina(InputStream in, Consumer<Livro> consumidor) throws IOException {
+        int count = 0;
+        String next = null;
+        int itens = 0;
+
+        try (JsonParser p = MAPPER.getFactory().createParser(in)) {
+            p.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Resposta da Gutendex não é um objeto JSON");
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = p.getCurrentName();
+                JsonToken valor = p.nextToken();
+                switch (campo) {
+                    case "count" -> count = valor == JsonToken.VALUE_NUMBER_INT ? p.getIntValue() : 0;
+                    case "next" -> next = valor == JsonToken.VALUE_NULL ? null : p.getText();
+                    case "results" -> {
+                        if (valor != JsonToken.START_ARRAY) {
+                            p.skipChildren();
+                            break;
+                        }
+                        while (p.nextToken() == JsonToken.START_OBJECT) {
+                            Livro livro = GutenbergResultMapper.toLivro(lerItem(p));
+                            if (livro != null) {
+                                consumidor.accept(livro);
+                                itens++;
+                            }
+                        }
+                    }
+                    default -> p.skipChildren();
+                }
+            }
+        }
+        return new Pagina(count, next, itens);
+    }
+
+    /**
+     * Monta um nó com apenas os campos que o mapper lê; o parser deve estar no START_OBJECT do item.
+     */
+    private static ObjectNode lerItem(JsonParser p) throws IOException {
+        ObjectNode item = NODES.objectNode();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = p.getCurrentName();
+            p.nextToken();
+            switch (campo) {
+                case "id", "title", "download_count", "languages", "authors" -> item.set(campo, lerValor(p));
+                default -> p.skipChildren();
+            }
+        }
+        return item;
+    }
+
+    /**
+     * Constrói o nó do valor atual sem passar pelo ObjectMapper, que criaria um
+     * contexto de desserialização a cada chamada. Dentro de "authors" só nome e
+     * anos são mantidos.
+     */
+    private static JsonNode lerValor(JsonParser p) throws IOException {
+        switch (p.currentToken()) {
+            case START_ARRAY -> {
+                ArrayNode array = NODES.arrayNode();
+                while (p.nextToken() != JsonToken.END_ARRAY) {
+                    array.add(lerValor(p));
+                }
+                return array;
+            }
+            case START_OBJECT -> {
+                ObjectNode objeto = NODES.objectNode();
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String campo = p.getCurrentName();
+                    p.nextToken();
+                    switch (campo) {
+                        case "name", "birth_year", "death_year" -> objeto.set(campo, lerValor(p));
+                        default -> p.skipChildren();
+                    }
+                }
+                return objeto;
+            }
+            case VALUE_STRING -> {
+                return NODES.textNode(p.getText());
+            }
+            case VALUE_NUMBER_INT -> {
+                return NODES.numberNode(p.getIntValue());
+            }
+            case VALUE_TRUE, VALUE_FALSE -> {
+                return NODES.booleanNode(p.getBooleanValue());
+            }
+            default -> {
+                p.skipChildren();
+                return NODES.nullNode();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.alura.literalura.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Resumo em texto das métricas próprias da aplicação ({@code literalura.*}) para a opção
+ * "Métricas de desempenho" do menu. No modo API as mesmas métricas saem em
+ * {@code /actuator/prometheus}.
+ */
+@Component
+public class ResumoMetricas {
+
+    private static final String PREFIXO = "literalura.";
+
+    private final MeterRegistry metricas;
+
+    public ResumoMetricas(MeterRegistry metricas) {
+        this.metricas = metricas;
+    }
+
+    /**
+     * Uma linha por métrica registrada (com as tags), em ordem de nome: timers e distribuições
+     * com contagem, média, máximo e percentis (conforme {@code management.metrics.distribution.percentiles}),
+     * contadores e medidores com o valor atual. Tempos em milissegundos.
+     */
+    public List<String> linhas() {
+        return metricas.getMeters().stream()
+                .filter(m -> m.getId().getName().startsWith(PREFIXO))
+                .filter(m -> m instanceof Timer || m instanceof DistributionSummary
+                        || m instanceof Counter || m instanceof FunctionCounter || m instanceof Gauge)
+                .sorted(Comparator.comparing((Meter m) -> m.getId().getName()).thenComparing(m -> tags(m)))
+                .map(ResumoMetricas::linha)
+                .toList();
+    }
+
+    private static String linha(Meter meter) {
+        String nome = meter.getId().getName() + tags(meter);
+        if (meter instanceof Timer timer) {
+            HistogramSnapshot s = timer.takeSnapshot();
+            return String.format("%-70s n: %d | média %.1f ms | máx %.1f ms%s", nome, s.count(),
+                    s.mean(TimeUnit.MILLISECONDS), s.max(TimeUnit.MILLISECONDS), percentis(s, true));
+        }
+        if (meter instanceof Counter contador) return String.format("%-70s total: %.0f", nome, contador.count());
+        if (meter instanceof FunctionCounter contador) return String.format("%-70s total: %.0f", nome, contador.count());
+        if (meter instanceof Gauge medidor) return String.format("%-70s valor: %.0f", nome, medidor.value());
+        HistogramSnapshot s = ((DistributionSummary) meter).takeSnapshot();
+        String unidade = meter.getId().getBaseUnit() != null ? " " + meter.getId().getBaseUnit() : "";
+        return String.format("%-70s n: %d | média %.0f%s | máx %.0f%s%s", nome, s.count(),
+                s.mean(), unidade, s.max(), unidade, percentis(s, false));
+    }
+
+    private static String percentis(HistogramSnapshot s, boolean tempo) {
+        StringBuilder sb = new StringBuilder();
+        for (ValueAtPercentile p : s.percentileValues()) {
+            double valor = tempo ? p.value(TimeUnit.MILLISECONDS) : p.value();
+            sb.append(String.format(" | p%s %.1f", formatarPercentil(p.percentile()), valor));
+        }
+        return sb.toString();
+    }
+
+    private static String formatarPercentil(double percentil) {
+        double p = percentil * 100;
+        return p == Math.rint(p) ? String.valueOf((long) p) : String.valueOf(p);
+    }
+
+    private static String tags(Meter meter) {
+        List<Tag> tags = meter.getId().getTags();
+        if (tags.isEmpty()) return "";
+        return tags.stream().map(t -> t.getKey() + "=" + t.getValue()).collect(Collectors.joining(",", "{", "}"));
+    }
+}
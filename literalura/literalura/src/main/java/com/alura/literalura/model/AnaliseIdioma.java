@@ -0,0 +1,78 @@
+package com.alura.literalura.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Agregado da análise dos textos de um idioma ({@code Livro.idioma}): as contagens de
+ * todos os livros somadas, com o vocabulário do idioma (palavras distintas no conjunto)
+ * e médias por livro. Refeito inteiro a cada análise do corpus.
+ */
+@Entity
+@Table(name = "analise_idiomas")
+public class AnaliseIdioma {
+
+    @Id
+    private String idioma;
+
+    private Integer livros;
+    private Long palavras;
+    private Integer vocabulario;
+    private Double palavrasPorLivro;
+    private Long maxPalavrasPorLivro;
+    private Double caracteresPorPalavra;
+    private Double palavrasPorFrase;
+    private Double minutosLeituraPorLivro;
+
+    @Column(length = 2000)
+    private String palavrasFrequentes;
+
+    private LocalDateTime analisadoEm;
+
+    public AnaliseIdioma() {}
+
+    public AnaliseIdioma(String idioma) {
+        this.idioma = idioma;
+    }
+
+    // Getters e Setters
+    public String getIdioma() { return idioma; }
+
+    public Integer getLivros() { return livros; }
+    public void setLivros(Integer livros) { this.livros = livros; }
+
+    public Long getPalavras() { return palavras; }
+    public void setPalavras(Long palavras) { this.palavras = palavras; }
+
+    public Integer getVocabulario() { return vocabulario; }
+    public void setVocabulario(Integer vocabulario) { this.vocabulario = vocabulario; }
+
+    public Double getPalavrasPorLivro() { return palavrasPorLivro; }
+    public void setPalavrasPorLivro(Double palavrasPorLivro) { this.palavrasPorLivro = palavrasPorLivro; }
+
+    public Long getMaxPalavrasPorLivro() { return maxPalavrasPorLivro; }
+    public void setMaxPalavrasPorLivro(Long maxPalavrasPorLivro) { this.maxPalavrasPorLivro = maxPalavrasPorLivro; }
+
+    public Double getCaracteresPorPalavra() { return caracteresPorPalavra; }
+    public void setCaracteresPorPalavra(Double caracteresPorPalavra) { this.caracteresPorPalavra = caracteresPorPalavra; }
+
+    public Double getPalavrasPorFrase() { return palavrasPorFrase; }
+    public void setPalavrasPorFrase(Double palavrasPorFrase) { this.palavrasPorFrase = palavrasPorFrase; }
+
+    public Double getMinutosLeituraPorLivro() { return minutosLeituraPorLivro; }
+    public void setMinutosLeituraPorLivro(Double minutosLeituraPorLivro) { this.minutosLeituraPorLivro = minutosLeituraPorLivro; }
+
+    public String getPalavrasFrequentes() { return palavrasFrequentes; }
+    public void setPalavrasFrequentes(String palavrasFrequentes) { this.palavrasFrequentes = palavrasFrequentes; }
+
+    public LocalDateTime getAnalisadoEm() { return analisadoEm; }
+    public void setAnalisadoEm(LocalDateTime analisadoEm) { this.analisadoEm = analisadoEm; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d livros, %d palavras, vocabulário %d | por livro: %.0f palavras (máx. %d),"
+                        + " ~%.0f min | %.1f letras/palavra, %.1f palavras/frase | %s",
+                idioma, livros, palavras, vocabulario, palavrasPorLivro, maxPalavrasPorLivro, minutosLeituraPorLivro,
+                caracteresPorPalavra, palavrasPorFrase, palavrasFrequentes);
+    }
+}
@@ -0,0 +1,96 @@
+package com.alura.literalura.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Resultado da análise do texto de um livro do corpus (ver AnaliseCorpusService):
+ * tamanho, vocabulário, médias de leitura e as palavras mais frequentes.
+ * O sha256 identifica qual versão do texto foi analisada.
+ */
+@Entity
+@Table(name = "analise_livros", indexes = @Index(columnList = "idioma, vocabulario"))
+public class AnaliseLivro {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "gutenberg_id", nullable = false, unique = true)
+    private Integer gutenbergId;
+
+    private String idioma;
+
+    @Column(length = 64)
+    private String sha256;
+
+    private Long bytes;
+    private Long linhas;
+    private Long palavras;
+    private Integer vocabulario;
+    private Long frases;
+    private Double caracteresPorPalavra;
+    private Double palavrasPorFrase;
+    private Double minutosLeitura;
+
+    @Column(length = 2000)
+    private String palavrasFrequentes;   // "palavra vezes, palavra vezes, ..."
+
+    private LocalDateTime analisadoEm;
+
+    public AnaliseLivro() {}
+
+    public AnaliseLivro(Integer gutenbergId) {
+        this.gutenbergId = gutenbergId;
+    }
+
+    // Getters e Setters
+    public Long getId() { return id; }
+
+    public Integer getGutenbergId() { return gutenbergId; }
+    public void setGutenbergId(Integer gutenbergId) { this.gutenbergId = gutenbergId; }
+
+    public String getIdioma() { return idioma; }
+    public void setIdioma(String idioma) { this.idioma = idioma; }
+
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+
+    public Long getBytes() { return bytes; }
+    public void setBytes(Long bytes) { this.bytes = bytes; }
+
+    public Long getLinhas() { return linhas; }
+    public void setLinhas(Long linhas) { this.linhas = linhas; }
+
+    public Long getPalavras() { return palavras; }
+    public void setPalavras(Long palavras) { this.palavras = palavras; }
+
+    public Integer getVocabulario() { return vocabulario; }
+    public void setVocabulario(Integer vocabulario) { this.vocabulario = vocabulario; }
+
+    public Long getFrases() { return frases; }
+    public void setFrases(Long frases) { this.frases = frases; }
+
+    public Double getCaracteresPorPalavra() { return caracteresPorPalavra; }
+    public void setCaracteresPorPalavra(Double caracteresPorPalavra) { this.caracteresPorPalavra = caracteresPorPalavra; }
+
+    public Double getPalavrasPorFrase() { return palavrasPorFrase; }
+    public void setPalavrasPorFrase(Double palavrasPorFrase) { this.palavrasPorFrase = palavrasPorFrase; }
+
+    public Double getMinutosLeitura() { return minutosLeitura; }
+    public void setMinutosLeitura(Double minutosLeitura) { this.minutosLeitura = minutosLeitura; }
+
+    public String getPalavrasFrequentes() { return palavrasFrequentes; }
+    public void setPalavrasFrequentes(String palavrasFrequentes) { this.palavrasFrequentes = palavrasFrequentes; }
+
+    public LocalDateTime getAnalisadoEm() { return analisadoEm; }
+    public void setAnalisadoEm(LocalDateTime analisadoEm) { this.analisadoEm = analisadoEm; }
+
+    @Override
+    public String toString() {
+        return String.format("Livro %d [%s]: %d palavras, vocabulário %d, %.1f letras/palavra, %.1f palavras/frase,"
+                        + " ~%.0f min de leitura | %s",
+                gutenbergId, idioma, palavras, vocabulario, caracteresPorPalavra, palavrasPorFrase, minutosLeitura,
+                palavrasFrequentes);
+    }
+}
@@ -0,0 +1,72 @@
+package com.alura.literalura.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Um arquivo de um livro (texto, epub...) baixado para o corpus local.
+ * O conteúdo fica no armazém em disco, endereçado pelo SHA-256: arquivos iguais de
+ * livros ou formatos diferentes apontam para o mesmo objeto.
+ */
+@Entity
+@Table(name = "corpus_arquivos",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"gutenberg_id", "formato"}))
+public class ArquivoCorpus {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "gutenberg_id", nullable = false)
+    private Integer gutenbergId;
+
+    @Column(nullable = false)
+    private String formato;        // tipo MIME sem parâmetros (ex.: text/plain)
+
+    @Column(length = 1000)
+    private String url;
+
+    @Column(length = 64, nullable = false)
+    private String sha256;
+
+    private Long tamanho;
+    private LocalDateTime baixadoEm;
+
+    public ArquivoCorpus() {}
+
+    public ArquivoCorpus(Integer gutenbergId, String formato) {
+        this.gutenbergId = gutenbergId;
+        this.formato = formato;
+    }
+
+    // Getters e Setters
+    public Long getId() { return id; }
+
+    public Integer getGutenbergId() { return gutenbergId; }
+    public void setGutenbergId(Integer gutenbergId) { this.gutenbergId = gutenbergId; }
+
+    public String getFormato() { return formato; }
+    public void setFormato(String formato) { this.formato = formato; }
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+
+    public Long getTamanho() { return tamanho; }
+    public void setTamanho(Long tamanho) { this.tamanho = tamanho; }
+
+    public LocalDateTime getBaixadoEm() { return baixadoEm; }
+    public void setBaixadoEm(LocalDateTime baixadoEm) { this.baixadoEm = baixadoEm; }
+
+    @Override
+    public String toString() {
+        return "ArquivoCorpus{" +
+                "gutenbergId=" + gutenbergId +
+                ", formato='" + formato + '\'' +
+                ", sha256='" + sha256 + '\'' +
+                ", tamanho=" + tamanho +
+                '}';
+    }
+}
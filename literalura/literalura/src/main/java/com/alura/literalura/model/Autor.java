@@ -1,21 +1,33 @@
 package com.alura.literalura.model;
 
+import com.alura.literalura.util.TextNormalizer;
+import com.alura.literalura.cache.RegioesCache;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 
 @Entity
 @Table(name = "autores")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = RegioesCache.AUTORES)
 public class Autor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // sequence com otimizador pooled: um nextval reserva 50 ids e permite inserts em lote
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "autores_seq")
+    @SequenceGenerator(name = "autores_seq", sequenceName = "autores_seq", allocationSize = 50)
     private Long id;
 
     private String name;           // Nome do autor
     private Integer birthYear;     // Ano de nascimento
     private Integer deathYear;     // Ano de falecimento
 
-    @OneToMany(mappedBy = "autor", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @Column(unique = true)
+    private String chave;          // Chave natural: nome normalizado + ano de nascimento
+
+    // carregada só quando acessada; as listagens usam projeções (AutorResumo) em vez da coleção
+    @OneToMany(mappedBy = "autor", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Livro> livros;
 
     public Autor() {}
@@ -39,9 +51,26 @@ public class Autor {
     public Integer getDeathYear() { return deathYear; }
     public void setDeathYear(Integer deathYear) { this.deathYear = deathYear; }
 
+    public String getChave() { return chave; }
+
     public List<Livro> getLivros() { return livros; }
     public void setLivros(List<Livro> livros) { this.livros = livros; }
 
+    @PrePersist
+    @PreUpdate
+    void atualizarChave() {
+        this.chave = chaveNatural(name, birthYear);
+    }
+
+    /**
+     * Identidade de um autor entre buscas diferentes: nome sem acentos, em minúsculas
+     * e com espaços colapsados, seguido do ano de nascimento (vazio se desconhecido).
+     */
+    public static String chaveNatural(String name, Integer birthYear) {
+        String nome = TextNormalizer.normalize(name).replaceAll("\\s+", " ");
+        return nome + "|" + (birthYear != null ? birthYear : "");
+    }
+
     @Override
     public String toString() {
         return "Autor{" +
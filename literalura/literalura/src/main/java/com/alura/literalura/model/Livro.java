@@ -1,19 +1,29 @@
 package com.alura.literalura.model;
 
+import com.alura.literalura.cache.RegioesCache;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "livros")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = RegioesCache.LIVROS)
 public class Livro {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // sequence com otimizador pooled: um nextval reserva 50 ids e permite inserts em lote
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "livros_seq")
+    @SequenceGenerator(name = "livros_seq", sequenceName = "livros_seq", allocationSize = 50)
     private Long id;
 
+    @Column(name = "gutenberg_id", unique = true)
+    private Integer gutenbergId;   // id do livro na API Gutendex
+
     private String titulo;
     private String idioma;
     private Integer downloads;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "autor_id")
     private Autor autor;
 
@@ -24,6 +34,9 @@ public class Livro {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Integer getGutenbergId() { return gutenbergId; }
+    public void setGutenbergId(Integer gutenbergId) { this.gutenbergId = gutenbergId; }
+
     public String getTitulo() { return titulo; }
     public void setTitulo(String titulo) { this.titulo = titulo; }
 
@@ -40,6 +53,7 @@ public class Livro {
     public String toString() {
         return "Livro{" +
                 "id=" + id +
+                ", gutenbergId=" + gutenbergId +
                 ", titulo='" + titulo + '\'' +
                 ", idioma='" + idioma + '\'' +
                 ", downloads=" + downloads +
@@ -0,0 +1,63 @@
+package com.alura.literalura.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Ponto de retomada da importação completa do catálogo.
+ * Guarda a URL da próxima página ainda não persistida, gravada na mesma
+ * transação do lote de livros — após uma queda a importação continua dali.
+ */
+@Entity
+@Table(name = "progresso_ingestao")
+public class ProgressoIngestao {
+
+    @Id
+    private String nome;
+
+    @Column(length = 1000)
+    private String proximaUrl;     // null quando o catálogo foi percorrido até o fim
+
+    private Integer paginasConcluidas;
+    private Long livrosImportados;
+    private LocalDateTime atualizadoEm;
+
+    public ProgressoIngestao() {}
+
+    public ProgressoIngestao(String nome, String proximaUrl) {
+        this.nome = nome;
+        this.proximaUrl = proximaUrl;
+        this.paginasConcluidas = 0;
+        this.livrosImportados = 0L;
+        this.atualizadoEm = LocalDateTime.now();
+    }
+
+    // Getters e Setters
+    public String getNome() { return nome; }
+    public void setNome(String nome) { this.nome = nome; }
+
+    public String getProximaUrl() { return proximaUrl; }
+    public void setProximaUrl(String proximaUrl) { this.proximaUrl = proximaUrl; }
+
+    public Integer getPaginasConcluidas() { return paginasConcluidas; }
+    public void setPaginasConcluidas(Integer paginasConcluidas) { this.paginasConcluidas = paginasConcluidas; }
+
+    public Long getLivrosImportados() { return livrosImportados; }
+    public void setLivrosImportados(Long livrosImportados) { this.livrosImportados = livrosImportados; }
+
+    public LocalDateTime getAtualizadoEm() { return atualizadoEm; }
+    public void setAtualizadoEm(LocalDateTime atualizadoEm) { this.atualizadoEm = atualizadoEm; }
+
+    public boolean isConcluido() { return proximaUrl == null; }
+
+    @Override
+    public String toString() {
+        return "ProgressoIngestao{" +
+                "nome='" + nome + '\'' +
+                ", proximaUrl='" + proximaUrl + '\'' +
+                ", paginasConcluidas=" + paginasConcluidas +
+                ", livrosImportados=" + livrosImportados +
+                ", atualizadoEm=" + atualizadoEm +
+                '}';
+    }
+}
@@ -0,0 +1,89 @@
+package com.alura.literalura.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Uma tarefa da fila de ingestão compartilhada entre instâncias (tabela {@code fila_ingestao}).
+ * As tarefas são reservadas e concluídas por comandos SQL em
+ * {@link com.alura.literalura.repository.FilaIngestaoRepository}; a entidade existe para o
+ * Hibernate criar a tabela e para consultas de acompanhamento.
+ * <p>
+ * Ciclo: PENDENTE -> EM_ANDAMENTO (com dono e prazo de reserva) -> CONCLUIDA, ou de volta a
+ * PENDENTE depois de uma falha ou de uma reserva vencida, até FALHOU ao esgotar as tentativas.
+ */
+@Entity
+@Table(name = "fila_ingestao",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"fila", "tipo", "chave"}),
+        indexes = @Index(columnList = "fila, estado, disponivelEm"))
+public class TarefaIngestao {
+
+    public enum Tipo {
+        PAGINA,     // URL de uma página da listagem do catálogo
+        TITULO,     // título a buscar na Gutendex
+        IDS         // faixa de ids do Gutenberg, "de-ate"
+    }
+
+    public enum Estado {
+        PENDENTE, EM_ANDAMENTO, CONCLUIDA, FALHOU
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String fila;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Tipo tipo;
+
+    @Column(nullable = false, length = 1000)
+    private String chave;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Estado estado;
+
+    private int tentativas;
+    private String dono;               // instância/trabalhador com a reserva
+    private LocalDateTime reservadaAte;
+    private LocalDateTime disponivelEm;
+    private Integer livros;
+    @Column(length = 1000)
+    private String ultimoErro;
+    private LocalDateTime criadaEm;
+    private LocalDateTime concluidaEm;
+
+    public TarefaIngestao() {}
+
+    // Getters
+    public Long getId() { return id; }
+    public String getFila() { return fila; }
+    public Tipo getTipo() { return tipo; }
+    public String getChave() { return chave; }
+    public Estado getEstado() { return estado; }
+    public int getTentativas() { return tentativas; }
+    public String getDono() { return dono; }
+    public LocalDateTime getReservadaAte() { return reservadaAte; }
+    public LocalDateTime getDisponivelEm() { return disponivelEm; }
+    public Integer getLivros() { return livros; }
+    public String getUltimoErro() { return ultimoErro; }
+    public LocalDateTime getCriadaEm() { return criadaEm; }
+    public LocalDateTime getConcluidaEm() { return concluidaEm; }
+
+    @Override
+    public String toString() {
+        return "TarefaIngestao{" +
+                "id=" + id +
+                ", fila='" + fila + '\'' +
+                ", tipo=" + tipo +
+                ", chave='" + chave + '\'' +
+                ", estado=" + estado +
+                ", tentativas=" + tentativas +
+                ", dono='" + dono + '\'' +
+                ", ultimoErro='" + ultimoErro + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,13 @@
+package com.alura.literalura.repository;
+
+import com.alura.literalura.model.AnaliseIdioma;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AnaliseIdiomaRepository extends JpaRepository<AnaliseIdioma, String> {
+
+    List<AnaliseIdioma> findAllByOrderByLivrosDesc();
+}
@@ -0,0 +1,24 @@
+package com.alura.literalura.repository;
+
+import com.alura.literalura.model.AnaliseLivro;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AnaliseLivroRepository extends JpaRepository<AnaliseLivro, Long> {
+
+    Optional<AnaliseLivro> findByGutenbergId(Integer gutenbergId);
+
+    List<AnaliseLivro> findByGutenbergIdIn(Collection<Integer> gutenbergIds);
+
+    // Livros de vocabulário mais rico no idioma (usa o índice idioma, vocabulario)
+    @Query("select a from AnaliseLivro a where a.idioma = :idioma order by a.vocabulario desc")
+    List<AnaliseLivro> findMaioresVocabularios(@Param("idioma") String idioma, Pageable pagina);
+}
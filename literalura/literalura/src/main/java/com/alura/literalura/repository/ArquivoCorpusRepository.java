@@ -0,0 +1,35 @@
+package com.alura.literalura.repository;
+
+import com.alura.literalura.model.ArquivoCorpus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArquivoCorpusRepository extends JpaRepository<ArquivoCorpus, Long> {
+
+    Optional<ArquivoCorpus> findByGutenbergIdAndFormato(Integer gutenbergId, String formato);
+
+    // bytes em disco: cada objeto conta uma vez, mesmo que vários arquivos apontem para ele
+    @Query(value = "SELECT COALESCE(SUM(tamanho), 0) FROM (SELECT DISTINCT sha256, tamanho FROM corpus_arquivos) o",
+            nativeQuery = true)
+    long somarTamanhoDosObjetos();
+
+    @Query("SELECT COUNT(DISTINCT a.sha256) FROM ArquivoCorpus a")
+    long contarObjetos();
+
+    // Textos simples do corpus com o idioma do livro, para a análise (ver AnaliseCorpusService)
+    @Query("select a.gutenbergId as gutenbergId, a.sha256 as sha256, l.idioma as idioma " +
+            "from ArquivoCorpus a, Livro l where l.gutenbergId = a.gutenbergId and a.formato = 'text/plain' " +
+            "order by a.gutenbergId")
+    List<TextoParaAnalise> findTextosParaAnalise();
+
+    interface TextoParaAnalise {
+        Integer getGutenbergId();
+        String getSha256();
+        String getIdioma();
+    }
+}
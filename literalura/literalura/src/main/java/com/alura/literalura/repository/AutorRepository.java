@@ -1,12 +1,74 @@
 package com.alura.literalura.repository;
 
+import com.alura.literalura.cache.RegioesCache;
+import com.alura.literalura.dto.AutorResumo;
 import com.alura.literalura.model.Autor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AutorRepository extends JpaRepository<Autor, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = RegioesCache.CONSULTAS_VIDA)})
     List<Autor> findByBirthYearLessThanEqualAndDeathYearGreaterThanEqual(int birthYear, int deathYear);
+
+    @Query("select a.id as id, a.birthYear as birthYear, a.deathYear as deathYear from Autor a")
+    List<PeriodoVida> findPeriodosVida();
+
+    // Listagem por chave (keyset) com a quantidade de livros de cada autor, sem carregar os livros
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = RegioesCache.CONSULTAS_LISTAGEM)})
+    @Query("select new com.alura.literalura.dto.AutorResumo(a.id, a.name, a.birthYear, a.deathYear, count(l)) " +
+            "from Autor a left join a.livros l where a.id > :depoisDe " +
+            "group by a.id, a.name, a.birthYear, a.deathYear order by a.id")
+    Slice<AutorResumo> findResumosDepoisDe(@Param("depoisDe") long depoisDe, Pageable pagina);
+
+    // Todos os autores em streaming (consumir dentro de uma transação e fechar o Stream)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.alura.literalura.dto.AutorResumo(a.id, a.name, a.birthYear, a.deathYear, count(l)) " +
+            "from Autor a left join a.livros l " +
+            "group by a.id, a.name, a.birthYear, a.deathYear order by a.id")
+    Stream<AutorResumo> streamResumos();
+
+    // Autores vivos em algum ano entre :de e :ate, com as mesmas estimativas do IndiceVidaAutores para
+    // anos faltando (:longevidade); quem não tem nenhum dos dois anos fica de fora
+    String VIVOS_ENTRE = "coalesce(a.birthYear, a.deathYear - :longevidade) <= :ate " +
+            "and (coalesce(a.deathYear, a.birthYear + :longevidade) >= :de " +
+            "or coalesce(a.birthYear, a.deathYear - :longevidade) >= :de)";
+
+    // Autores vivos no período, por chave como a listagem de autores
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = RegioesCache.CONSULTAS_VIDA)})
+    @Query("select new com.alura.literalura.dto.AutorResumo(a.id, a.name, a.birthYear, a.deathYear, count(l)) " +
+            "from Autor a left join a.livros l where a.id > :depoisDe and " + VIVOS_ENTRE + " " +
+            "group by a.id, a.name, a.birthYear, a.deathYear order by a.id")
+    Slice<AutorResumo> findResumosVivosEntreDepoisDe(@Param("de") int de, @Param("ate") int ate,
+                                                     @Param("longevidade") int longevidade,
+                                                     @Param("depoisDe") long depoisDe, Pageable pagina);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.alura.literalura.dto.AutorResumo(a.id, a.name, a.birthYear, a.deathYear, count(l)) " +
+            "from Autor a left join a.livros l where " + VIVOS_ENTRE + " " +
+            "group by a.id, a.name, a.birthYear, a.deathYear order by a.id")
+    Stream<AutorResumo> streamResumosVivosEntre(@Param("de") int de, @Param("ate") int ate,
+                                                @Param("longevidade") int longevidade);
+
+    interface PeriodoVida {
+        Long getId();
+        Integer getBirthYear();
+        Integer getDeathYear();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,251 @@
+package com.alura.literalura.repository;
+
+import com.alura.literalura.model.Autor;
+import com.alura.literalura.model.Livro;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Gravação idempotente de livro + autor em um único comando
+ * {@code INSERT ... ON CONFLICT}: o autor é identificado pela chave natural
+ * ({@link Autor#chaveNatural}) e o livro pelo id do Gutenberg (sem id, pelo título entre
+ * os livros do mesmo autor). Buscar ou importar o mesmo livro de novo não cria linhas novas.
+ * <p>
+ * O tempo de cada comando no banco vai para {@code literalura.banco.comandos} (por
+ * operação) e o tamanho dos lotes para {@code literalura.banco.lote}.
+ */
+@Repository
+public class CatalogoUpsertRepository {
+
+    // O autor é sempre "atualizado" no conflito para que RETURNING devolva o id existente.
+    private static final String AUTOR_CTE = """
+            WITH autor AS (
+                INSERT INTO autores (id, name, birth_year, death_year, chave)
+                VALUES (nextval('autores_seq'), ?, ?, ?, ?)
+                ON CONFLICT (chave) DO UPDATE
+                    SET death_year = COALESCE(EXCLUDED.death_year, autores.death_year)
+                RETURNING id
+            )
+            """;
+
+    // O livro só é reescrito quando algum campo mudou, evitando versões mortas em reimportações.
+    private static final String UPSERT_SQL = AUTOR_CTE + """
+            INSERT INTO livros (id, gutenberg_id, titulo, idioma, downloads, autor_id)
+            SELECT nextval('livros_seq'), ?, ?, ?, ?, autor.id FROM autor
+            ON CONFLICT (gutenberg_id) DO UPDATE
+                SET titulo = EXCLUDED.titulo,
+                    idioma = EXCLUDED.idioma,
+                    downloads = EXCLUDED.downloads,
+                    autor_id = EXCLUDED.autor_id
+                WHERE (livros.titulo, livros.idioma, livros.downloads, livros.autor_id)
+                    IS DISTINCT FROM (EXCLUDED.titulo, EXCLUDED.idioma, EXCLUDED.downloads, EXCLUDED.autor_id)
+            """;
+
+    // Sem id do Gutenberg o ON CONFLICT (gutenberg_id) nunca dispara (NULL não conflita): o livro é
+    // procurado pelo título entre os do mesmo autor também sem id, e só entra se não houver nenhum.
+    private static final String UPSERT_SEM_ID_SQL = AUTOR_CTE + """
+            , existente AS (
+                SELECT livros.id, livros.autor_id FROM livros, autor
+                WHERE livros.gutenberg_id IS NULL AND livros.autor_id = autor.id
+                    AND livros.titulo IS NOT DISTINCT FROM ?
+                ORDER BY livros.id LIMIT 1
+            ), novo AS (
+                INSERT INTO livros (id, gutenberg_id, titulo, idioma, downloads, autor_id)
+                SELECT nextval('livros_seq'), NULL, ?, ?, ?, autor.id FROM autor
+                WHERE NOT EXISTS (SELECT 1 FROM existente)
+                RETURNING id, autor_id
+            )
+            SELECT id, autor_id FROM existente UNION ALL SELECT id, autor_id FROM novo
+            """;
+
+    private static final String IDS_POR_GUTENBERG_ID =
+            "SELECT gutenberg_id, id, autor_id FROM livros WHERE gutenberg_id IN (:ids)";
+
+    private static final String DOWNLOADS_ATUAIS =
+            "SELECT gutenberg_id, downloads FROM livros WHERE gutenberg_id IS NOT NULL ORDER BY gutenberg_id";
+
+    // a condição extra torna a atualização inofensiva se o valor já tiver sido gravado por outro caminho
+    private static final String ATUALIZAR_DOWNLOADS =
+            "UPDATE livros SET downloads = ? WHERE gutenberg_id = ? AND downloads IS DISTINCT FROM ?";
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final MeterRegistry metricas;
+
+    public CatalogoUpsertRepository(JdbcTemplate jdbc, MeterRegistry metricas) {
+        this.jdbc = jdbc;
+        this.namedJdbc = new NamedParameterJdbcTemplate(jdbc);
+        this.metricas = metricas;
+    }
+
+    /**
+     * Grava (ou atualiza) um livro e seu autor e preenche os ids nas entidades.
+     */
+    public Livro upsert(Livro livro) {
+        upsertAll(List.of(livro));
+        return livro;
+    }
+
+    /**
+     * Grava uma lista de livros em um lote JDBC e preenche os ids nas entidades.
+     * Deve ser chamado dentro de uma transação para que o lote seja atômico.
+     * As linhas vão sempre na ordem da chave do autor: lotes gravados ao mesmo tempo (várias
+     * instâncias, trabalhadores da fila) que têm autores em comum os travam na mesma ordem,
+     * sem deadlock.
+     */
+    public void upsertAll(List<Livro> livros) {
+        List<Livro> ordenados = new ArrayList<>(livros.size());
+        List<Livro> semId = new ArrayList<>();
+        for (Livro livro : livros) {
+            (livro.getGutenbergId() != null ? ordenados : semId).add(livro);
+        }
+        if (!ordenados.isEmpty()) {
+            ordenados.sort(Comparator.comparing(CatalogoUpsertRepository::chaveDoAutor)
+                    .thenComparing(Livro::getGutenbergId));
+            tamanhoLote("upsert").record(ordenados.size());
+            comando("upsert").record(() -> jdbc.batchUpdate(UPSERT_SQL, ordenados, ordenados.size(), this::preencher));
+            comando("ler-ids").record(() -> preencherIds(ordenados));
+        }
+        // raros (dados incompletos da fonte): um comando por livro, que já devolve os ids
+        for (Livro livro : semId) {
+            comando("upsert-sem-id").record(() -> upsertSemId(livro));
+        }
+    }
+
+    private void upsertSemId(Livro livro) {
+        jdbc.query(UPSERT_SEM_ID_SQL, ps -> {
+            preencherAutor(ps, livro);
+            ps.setString(5, livro.getTitulo());
+            ps.setString(6, livro.getTitulo());
+            ps.setString(7, livro.getIdioma());
+            setInteger(ps, 8, livro.getDownloads());
+        }, rs -> {
+            livro.setId(rs.getLong(1));
+            if (livro.getAutor() != null) livro.getAutor().setId(rs.getLong(2));
+        });
+    }
+
+    private static String chaveDoAutor(Livro livro) {
+        Autor autor = livro.getAutor();
+        return autor != null ? Autor.chaveNatural(autor.getName(), autor.getBirthYear()) : Autor.chaveNatural("Desconhecido", null);
+    }
+
+    private void preencher(PreparedStatement ps, Livro livro) throws SQLException {
+        preencherAutor(ps, livro);
+        setInteger(ps, 5, livro.getGutenbergId());
+        ps.setString(6, livro.getTitulo());
+        ps.setString(7, livro.getIdioma());
+        setInteger(ps, 8, livro.getDownloads());
+    }
+
+    private static void preencherAutor(PreparedStatement ps, Livro livro) throws SQLException {
+        Autor autor = livro.getAutor() != null ? livro.getAutor() : new Autor("Desconhecido", null, null);
+        ps.setString(1, autor.getName());
+        setInteger(ps, 2, autor.getBirthYear());
+        setInteger(ps, 3, autor.getDeathYear());
+        ps.setString(4, Autor.chaveNatural(autor.getName(), autor.getBirthYear()));
+    }
+
+    private static void setInteger(PreparedStatement ps, int indice, Integer valor) throws SQLException {
+        if (valor == null) ps.setNull(indice, Types.INTEGER);
+        else ps.setInt(indice, valor);
+    }
+
+    /**
+     * Lê de volta os ids gerados (ou já existentes) a partir do id do Gutenberg.
+     */
+    private void preencherIds(List<Livro> livros) {
+        List<Integer> gutenbergIds = livros.stream()
+                .map(Livro::getGutenbergId)
+                .filter(id -> id != null)
+                .collect(Collectors.toList());
+        if (gutenbergIds.isEmpty()) return;
+
+        Map<Integer, long[]> ids = new HashMap<>();
+        namedJdbc.query(IDS_POR_GUTENBERG_ID, new MapSqlParameterSource("ids", gutenbergIds),
+                rs -> { ids.put(rs.getInt(1), new long[]{rs.getLong(2), rs.getLong(3)}); });
+
+        for (Livro livro : livros) {
+            long[] par = ids.get(livro.getGutenbergId());
+            if (par == null) continue;
+            livro.setId(par[0]);
+            if (livro.getAutor() != null) livro.getAutor().setId(par[1]);
+        }
+    }
+
+    /**
+     * Ids do Gutenberg de todos os livros gravados (em ordem crescente) e seus downloads,
+     * em arrays paralelos; downloads desconhecidos vêm como -1.
+     */
+    public DownloadsGravados downloadsGravados() {
+        int[][] colunas = {new int[1024], new int[1024]};
+        int[] tamanho = {0};
+        jdbc.query(DOWNLOADS_ATUAIS, rs -> {
+            if (tamanho[0] == colunas[0].length) {
+                colunas[0] = Arrays.copyOf(colunas[0], tamanho[0] * 2);
+                colunas[1] = Arrays.copyOf(colunas[1], tamanho[0] * 2);
+            }
+            colunas[0][tamanho[0]] = rs.getInt(1);
+            int downloads = rs.getInt(2);
+            colunas[1][tamanho[0]] = rs.wasNull() ? -1 : downloads;
+            tamanho[0]++;
+        });
+        return new DownloadsGravados(Arrays.copyOf(colunas[0], tamanho[0]), Arrays.copyOf(colunas[1], tamanho[0]));
+    }
+
+    /**
+     * Grava novos valores de downloads em um lote JDBC. Cada par é {gutenbergId, downloads}.
+     * Devolve quantas linhas mudaram.
+     */
+    public int atualizarDownloads(List<int[]> pares) {
+        if (pares.isEmpty()) return 0;
+        tamanhoLote("atualizar-downloads").record(pares.size());
+        int[][] resultados = comando("atualizar-downloads").record(() ->
+                jdbc.batchUpdate(ATUALIZAR_DOWNLOADS, pares, pares.size(), (ps, par) -> {
+                    ps.setInt(1, par[1]);
+                    ps.setInt(2, par[0]);
+                    ps.setInt(3, par[1]);
+                }));
+        int alteradas = 0;
+        for (int[] lote : resultados) {
+            for (int n : lote) {
+                if (n > 0) alteradas += n;
+            }
+        }
+        return alteradas;
+    }
+
+    private Timer comando(String operacao) {
+        return metricas.timer("literalura.banco.comandos", "operacao", operacao);
+    }
+
+    private DistributionSummary tamanhoLote(String operacao) {
+        return DistributionSummary.builder("literalura.banco.lote")
+                .baseUnit("livros")
+                .tag("operacao", operacao)
+                .register(metricas);
+    }
+
+    public record DownloadsGravados(int[] gutenbergIds, int[] downloads) {
+
+        public int tamanho() {
+            return gutenbergIds.length;
+        }
+    }
+}
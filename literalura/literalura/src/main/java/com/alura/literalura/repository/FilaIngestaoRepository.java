@@ -0,0 +1,169 @@
+package com.alura.literalura.repository;
+
+import com.alura.literalura.model.TarefaIngestao;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Fila de ingestão no próprio PostgreSQL ({@link TarefaIngestao}), compartilhada por várias
+ * instâncias da aplicação no mesmo banco.
+ * <p>
+ * A reserva é um único {@code UPDATE ... WHERE id = (SELECT ... FOR UPDATE SKIP LOCKED)}:
+ * cada trabalhador pula as linhas que outro está reservando naquele instante em vez de
+ * esperar por elas, então nenhuma tarefa sai para dois trabalhadores e ninguém fica em fila
+ * atrás de um lock. Reservas têm prazo: uma instância que cai no meio de uma tarefa a
+ * devolve para a fila quando o prazo vence (a tarefa é reservada de novo, contando mais
+ * uma tentativa). Conclusão e falha só valem para o dono atual da reserva.
+ * <p>
+ * Tempo de cada comando em {@code literalura.banco.comandos} (operacao = fila-*).
+ */
+@Repository
+public class FilaIngestaoRepository {
+
+    private static final String ENFILEIRAR = """
+            INSERT INTO fila_ingestao (fila, tipo, chave, estado, tentativas, disponivel_em, criada_em)
+            VALUES (?, ?, ?, 'PENDENTE', 0, now(), now())
+            ON CONFLICT (fila, tipo, chave) DO NOTHING
+            """;
+
+    // a mais antiga disponível: pendente e fora da espera, ou em andamento com a reserva vencida
+    private static final String RESERVAR = """
+            UPDATE fila_ingestao SET estado = 'EM_ANDAMENTO', dono = ?, tentativas = tentativas + 1,
+                reservada_ate = now() + ? * interval '1 millisecond'
+            WHERE id = (
+                SELECT id FROM fila_ingestao
+                WHERE fila = ? AND tentativas < ?
+                  AND ((estado = 'PENDENTE' AND disponivel_em <= now())
+                       OR (estado = 'EM_ANDAMENTO' AND reservada_ate < now()))
+                ORDER BY id
+                LIMIT 1
+                FOR UPDATE SKIP LOCKED)
+            RETURNING id, tipo, chave, tentativas
+            """;
+
+    private static final String CONCLUIR = """
+            UPDATE fila_ingestao SET estado = 'CONCLUIDA', livros = ?, concluida_em = now(),
+                dono = NULL, reservada_ate = NULL, ultimo_erro = NULL
+            WHERE id = ? AND dono = ? AND estado = 'EM_ANDAMENTO'
+            """;
+
+    private static final String FALHAR = """
+            UPDATE fila_ingestao SET estado = CASE WHEN tentativas >= ? THEN 'FALHOU' ELSE 'PENDENTE' END,
+                ultimo_erro = left(?, 1000), disponivel_em = now() + ? * interval '1 millisecond',
+                dono = NULL, reservada_ate = NULL
+            WHERE id = ? AND dono = ? AND estado = 'EM_ANDAMENTO'
+            """;
+
+    // reservas vencidas que já usaram todas as tentativas não voltam mais para a fila
+    private static final String ABANDONAR_VENCIDAS = """
+            UPDATE fila_ingestao SET estado = 'FALHOU', dono = NULL, reservada_ate = NULL,
+                ultimo_erro = COALESCE(ultimo_erro, 'reserva vencida')
+            WHERE fila = ? AND estado = 'EM_ANDAMENTO' AND reservada_ate < now() AND tentativas >= ?
+            """;
+
+    private static final String CONTAR_POR_ESTADO =
+            "SELECT estado, count(*), COALESCE(sum(livros), 0) FROM fila_ingestao WHERE fila = ? GROUP BY estado";
+
+    private final JdbcTemplate jdbc;
+    private final MeterRegistry metricas;
+
+    public FilaIngestaoRepository(JdbcTemplate jdbc, MeterRegistry metricas) {
+        this.jdbc = jdbc;
+        this.metricas = metricas;
+    }
+
+    /**
+     * Tarefa reservada: {@code tentativas} já conta a reserva atual.
+     */
+    public record Tarefa(long id, TarefaIngestao.Tipo tipo, String chave, int tentativas) {
+    }
+
+    public record Resumo(Map<TarefaIngestao.Estado, Long> tarefas, long livros) {
+
+        public long quantidade(TarefaIngestao.Estado estado) {
+            return tarefas.getOrDefault(estado, 0L);
+        }
+
+        /**
+         * Tarefas que ainda podem ser feitas (pendentes ou com alguém trabalhando nelas).
+         */
+        public long abertas() {
+            return quantidade(TarefaIngestao.Estado.PENDENTE) + quantidade(TarefaIngestao.Estado.EM_ANDAMENTO);
+        }
+    }
+
+    /**
+     * Acrescenta as tarefas que ainda não existem na fila (a mesma chave enfileirada por
+     * duas instâncias vira uma tarefa só). Devolve quantas foram criadas.
+     */
+    public int enfileirar(String fila, TarefaIngestao.Tipo tipo, List<String> chaves) {
+        if (chaves.isEmpty()) return 0;
+        int[][] resultados = comando("fila-enfileirar").record(() ->
+                jdbc.batchUpdate(ENFILEIRAR, chaves, 500, (ps, chave) -> {
+                    ps.setString(1, fila);
+                    ps.setString(2, tipo.name());
+                    ps.setString(3, chave);
+                }));
+        int criadas = 0;
+        for (int[] lote : resultados) {
+            for (int n : lote) {
+                if (n > 0) criadas += n;
+            }
+        }
+        return criadas;
+    }
+
+    public Optional<Tarefa> reservar(String fila, String dono, Duration prazo, int maxTentativas) {
+        List<Tarefa> reservada = comando("fila-reservar").record(() ->
+                jdbc.query(RESERVAR, (rs, i) -> new Tarefa(rs.getLong(1), TarefaIngestao.Tipo.valueOf(rs.getString(2)),
+                        rs.getString(3), rs.getInt(4)), dono, prazo.toMillis(), fila, maxTentativas));
+        return reservada.stream().findFirst();
+    }
+
+    /**
+     * Marca a tarefa como concluída. Falso se a reserva já não era deste dono (venceu e
+     * outro trabalhador a pegou); como a ingestão é idempotente, o trabalho feito vale igual.
+     */
+    public boolean concluir(Tarefa tarefa, String dono, int livros) {
+        return comando("fila-concluir").record(() -> jdbc.update(CONCLUIR, livros, tarefa.id(), dono)) > 0;
+    }
+
+    /**
+     * Devolve a tarefa para a fila, disponível depois de {@code espera}, ou a marca como
+     * FALHOU se já usou {@code maxTentativas}.
+     */
+    public boolean falhar(Tarefa tarefa, String dono, String erro, Duration espera, int maxTentativas) {
+        return comando("fila-falhar").record(() ->
+                jdbc.update(FALHAR, maxTentativas, erro, espera.toMillis(), tarefa.id(), dono)) > 0;
+    }
+
+    public int abandonarVencidas(String fila, int maxTentativas) {
+        return jdbc.update(ABANDONAR_VENCIDAS, fila, maxTentativas);
+    }
+
+    public Resumo resumo(String fila) {
+        Map<TarefaIngestao.Estado, Long> tarefas = new EnumMap<>(TarefaIngestao.Estado.class);
+        long[] livros = {0};
+        jdbc.query(CONTAR_POR_ESTADO, rs -> {
+            tarefas.put(TarefaIngestao.Estado.valueOf(rs.getString(1)), rs.getLong(2));
+            livros[0] += rs.getLong(3);
+        }, fila);
+        return new Resumo(tarefas, livros[0]);
+    }
+
+    public int apagar(String fila) {
+        return jdbc.update("DELETE FROM fila_ingestao WHERE fila = ?", fila);
+    }
+
+    private Timer comando(String operacao) {
+        return metricas.timer("literalura.banco.comandos", "operacao", operacao);
+    }
+}
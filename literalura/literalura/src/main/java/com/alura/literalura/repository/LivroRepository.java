@@ -1,15 +1,87 @@
 package com.alura.literalura.repository;
 
+import com.alura.literalura.cache.RegioesCache;
+import com.alura.literalura.dto.LivroResumo;
 import com.alura.literalura.model.Livro;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LivroRepository extends JpaRepository<Livro, Long> {
-    List<Livro> findByIdioma(String idioma);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = RegioesCache.CONSULTAS_IDIOMA)})
     long countByIdioma(String idioma);
 
+    // Título e autor de cada livro, para montar o índice de busca local na inicialização
+    @Query("select l.id as id, l.gutenbergId as gutenbergId, l.titulo as titulo, a.name as autor " +
+            "from Livro l left join l.autor a")
+    List<TituloIndexavel> findTitulosIndexaveis();
+
+    // O necessário para montar as estatísticas do catálogo na inicialização
+    @Query("select l.id as id, l.gutenbergId as gutenbergId, l.titulo as titulo, l.idioma as idioma, " +
+            "l.downloads as downloads, a.id as autorId, a.name as autor from Livro l left join l.autor a")
+    List<LivroEstatistico> findLivrosEstatisticos();
+
+    // Listagem por chave (keyset): cada página começa depois do último id da anterior, sem OFFSET nem COUNT
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = RegioesCache.CONSULTAS_LISTAGEM)})
+    @Query("select new com.alura.literalura.dto.LivroResumo(l.id, l.gutenbergId, l.titulo, l.idioma, l.downloads, a.name) " +
+            "from Livro l left join l.autor a where l.id > :depoisDe order by l.id")
+    Slice<LivroResumo> findResumosDepoisDe(@Param("depoisDe") long depoisDe, Pageable pagina);
+
+    // Livros do idioma, por chave como a listagem acima
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = RegioesCache.CONSULTAS_IDIOMA)})
+    @Query("select new com.alura.literalura.dto.LivroResumo(l.id, l.gutenbergId, l.titulo, l.idioma, l.downloads, a.name) " +
+            "from Livro l left join l.autor a where l.idioma = :idioma and l.id > :depoisDe order by l.id")
+    Slice<LivroResumo> findResumosPorIdiomaDepoisDe(@Param("idioma") String idioma, @Param("depoisDe") long depoisDe,
+                                                    Pageable pagina);
+
+    // Todos os livros em streaming (consumir dentro de uma transação e fechar o Stream)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.alura.literalura.dto.LivroResumo(l.id, l.gutenbergId, l.titulo, l.idioma, l.downloads, a.name) " +
+            "from Livro l left join l.autor a order by l.id")
+    Stream<LivroResumo> streamResumos();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.alura.literalura.dto.LivroResumo(l.id, l.gutenbergId, l.titulo, l.idioma, l.downloads, a.name) " +
+            "from Livro l left join l.autor a where l.idioma = :idioma order by l.id")
+    Stream<LivroResumo> streamResumosPorIdioma(@Param("idioma") String idioma);
+
+    @Query("select new com.alura.literalura.dto.LivroResumo(l.id, l.gutenbergId, l.titulo, l.idioma, l.downloads, a.name) " +
+            "from Livro l left join l.autor a where l.id = :id")
+    Optional<LivroResumo> findResumoPorId(@Param("id") long id);
+
+    interface TituloIndexavel {
+        Long getId();
+        Integer getGutenbergId();
+        String getTitulo();
+        String getAutor();
+    }
+
+    interface LivroEstatistico {
+        Long getId();
+        Integer getGutenbergId();
+        String getTitulo();
+        String getIdioma();
+        Integer getDownloads();
+        Long getAutorId();
+        String getAutor();
+    }
+
     // Método para apagar todos os livros (opcional, pois deleteAll() já existe no JpaRepository)
     default void apagarTodosLivros() {
         deleteAll();
@@ -0,0 +1,256 @@
+package com.alura.literalura.search;
+
+import com.alura.literalura.model.Livro;
+import com.alura.literalura.repository.LivroRepository;
+import com.alura.literalura.service.LivrosPersistidosEvent;
+import com.alura.literalura.util.CargaSobDemanda;
+import com.alura.literalura.util.TextNormalizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido em memória sobre os títulos e nomes de autores já gravados.
+ * Cada palavra (normalizada como em {@link TextNormalizer}) aponta para as entradas
+ * que a contêm; uma busca cruza essas listas e só resolve localmente quando todas
+ * as palavras da consulta aparecem no mesmo livro.
+ */
+@Component
+public class IndiceTitulos {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CargaSobDemanda carga;
+
+    // entradas por posição; uma posição fica null quando o livro foi reindexado com outros dados
+    private final List<Entrada> entradas = new ArrayList<>();
+    private final Map<Long, Integer> posicaoPorLivro = new HashMap<>();
+    private final Map<Integer, Integer> posicaoPorGutenbergId = new HashMap<>();
+    private final Map<String, Postagens> postagens = new HashMap<>();
+
+    public IndiceTitulos(LivroRepository livroRepo) {
+        this(livroRepo, false);
+    }
+
+    @Autowired
+    public IndiceTitulos(LivroRepository livroRepo, @Value("${literalura.indices.sob-demanda:false}") boolean sobDemanda) {
+        this.carga = new CargaSobDemanda(lock, () -> livroRepo.findTitulosIndexaveis(), this::reconstruir,
+                sobDemanda);
+    }
+
+    private record Entrada(long livroId, Integer gutenbergId, String titulo, String autor) {
+    }
+
+    // pontos: 2 = título igual à consulta (ou id do Gutenberg), 1 = título contém a consulta,
+    // 0 = as palavras aparecem espalhadas no título e no autor
+    private record Achado(long livroId, int pontos) {
+    }
+
+    /**
+     * Lista crescente de posições de entradas (as posições só aumentam, então
+     * acrescentar mantém a ordem e permite busca binária).
+     */
+    private static final class Postagens {
+        int[] posicoes = new int[4];
+        int tamanho;
+
+        void adicionar(int posicao) {
+            if (tamanho == posicoes.length) posicoes = Arrays.copyOf(posicoes, tamanho * 2);
+            posicoes[tamanho++] = posicao;
+        }
+
+        boolean contem(int posicao) {
+            return Arrays.binarySearch(posicoes, 0, tamanho, posicao) >= 0;
+        }
+    }
+
+    /**
+     * Carrega todos os títulos gravados quando o contexto sobe, antes do menu (com a carga
+     * sob demanda, na primeira busca).
+     */
+    @EventListener(value = ContextRefreshedEvent.class, condition = CargaSobDemanda.NA_SUBIDA)
+    public void aoSubir() {
+        carga.executar();
+    }
+
+    private void reconstruir(List<LivroRepository.TituloIndexavel> titulos) {
+        entradas.clear();
+        posicaoPorLivro.clear();
+        posicaoPorGutenbergId.clear();
+        postagens.clear();
+        for (LivroRepository.TituloIndexavel t : titulos) {
+            indexarSemLock(t.getId(), t.getGutenbergId(), t.getTitulo(), t.getAutor());
+        }
+    }
+
+    @EventListener
+    public void aoPersistir(LivrosPersistidosEvent evento) {
+        carga.aplicar(() -> {
+            for (Livro livro : evento.livros()) {
+                if (livro.getId() == null) continue;
+                indexarSemLock(livro.getId(), livro.getGutenbergId(), livro.getTitulo(),
+                        livro.getAutor() != null ? livro.getAutor().getName() : null);
+            }
+        });
+    }
+
+    public void indexar(long livroId, Integer gutenbergId, String titulo, String autor) {
+        carga.aplicar(() -> indexarSemLock(livroId, gutenbergId, titulo, autor));
+    }
+
+    /**
+     * Procura um livro já gravado cujo título (ou título + autor) contenha todas as
+     * palavras da consulta. Um número puro é tratado como id do Gutenberg.
+     * Prioridade: título igual à consulta, título que contém a consulta, demais.
+     */
+    public Optional<Long> buscar(String consulta) {
+        return melhor(consulta).map(Achado::livroId);
+    }
+
+    /**
+     * Como {@link #buscar}, mas só aceita o id do Gutenberg, o título igual à consulta ou um
+     * título que a contém: é o que permite dispensar a Gutendex. Palavras espalhadas entre
+     * título e autor ("war", o nome de um autor) acham algum livro gravado, não
+     * necessariamente o procurado.
+     */
+    public Optional<Long> buscarRegistrado(String consulta) {
+        return melhor(consulta).filter(a -> a.pontos() >= 1).map(Achado::livroId);
+    }
+
+    private Optional<Achado> melhor(String consulta) {
+        carga.garantir();
+        if (consulta == null) return Optional.empty();
+        String trimmed = consulta.trim();
+
+        lock.readLock().lock();
+        try {
+            if (!trimmed.isEmpty() && trimmed.chars().allMatch(Character::isDigit) && trimmed.length() < 10) {
+                Integer posicao = posicaoPorGutenbergId.get(Integer.parseInt(trimmed));
+                return posicao != null ? Optional.of(new Achado(entradas.get(posicao).livroId(), 2)) : Optional.empty();
+            }
+
+            String[] tokens = TextNormalizer.tokenize(trimmed);
+            if (tokens.length == 0) return Optional.empty();
+
+            Postagens[] listas = new Postagens[tokens.length];
+            Postagens menor = null;
+            for (int i = 0; i < tokens.length; i++) {
+                listas[i] = postagens.get(tokens[i]);
+                if (listas[i] == null) return Optional.empty();   // alguma palavra não existe no acervo
+                if (menor == null || listas[i].tamanho < menor.tamanho) menor = listas[i];
+            }
+
+            String consultaNormalizada = TextNormalizer.normalize(trimmed);
+            Entrada melhor = null;
+            int melhorPontos = -1;
+            for (int k = 0; k < menor.tamanho; k++) {
+                int posicao = menor.posicoes[k];
+                if (!todasContem(listas, posicao)) continue;
+                Entrada e = entradas.get(posicao);
+                if (e == null) continue;
+                int pontos = e.titulo().equals(consultaNormalizada) ? 2
+                        : e.titulo().contains(consultaNormalizada) ? 1 : 0;
+                if (pontos > melhorPontos) {
+                    melhor = e;
+                    melhorPontos = pontos;
+                    if (pontos == 2) break;
+                }
+            }
+            return melhor != null ? Optional.of(new Achado(melhor.livroId(), melhorPontos)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Alternativa para quando a Gutendex está fora do ar: o livro gravado que contém mais
+     * palavras da consulta, desde que pelo menos metade delas. Empates ficam com o
+     * registrado primeiro.
+     */
+    public Optional<Long> buscarAproximado(String consulta) {
+        carga.garantir();
+        Optional<Long> exato = buscar(consulta);
+        if (exato.isPresent() || consulta == null) return exato;
+        String[] tokens = TextNormalizer.tokenize(consulta.trim());
+        if (tokens.length < 2) return Optional.empty();
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> acertos = new HashMap<>();
+            for (String token : new LinkedHashSet<>(Arrays.asList(tokens))) {
+                Postagens lista = postagens.get(token);
+                if (lista == null) continue;
+                for (int k = 0; k < lista.tamanho; k++) acertos.merge(lista.posicoes[k], 1, Integer::sum);
+            }
+            int minimo = (tokens.length + 1) / 2;
+            int melhorPosicao = -1;
+            int melhorAcertos = 0;
+            for (Map.Entry<Integer, Integer> a : acertos.entrySet()) {
+                int posicao = a.getKey();
+                if (entradas.get(posicao) == null || a.getValue() < minimo) continue;
+                if (a.getValue() > melhorAcertos || (a.getValue() == melhorAcertos && posicao < melhorPosicao)) {
+                    melhorPosicao = posicao;
+                    melhorAcertos = a.getValue();
+                }
+            }
+            return melhorPosicao >= 0 ? Optional.of(entradas.get(melhorPosicao).livroId()) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        carga.garantir();
+        lock.readLock().lock();
+        try {
+            return posicaoPorLivro.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean todasContem(Postagens[] listas, int posicao) {
+        for (Postagens p : listas) {
+            if (!p.contem(posicao)) return false;
+        }
+        return true;
+    }
+
+    private void indexarSemLock(long livroId, Integer gutenbergId, String titulo, String autor) {
+        String tituloNormalizado = TextNormalizer.normalize(titulo);
+        String autorNormalizado = TextNormalizer.normalize(autor);
+
+        Integer anterior = posicaoPorLivro.get(livroId);
+        if (anterior != null) {
+            Entrada antiga = entradas.get(anterior);
+            if (antiga.titulo().equals(tituloNormalizado) && antiga.autor().equals(autorNormalizado)) {
+                return;   // reimportação sem mudança
+            }
+            entradas.set(anterior, null);
+            if (antiga.gutenbergId() != null) posicaoPorGutenbergId.remove(antiga.gutenbergId());
+        }
+
+        int posicao = entradas.size();
+        entradas.add(new Entrada(livroId, gutenbergId, tituloNormalizado, autorNormalizado));
+        posicaoPorLivro.put(livroId, posicao);
+        if (gutenbergId != null) posicaoPorGutenbergId.put(gutenbergId, posicao);
+
+        Set<String> tokens = new LinkedHashSet<>();
+        tokens.addAll(Arrays.asList(TextNormalizer.tokenizeNormalized(tituloNormalizado)));
+        tokens.addAll(Arrays.asList(TextNormalizer.tokenizeNormalized(autorNormalizado)));
+        for (String token : tokens) {
+            postagens.computeIfAbsent(token, t -> new Postagens()).adicionar(posicao);
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.alura.literalura.search;
+
+import com.alura.literalura.model.Autor;
+import com.alura.literalura.model.Livro;
+import com.alura.literalura.repository.AutorRepository;
+import com.alura.literalura.service.LivrosPersistidosEvent;
+import com.alura.literalura.util.CargaSobDemanda;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória do período de vida dos autores, para perguntas do tipo
+ * "quem estava vivo em tal ano" sem varrer a tabela de autores.
+ * <p>
+ * Os intervalos ficam em baldes de {@value #ANOS_POR_BALDE} anos: cada autor aparece em
+ * todos os baldes que seu intervalo cobre, então um ano consulta só um balde. Cada balde é
+ * indexado pelo id do autor, para que reindexar um autor não precise varrer o balde.
+ * Um histograma por diferenças (+1 no nascimento, -1 no ano seguinte à morte) dá o número
+ * de autores vivos por ano; as somas de prefixo são recalculadas só quando alguém
+ * consulta depois de uma alteração.
+ * <p>
+ * Anos faltando: sem ano de morte, o autor é considerado vivo até
+ * {@value #LONGEVIDADE_PADRAO} anos depois do nascimento; sem ano de nascimento, desde
+ * {@value #LONGEVIDADE_PADRAO} anos antes da morte. Autores sem nenhum dos dois ficam de
+ * fora e são apenas contados.
+ */
+@Component
+public class IndiceVidaAutores {
+
+    static final int ANOS_POR_BALDE = 10;
+    public static final int LONGEVIDADE_PADRAO = 100;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CargaSobDemanda carga;
+
+    private final Map<Long, Intervalo> porAutor = new HashMap<>();
+    private final Map<Integer, Map<Long, Intervalo>> baldes = new HashMap<>();
+    private int semDatas;
+
+    // histograma: diferencas[i] se refere ao ano (anoBase + i)
+    private int anoBase;
+    private int[] diferencas = new int[0];
+    // somas de prefixo de diferencas, a partir de anoBasePrefixos (que só muda no recálculo)
+    private int anoBasePrefixos;
+    private int[] vivosPorAno = new int[0];
+    private long[] vivosAcumulados = new long[1];  // vivosAcumulados[i] = soma de vivosPorAno[0..i)
+    private boolean prefixosDesatualizados;
+
+    public IndiceVidaAutores(AutorRepository autorRepo) {
+        this(autorRepo, false);
+    }
+
+    @Autowired
+    public IndiceVidaAutores(AutorRepository autorRepo, @Value("${literalura.indices.sob-demanda:false}") boolean sobDemanda) {
+        this.carga = new CargaSobDemanda(lock, () -> autorRepo.findPeriodosVida(), this::reconstruir, sobDemanda);
+    }
+
+    /**
+     * Intervalo de vida já com os anos estimados; os anos originais são guardados para
+     * combinar com atualizações parciais (o upsert nunca apaga um ano de morte conhecido).
+     */
+    private record Intervalo(long autorId, Integer nascimento, Integer morte, int inicio, int fim) {
+    }
+
+    /**
+     * Autores vivos por ano entre {@code de} e {@code ate} (inclusive), mais autores sem datas.
+     */
+    public record Histograma(int de, int ate, int[] vivosPorAno, int semDatas) {
+
+        public int vivosEm(int ano) {
+            return vivosPorAno[ano - de];
+        }
+    }
+
+    @EventListener(value = ContextRefreshedEvent.class, condition = CargaSobDemanda.NA_SUBIDA)
+    public void aoSubir() {
+        carga.executar();
+    }
+
+    private void reconstruir(List<AutorRepository.PeriodoVida> periodos) {
+        porAutor.clear();
+        baldes.clear();
+        semDatas = 0;
+        anoBase = 0;
+        diferencas = new int[0];
+        for (AutorRepository.PeriodoVida p : periodos) {
+            indexarSemLock(p.getId(), p.getBirthYear(), p.getDeathYear());
+        }
+        prefixosDesatualizados = true;
+    }
+
+    @EventListener
+    public void aoPersistir(LivrosPersistidosEvent evento) {
+        carga.aplicar(() -> {
+            boolean alterou = false;
+            for (Livro livro : evento.livros()) {
+                Autor autor = livro.getAutor();
+                if (autor == null || autor.getId() == null) continue;
+                alterou |= indexarSemLock(autor.getId(), autor.getBirthYear(), autor.getDeathYear());
+            }
+            if (alterou) prefixosDesatualizados = true;
+        });
+    }
+
+    public void indexar(long autorId, Integer nascimento, Integer morte) {
+        carga.aplicar(() -> {
+            if (indexarSemLock(autorId, nascimento, morte)) prefixosDesatualizados = true;
+        });
+    }
+
+    /**
+     * Ids dos autores vivos no ano informado.
+     */
+    public List<Long> vivosEm(int ano) {
+        return vivosEntre(ano, ano);
+    }
+
+    /**
+     * Ids dos autores vivos em algum momento entre {@code de} e {@code ate} (inclusive).
+     * Cada autor é devolvido uma vez: só no primeiro balde do período em que aparece.
+     */
+    public List<Long> vivosEntre(int de, int ate) {
+        carga.garantir();
+        if (ate < de) return List.of();
+        int primeiroBalde = balde(de);
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int b = primeiroBalde; b <= balde(ate); b++) {
+                Map<Long, Intervalo> noBalde = baldes.get(b);
+                if (noBalde == null) continue;
+                for (Intervalo i : noBalde.values()) {
+                    if (i.inicio() <= ate && i.fim() >= de && Math.max(balde(i.inicio()), primeiroBalde) == b) {
+                        ids.add(i.autorId());
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    /**
+     * Quantidade de autores vivos no ano, em tempo constante.
+     */
+    public int quantidadeVivosEm(int ano) {
+        carga.garantir();
+        garantirPrefixos();
+        lock.readLock().lock();
+        try {
+            int i = ano - anoBasePrefixos;
+            return i >= 0 && i < vivosPorAno.length ? vivosPorAno[i] : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Soma de autores vivos ano a ano no período (autor-anos), em tempo constante.
+     */
+    public long autorAnosEntre(int de, int ate) {
+        carga.garantir();
+        if (ate < de) return 0;
+        garantirPrefixos();
+        lock.readLock().lock();
+        try {
+            return acumuladoAte(ate + 1) - acumuladoAte(de);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Histograma histograma(int de, int ate) {
+        carga.garantir();
+        if (ate < de) throw new IllegalArgumentException("Ano final antes do inicial: " + de + " > " + ate);
+        garantirPrefixos();
+        lock.readLock().lock();
+        try {
+            int[] vivos = new int[ate - de + 1];
+            int origem = Math.max(de, anoBasePrefixos);
+            int limite = Math.min(ate, anoBasePrefixos + vivosPorAno.length - 1);
+            if (origem <= limite) {
+                System.arraycopy(vivosPorAno, origem - anoBasePrefixos, vivos, origem - de, limite - origem + 1);
+            }
+            return new Histograma(de, ate, vivos, semDatas);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        carga.garantir();
+        lock.readLock().lock();
+        try {
+            return porAutor.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int semDatas() {
+        carga.garantir();
+        lock.readLock().lock();
+        try {
+            return semDatas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // soma de vivosPorAno para todos os anos < ano
+    private long acumuladoAte(int ano) {
+        int i = Math.max(0, Math.min(ano - anoBasePrefixos, vivosPorAno.length));
+        return vivosAcumulados[i];
+    }
+
+    private void garantirPrefixos() {
+        lock.readLock().lock();
+        try {
+            if (!prefixosDesatualizados) return;
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!prefixosDesatualizados) return;
+            int[] vivos = new int[diferencas.length];
+            long[] acumulados = new long[diferencas.length + 1];
+            int corrente = 0;
+            for (int i = 0; i < diferencas.length; i++) {
+                corrente += diferencas[i];
+                vivos[i] = corrente;
+                acumulados[i + 1] = acumulados[i] + corrente;
+            }
+            anoBasePrefixos = anoBase;
+            vivosPorAno = vivos;
+            vivosAcumulados = acumulados;
+            prefixosDesatualizados = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexa (ou reindexa) o autor; devolve {@code false} quando os anos não mudaram, caso
+     * comum nas reimportações, que então não tocam nos baldes nem no histograma.
+     */
+    private boolean indexarSemLock(long autorId, Integer nascimento, Integer morte) {
+        Intervalo anterior = porAutor.get(autorId);
+        if (anterior != null) {
+            // mesma regra do upsert: um ano conhecido não é apagado por um nulo
+            if (nascimento == null) nascimento = anterior.nascimento();
+            if (morte == null) morte = anterior.morte();
+            if (Objects.equals(nascimento, anterior.nascimento()) && Objects.equals(morte, anterior.morte())) {
+                return false;
+            }
+            porAutor.remove(autorId);
+            remover(anterior);
+        }
+
+        if (nascimento == null && morte == null) {
+            porAutor.put(autorId, new Intervalo(autorId, null, null, 0, -1));
+            semDatas++;
+            return true;
+        }
+
+        int inicio = nascimento != null ? nascimento : morte - LONGEVIDADE_PADRAO;
+        int fim = morte != null ? morte : nascimento + LONGEVIDADE_PADRAO;
+        if (fim < inicio) fim = inicio;   // dado inconsistente na fonte: conta só o ano de nascimento
+
+        Intervalo novo = new Intervalo(autorId, nascimento, morte, inicio, fim);
+        porAutor.put(autorId, novo);
+        for (int b = balde(inicio); b <= balde(fim); b++) {
+            baldes.computeIfAbsent(b, k -> new LinkedHashMap<>()).put(autorId, novo);
+        }
+        somar(inicio, 1);
+        somar(fim + 1, -1);
+        return true;
+    }
+
+    private void remover(Intervalo intervalo) {
+        if (intervalo.nascimento() == null && intervalo.morte() == null) {
+            semDatas--;
+            return;
+        }
+        for (int b = balde(intervalo.inicio()); b <= balde(intervalo.fim()); b++) {
+            Map<Long, Intervalo> noBalde = baldes.get(b);
+            noBalde.remove(intervalo.autorId());
+            if (noBalde.isEmpty()) baldes.remove(b);
+        }
+        somar(intervalo.inicio(), -1);
+        somar(intervalo.fim() + 1, 1);
+    }
+
+    /**
+     * Soma no histograma por diferenças, aumentando a faixa de anos coberta se preciso.
+     */
+    private void somar(int ano, int valor) {
+        if (diferencas.length == 0) {
+            anoBase = ano;
+            diferencas = new int[1];
+        } else if (ano < anoBase) {
+            int[] maior = new int[diferencas.length + (anoBase - ano)];
+            System.arraycopy(diferencas, 0, maior, anoBase - ano, diferencas.length);
+            diferencas = maior;
+            anoBase = ano;
+        } else if (ano - anoBase >= diferencas.length) {
+            diferencas = Arrays.copyOf(diferencas, Math.max(ano - anoBase + 1, diferencas.length * 2));
+        }
+        diferencas[ano - anoBase] += valor;
+    }
+
+    private static int balde(int ano) {
+        return Math.floorDiv(ano, ANOS_POR_BALDE);
+    }
+}
@@ -0,0 +1,140 @@
+package com.alura.literalura.search;
+
+import com.alura.literalura.dto.GutenbergBook;
+import com.alura.literalura.util.TextNormalizer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Escolhe, entre os resultados de uma busca na Gutendex, o título mais parecido com a consulta.
+ * A pontuação combina similaridade de trigramas (Dice), fração das palavras da consulta
+ * presentes no título e bônus para título igual ou que contém a consulta; empates são
+ * decididos pelo número de downloads. A consulta é preparada uma única vez e cada
+ * candidato é normalizado uma única vez.
+ */
+public final class TitleMatcher {
+
+    private TitleMatcher() {}
+
+    /**
+     * Consulta já normalizada, com trigramas e palavras pré-calculados.
+     */
+    public record Consulta(String normalizada, long[] trigramas, String[] palavras) {
+
+        public static Consulta de(String texto) {
+            String normalizada = TextNormalizer.normalize(texto);
+            return new Consulta(normalizada, TitleMatcher.trigramas(normalizada), TextNormalizer.tokenizeNormalized(normalizada));
+        }
+    }
+
+    public static Optional<GutenbergBook> melhor(String consulta, List<GutenbergBook> candidatos) {
+        return melhor(Consulta.de(consulta), candidatos);
+    }
+
+    public static Optional<GutenbergBook> melhor(Consulta consulta, List<GutenbergBook> candidatos) {
+        if (candidatos == null || candidatos.isEmpty()) return Optional.empty();
+
+        GutenbergBook melhor = null;
+        double melhorPontos = -1;
+        int melhorDownloads = -1;
+        for (GutenbergBook candidato : candidatos) {
+            if (candidato == null) continue;
+            double pontos = pontuar(consulta, TextNormalizer.normalize(candidato.getTitle()));
+            int downloads = candidato.getDownloadCount() != null ? candidato.getDownloadCount() : 0;
+            if (pontos > melhorPontos || (pontos == melhorPontos && downloads > melhorDownloads)) {
+                melhor = candidato;
+                melhorPontos = pontos;
+                melhorDownloads = downloads;
+            }
+        }
+        return Optional.ofNullable(melhor);
+    }
+
+    /**
+     * Pontuação de um título normalizado: 0 a 1 pela similaridade, +0,5 se contém a
+     * consulta e +1 se é igual a ela.
+     */
+    public static double pontuar(Consulta consulta, String tituloNormalizado) {
+        if (tituloNormalizado.isEmpty() || consulta.normalizada().isEmpty()) return 0;
+
+        double pontos = 0.5 * dice(consulta.trigramas(), tituloNormalizado)
+                + 0.5 * cobertura(consulta.palavras(), tituloNormalizado);
+        if (tituloNormalizado.contains(consulta.normalizada())) pontos += 0.5;
+        if (tituloNormalizado.equals(consulta.normalizada())) pontos += 1.0;
+        return pontos;
+    }
+
+    /**
+     * Trigramas de caracteres (com espaço nas bordas), cada um empacotado em um long,
+     * ordenados e sem repetição.
+     */
+    static long[] trigramas(String s) {
+        int n = s.length();
+        if (n == 0) return new long[0];
+        long[] t = new long[n];
+        for (int i = 0; i < n; i++) {
+            t[i] = trigrama(s, i);
+        }
+        Arrays.sort(t);
+        int unicos = 1;
+        for (int i = 1; i < n; i++) {
+            if (t[i] != t[unicos - 1]) t[unicos++] = t[i];
+        }
+        return unicos == n ? t : Arrays.copyOf(t, unicos);
+    }
+
+    private static long trigrama(String s, int i) {
+        char a = i == 0 ? ' ' : s.charAt(i - 1);
+        char b = s.charAt(i);
+        char c = i == s.length() - 1 ? ' ' : s.charAt(i + 1);
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    /**
+     * Coeficiente de Dice entre os trigramas da consulta e os do título. Os trigramas do
+     * título não são montados num array: cada um é procurado direto na lista ordenada da
+     * consulta, e um bitmap evita contar o mesmo trigrama da consulta duas vezes.
+     * O tamanho do título conta trigramas repetidos, o que só pesa em títulos com muita
+     * repetição.
+     */
+    private static double dice(long[] consulta, String titulo) {
+        if (consulta.length == 0) return 0;
+        long[] vistos = new long[(consulta.length + 63) >>> 6];
+        int comuns = 0;
+        for (int i = 0; i < titulo.length(); i++) {
+            int k = Arrays.binarySearch(consulta, trigrama(titulo, i));
+            if (k >= 0 && (vistos[k >>> 6] & (1L << k)) == 0) {
+                vistos[k >>> 6] |= 1L << k;
+                comuns++;
+            }
+        }
+        return 2.0 * comuns / (consulta.length + titulo.length());
+    }
+
+    /**
+     * Fração das palavras da consulta que aparecem como palavra inteira no título.
+     */
+    private static double cobertura(String[] palavras, String titulo) {
+        if (palavras.length == 0) return 0;
+        int presentes = 0;
+        for (String palavra : palavras) {
+            if (contemPalavra(titulo, palavra)) presentes++;
+        }
+        return (double) presentes / palavras.length;
+    }
+
+    private static boolean contemPalavra(String texto, String palavra) {
+        int de = 0;
+        int i;
+        while ((i = texto.indexOf(palavra, de)) >= 0) {
+            int fim = i + palavra.length();
+            boolean inicioOk = i == 0 || !Character.isLetterOrDigit(texto.charAt(i - 1));
+            boolean fimOk = fim == texto.length() || !Character.isLetterOrDigit(texto.charAt(fim));
+            if (inicioOk && fimOk) return true;
+            de = i + 1;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,184 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.dto.GutenbergBook;
+import com.alura.literalura.mapper.GutenbergResultMapper;
+import com.alura.literalura.model.Livro;
+import com.alura.literalura.search.IndiceTitulos;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Modo em lote: resolve uma lista de títulos/IDs (um por linha) de forma concorrente.
+ * <p>
+ * No máximo {@code literalura.lote.concorrencia} buscas ficam em andamento ao mesmo tempo,
+ * em threads virtuais; o ritmo de chamadas à Gutendex é controlado pelo limitador do
+ * {@link com.alura.literalura.client.GutendexClient}.
+ * Títulos já registrados são resolvidos pelo índice local. Os livros encontrados vão para
+ * a {@link FilaGravacao}, que faz upserts em lote.
+ */
+@Service
+public class BatchLookupService {
+
+    private final GutenbergService gutenberg;
+    private final IndiceTitulos indice;
+    private final FilaGravacao filaGravacao;
+    private final int concorrencia;
+
+    public BatchLookupService(GutenbergService gutenberg,
+                              IndiceTitulos indice,
+                              FilaGravacao filaGravacao,
+                              @Value("${literalura.lote.concorrencia:16}") int concorrencia) {
+        this.gutenberg = gutenberg;
+        this.indice = indice;
+        this.filaGravacao = filaGravacao;
+        this.concorrencia = Math.max(1, concorrencia);
+    }
+
+    /**
+     * Resumo de uma execução. Latências em milissegundos, por entrada.
+     */
+    public record ResumoLote(int entradas, int encontrados, int jaRegistrados, int naoEncontrados, int erros,
+                             int livrosGravados, double segundos, double p50, double p95, double p99, double max) {
+
+        public double entradasPorSegundo() {
+            return segundos > 0 ? entradas / segundos : 0;
+        }
+
+        public void imprimir() {
+            System.out.println("\n=== RESUMO DO LOTE ===");
+            System.out.printf("Entradas: %d | encontrados: %d | já registrados: %d | não encontrados: %d | erros: %d%n",
+                    entradas, encontrados, jaRegistrados, naoEncontrados, erros);
+            System.out.printf("Livros gravados: %d%n", livrosGravados);
+            System.out.printf("Tempo: %.1f s | %.2f entradas/s%n", segundos, entradasPorSegundo());
+            System.out.printf("Latência por entrada (ms): p50 %.1f | p95 %.1f | p99 %.1f | máx %.1f%n", p50, p95, p99, max);
+            System.out.println("======================");
+        }
+    }
+
+    /**
+     * Lê as entradas de um arquivo, ou da entrada padrão quando o caminho é "-".
+     * Linhas em branco e linhas iniciadas por '#' são ignoradas.
+     */
+    public ResumoLote processar(String caminho) throws IOException, InterruptedException {
+        List<String> entradas = new ArrayList<>();
+        try (BufferedReader leitor = "-".equals(caminho)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(caminho), StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                String entrada = linha.trim();
+                if (!entrada.isEmpty() && !entrada.startsWith("#")) entradas.add(entrada);
+            }
+        }
+        return processar(entradas);
+    }
+
+    public ResumoLote processar(List<String> entradas) throws InterruptedException {
+        int total = entradas.size();
+        long[] latencias = new long[total];
+        AtomicInteger encontrados = new AtomicInteger();
+        AtomicInteger jaRegistrados = new AtomicInteger();
+        AtomicInteger naoEncontrados = new AtomicInteger();
+        AtomicInteger erros = new AtomicInteger();
+        AtomicInteger concluidas = new AtomicInteger();
+
+        Queue<CompletableFuture<Livro>> gravacoes = new ConcurrentLinkedQueue<>();
+
+        System.out.println("Lote: até " + concorrencia + " buscas simultâneas em threads virtuais.");
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        Semaphore vagas = new Semaphore(concorrencia);
+        long inicio = System.nanoTime();
+        try {
+            for (int i = 0; i < total; i++) {
+                vagas.acquire();
+                int posicao = i;
+                String entrada = entradas.get(i);
+                executor.execute(() -> {
+                    long t0 = System.nanoTime();
+                    try {
+                        if (indice.buscarRegistrado(entrada).isPresent()) {
+                            jaRegistrados.incrementAndGet();
+                        } else {
+                            Optional<GutenbergBook> livro = gutenberg.buscar(entrada);
+                            if (livro.isPresent()) {
+                                gravacoes.add(filaGravacao.enfileirar(GutenbergResultMapper.toLivro(livro.get())));
+                                encontrados.incrementAndGet();
+                            } else {
+                                naoEncontrados.incrementAndGet();
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        erros.incrementAndGet();
+                    } catch (Exception e) {
+                        System.err.println("Erro ao processar '" + entrada + "': " + e.getMessage());
+                        erros.incrementAndGet();
+                    } finally {
+                        latencias[posicao] = System.nanoTime() - t0;
+                        vagas.release();
+                        int feitas = concluidas.incrementAndGet();
+                        if (feitas % 100 == 0) System.out.printf("Lote: %d/%d entradas processadas%n", feitas, total);
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        int livrosGravados = aguardarGravacoes(gravacoes);
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        long[] ordenadas = latencias.clone();
+        Arrays.sort(ordenadas);
+        return new ResumoLote(total, encontrados.get(), jaRegistrados.get(), naoEncontrados.get(), erros.get(),
+                livrosGravados, segundos,
+                percentil(ordenadas, 0.50), percentil(ordenadas, 0.95), percentil(ordenadas, 0.99),
+                total > 0 ? ordenadas[total - 1] / 1_000_000.0 : 0);
+    }
+
+    /**
+     * Espera os lotes da fila de gravação com os livros deste lote e conta os gravados
+     * (cada obra uma vez, mesmo que tenha vindo de várias linhas).
+     */
+    private static int aguardarGravacoes(Queue<CompletableFuture<Livro>> gravacoes) {
+        Set<Livro> gravados = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (CompletableFuture<Livro> gravacao : gravacoes) {
+            try {
+                gravados.add(gravacao.join());
+            } catch (CompletionException | CancellationException e) {
+                // a falha já foi registrada pela fila de gravação
+            }
+        }
+        return gravados.size();
+    }
+
+    private static double percentil(long[] ordenadas, double q) {
+        if (ordenadas.length == 0) return 0;
+        int i = (int) Math.ceil(q * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, i)] / 1_000_000.0;
+    }
+}
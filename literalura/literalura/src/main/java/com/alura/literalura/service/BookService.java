@@ -1,37 +1,167 @@
 package com.alura.literalura.service;
 
-import com.alura.literalura.model.Autor;
-import com.alura.literalura.model.Livro;
+import com.alura.literalura.dto.AutorResumo;
+import com.alura.literalura.dto.LivroResumo;
+import com.alura.literalura.model.AnaliseIdioma;
+import com.alura.literalura.model.AnaliseLivro;
+import com.alura.literalura.repository.AnaliseIdiomaRepository;
+import com.alura.literalura.repository.AnaliseLivroRepository;
 import com.alura.literalura.repository.AutorRepository;
 import com.alura.literalura.repository.LivroRepository;
+import com.alura.literalura.search.IndiceVidaAutores;
+import com.alura.literalura.stats.EstatisticasCatalogo;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class BookService {
 
     private final LivroRepository livroRepository;
     private final AutorRepository autorRepository;
+    private final IndiceVidaAutores indiceVida;
+    private final EstatisticasCatalogo estatisticas;
+    private final AnaliseLivroRepository analiseLivroRepository;
+    private final AnaliseIdiomaRepository analiseIdiomaRepository;
 
-    public BookService(LivroRepository livroRepository, AutorRepository autorRepository) {
+    public BookService(LivroRepository livroRepository, AutorRepository autorRepository,
+                       IndiceVidaAutores indiceVida, EstatisticasCatalogo estatisticas,
+                       AnaliseLivroRepository analiseLivroRepository,
+                       AnaliseIdiomaRepository analiseIdiomaRepository) {
         this.livroRepository = livroRepository;
         this.autorRepository = autorRepository;
+        this.indiceVida = indiceVida;
+        this.estatisticas = estatisticas;
+        this.analiseLivroRepository = analiseLivroRepository;
+        this.analiseIdiomaRepository = analiseIdiomaRepository;
     }
 
-    public List<Livro> listarTodosLivros() {
-        return livroRepository.findAll();
+    /**
+     * Próxima página de livros, em ordem de id, começando depois de {@code depoisDe}
+     * (use 0 para a primeira). O custo é o mesmo em qualquer ponto do catálogo.
+     */
+    public Slice<LivroResumo> paginaDeLivros(long depoisDe, int tamanho) {
+        return livroRepository.findResumosDepoisDe(depoisDe, PageRequest.ofSize(tamanho));
     }
 
-    public List<Autor> listarTodosAutores() {
-        return autorRepository.findAll();
+    public Slice<AutorResumo> paginaDeAutores(long depoisDe, int tamanho) {
+        return autorRepository.findResumosDepoisDe(depoisDe, PageRequest.ofSize(tamanho));
     }
 
-    public List<Autor> autoresVivosEm(int ano) {
-        return autorRepository.findByBirthYearLessThanEqualAndDeathYearGreaterThanEqual(ano, ano);
+    /**
+     * Percorre todos os livros com o cursor do banco, sem montar a lista em memória.
+     * Devolve quantos foram entregues ao consumidor.
+     */
+    @Transactional(readOnly = true)
+    public long paraCadaLivro(Consumer<LivroResumo> consumidor) {
+        try (Stream<LivroResumo> livros = livroRepository.streamResumos()) {
+            return consumir(livros, consumidor);
+        }
     }
 
-    public List<Livro> livrosPorIdioma(String idioma) {
-        return livroRepository.findByIdioma(idioma.toLowerCase());
+    @Transactional(readOnly = true)
+    public long paraCadaLivroDoIdioma(String idioma, Consumer<LivroResumo> consumidor) {
+        try (Stream<LivroResumo> livros = livroRepository.streamResumosPorIdioma(idioma.toLowerCase())) {
+            return consumir(livros, consumidor);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long paraCadaAutor(Consumer<AutorResumo> consumidor) {
+        try (Stream<AutorResumo> autores = autorRepository.streamResumos()) {
+            return consumir(autores, consumidor);
+        }
+    }
+
+    /**
+     * Próxima página de autores vivos no ano, por chave como {@link #paginaDeAutores}. Anos
+     * faltando são estimados como no {@link IndiceVidaAutores}, que dá a quantidade total.
+     */
+    public Slice<AutorResumo> paginaDeAutoresVivosEm(int ano, long depoisDe, int tamanho) {
+        return autorRepository.findResumosVivosEntreDepoisDe(ano, ano, IndiceVidaAutores.LONGEVIDADE_PADRAO,
+                depoisDe, PageRequest.ofSize(tamanho));
+    }
+
+    /**
+     * Autores vivos em algum ano do período, pelo cursor do banco como {@link #paraCadaAutor}.
+     */
+    @Transactional(readOnly = true)
+    public long paraCadaAutorVivoEntre(int de, int ate, Consumer<AutorResumo> consumidor) {
+        try (Stream<AutorResumo> autores = autorRepository.streamResumosVivosEntre(de, ate,
+                IndiceVidaAutores.LONGEVIDADE_PADRAO)) {
+            return consumir(autores, consumidor);
+        }
+    }
+
+    public int quantidadeAutoresVivosEm(int ano) {
+        return indiceVida.quantidadeVivosEm(ano);
+    }
+
+    public IndiceVidaAutores.Histograma histogramaAutoresVivos(int de, int ate) {
+        return indiceVida.histograma(de, ate);
+    }
+
+    public Optional<LivroResumo> resumoDoLivro(long id) {
+        return livroRepository.findResumoPorId(id);
+    }
+
+    /**
+     * Próxima página de livros do idioma, por chave como {@link #paginaDeLivros}.
+     */
+    public Slice<LivroResumo> paginaDeLivrosPorIdioma(String idioma, long depoisDe, int tamanho) {
+        return livroRepository.findResumosPorIdiomaDepoisDe(idioma.toLowerCase(), depoisDe, PageRequest.ofSize(tamanho));
+    }
+
+    /**
+     * Estatísticas do catálogo, respondidas pelos agregados em memória (ver {@link EstatisticasCatalogo}).
+     */
+    public EstatisticasCatalogo.Resumo estatisticasCatalogo() {
+        return estatisticas.resumo();
+    }
+
+    public int quantidadeLivrosPorIdioma(String idioma) {
+        return estatisticas.quantidadePorIdioma(idioma.toLowerCase());
+    }
+
+    public List<LivroResumo> maisBaixadosPorIdioma(String idioma, int quantidade) {
+        return estatisticas.maisBaixados(idioma.toLowerCase(), quantidade);
+    }
+
+    public List<EstatisticasCatalogo.LivrosDoAutor> autoresComMaisLivros(int quantidade) {
+        return estatisticas.autoresComMaisLivros(quantidade);
+    }
+
+    /**
+     * Análise do texto do livro, se ele estiver no corpus e já tiver sido analisado
+     * (ver {@link com.alura.literalura.corpus.AnaliseCorpusService}).
+     */
+    public Optional<AnaliseLivro> analiseDoLivro(int gutenbergId) {
+        return analiseLivroRepository.findByGutenbergId(gutenbergId);
+    }
+
+    /**
+     * Agregados da última análise do corpus, por idioma (do que tem mais livros ao que tem menos).
+     */
+    public List<AnaliseIdioma> analisesPorIdioma() {
+        return analiseIdiomaRepository.findAllByOrderByLivrosDesc();
+    }
+
+    public List<AnaliseLivro> maioresVocabularios(String idioma, int quantidade) {
+        return analiseLivroRepository.findMaioresVocabularios(idioma.toLowerCase(), PageRequest.ofSize(quantidade));
+    }
+
+    private static <T> long consumir(Stream<T> itens, Consumer<? super T> consumidor) {
+        long total = 0;
+        for (Iterator<T> it = itens.iterator(); it.hasNext(); total++) {
+            consumidor.accept(it.next());
+        }
+        return total;
     }
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.client.GutendexClient;
+import com.alura.literalura.dto.ApiBookResponse;
+import com.alura.literalura.mapper.GutendexStreamReader;
+import com.alura.literalura.model.Livro;
+import com.alura.literalura.model.ProgressoIngestao;
+import com.alura.literalura.repository.CatalogoUpsertRepository;
+import com.alura.literalura.repository.ProgressoIngestaoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Importação completa do catálogo Gutendex: percorre a paginação seguindo
+ * {@link ApiBookResponse#getNext()} e grava os livros em lotes transacionais.
+ */
+@Service
+public class CatalogIngestionService {
+
+    static final String PROGRESSO_CATALOGO = "catalogo-completo";
+
+    private final GutendexClient gutendex;
+    private final CatalogoUpsertRepository upsertRepo;
+    private final ProgressoIngestaoRepository progressoRepo;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher eventos;
+    private final int paginasPorLote;
+
+    public CatalogIngestionService(GutendexClient gutendex,
+                                   CatalogoUpsertRepository upsertRepo,
+                                   ProgressoIngestaoRepository progressoRepo,
+                                   TransactionTemplate transactionTemplate,
+                                   ApplicationEventPublisher eventos,
+                                   @Value("${literalura.ingestao.paginas-por-lote:10}") int paginasPorLote) {
+        this.gutendex = gutendex;
+        this.upsertRepo = upsertRepo;
+        this.progressoRepo = progressoRepo;
+        this.tx = transactionTemplate;
+        this.eventos = eventos;
+        this.paginasPorLote = Math.max(1, paginasPorLote);
+    }
+
+    /**
+     * Importa o catálogo inteiro, retomando da última página confirmada se houver
+     * uma importação anterior interrompida. Cada lote de páginas é gravado em uma
+     * única transação junto com o ponto de retomada.
+     */
+    public ProgressoIngestao importarCatalogo() {
+        ProgressoIngestao progresso = progressoRepo.findById(PROGRESSO_CATALOGO)
+                .filter(p -> !p.isConcluido())
+                .orElseGet(() -> new ProgressoIngestao(PROGRESSO_CATALOGO, gutendex.baseUrl()));
+
+        if (progresso.getPaginasConcluidas() > 0) {
+            System.out.println("Retomando importação na página " + (progresso.getPaginasConcluidas() + 1)
+                    + " (" + progresso.getLivrosImportados() + " livros já importados).");
+        }
+
+        long inicio = System.nanoTime();
+        long livrosNestaExecucao = 0;
+        String url = progresso.getProximaUrl();
+
+        while (url != null) {
+            List<Livro> lote = new ArrayList<>();
+            int paginasNoLote = 0;
+
+            while (url != null && paginasNoLote < paginasPorLote) {
+                GutendexStreamReader.Pagina pagina = buscarPagina(url, lote);
+                if (pagina == null) {
+                    System.err.println("Importação interrompida em " + url + ". Execute novamente para retomar.");
+                    return progresso;
+                }
+                url = pagina.next();
+                paginasNoLote++;
+            }
+
+            progresso = gravarLote(lote, progresso, url, paginasNoLote);
+            eventos.publishEvent(new LivrosPersistidosEvent(lote));
+            livrosNestaExecucao += lote.size();
+
+            double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+            System.out.printf("Páginas: %d | livros: %d | %.1f livros/s%n",
+                    progresso.getPaginasConcluidas(),
+                    progresso.getLivrosImportados(),
+                    segundos > 0 ? livrosNestaExecucao / segundos : 0.0);
+        }
+
+        System.out.println("Importação do catálogo concluída: " + progresso.getLivrosImportados() + " livros.");
+        return progresso;
+    }
+
+    /**
+     * Grava autores, livros e o ponto de retomada em uma única transação.
+     * O upsert torna a reimportação de páginas já vistas barata e sem duplicatas.
+     */
+    private ProgressoIngestao gravarLote(List<Livro> lote, ProgressoIngestao progresso,
+                                         String proximaUrl, int paginas) {
+        return tx.execute(status -> {
+            upsertRepo.upsertAll(lote);
+
+            progresso.setProximaUrl(proximaUrl);
+            progresso.setPaginasConcluidas(progresso.getPaginasConcluidas() + paginas);
+            progresso.setLivrosImportados(progresso.getLivrosImportados() + lote.size());
+            progresso.setAtualizadoEm(LocalDateTime.now());
+            return progressoRepo.save(progresso);
+        });
+    }
+
+    /**
+     * Busca uma página da API; falhas passageiras já são repetidas pelo {@link GutendexClient}.
+     * A resposta é lida em streaming direto para entidades, que são acrescentadas ao lote
+     * só quando a página inteira foi lida. Retorna null se a página não pôde ser lida.
+     */
+    private GutendexStreamReader.Pagina buscarPagina(String url, List<Livro> lote) {
+        List<Livro> livrosDaPagina = new ArrayList<>(32);
+        try {
+            GutendexStreamReader.Pagina pagina = gutendex.lerPagina(url, livrosDaPagina::add);
+            lote.addAll(livrosDaPagina);
+            return pagina;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            System.err.println("Falha ao buscar " + url + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
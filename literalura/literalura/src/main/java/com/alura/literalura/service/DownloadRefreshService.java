@@ -0,0 +1,147 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.client.GutendexClient;
+import com.alura.literalura.mapper.GutendexStreamReader;
+import com.alura.literalura.model.Livro;
+import com.alura.literalura.repository.CatalogoUpsertRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Atualização periódica do número de downloads dos livros já gravados.
+ * Os ids do Gutenberg são consultados em blocos com {@code /books?ids=...} (sem passar
+ * pelo cache) e só os livros cujo valor mudou são atualizados, em lotes JDBC.
+ */
+@Service
+public class DownloadRefreshService {
+
+    private static final int ALTERACOES_POR_LOTE = 1000;
+
+    // só criado na primeira atualização: o bean agendado sobe mesmo com lazy-initialization
+    private final ObjectProvider<GutendexClient> gutendex;
+    private final CatalogoUpsertRepository catalogoRepo;
+    private final ApplicationEventPublisher eventos;
+    private final int idsPorConsulta;
+    private final AtomicBoolean emAndamento = new AtomicBoolean();
+
+    public DownloadRefreshService(ObjectProvider<GutendexClient> gutendex,
+                                  CatalogoUpsertRepository catalogoRepo,
+                                  ApplicationEventPublisher eventos,
+                                  @Value("${literalura.atualizacao-downloads.ids-por-consulta:256}") int idsPorConsulta) {
+        this.gutendex = gutendex;
+        this.catalogoRepo = catalogoRepo;
+        this.eventos = eventos;
+        this.idsPorConsulta = Math.max(1, idsPorConsulta);
+    }
+
+    /**
+     * Resumo de uma atualização: livros gravados, livros devolvidos pela API,
+     * valores alterados, requisições feitas e páginas que falharam.
+     */
+    public record ResumoAtualizacao(int livros, int recebidos, int alterados, int requisicoes, int falhas,
+                                    double segundos) {
+    }
+
+    @Scheduled(cron = "${literalura.atualizacao-downloads.cron:0 0 3 * * *}")
+    public void atualizarAgendado() {
+        atualizarDownloads();
+    }
+
+    /**
+     * Percorre todos os livros gravados; devolve null se já houver uma atualização em andamento.
+     */
+    public ResumoAtualizacao atualizarDownloads() {
+        if (!emAndamento.compareAndSet(false, true)) {
+            System.out.println("Atualização de downloads já em andamento.");
+            return null;
+        }
+        try {
+            return atualizar();
+        } finally {
+            emAndamento.set(false);
+        }
+    }
+
+    private ResumoAtualizacao atualizar() {
+        long inicio = System.nanoTime();
+        CatalogoUpsertRepository.DownloadsGravados gravados = catalogoRepo.downloadsGravados();
+        int[] ids = gravados.gutenbergIds();
+        int[] downloads = gravados.downloads();
+        System.out.println("Atualizando downloads de " + ids.length + " livros...");
+
+        int recebidos = 0;
+        int alterados = 0;
+        int requisicoes = 0;
+        int falhas = 0;
+        List<int[]> pendentes = new ArrayList<>();
+        List<int[]> novosValores = new ArrayList<>();
+
+        for (int de = 0; de < ids.length && !Thread.currentThread().isInterrupted(); de += idsPorConsulta) {
+            int ate = Math.min(ids.length, de + idsPorConsulta);
+            String url = gutendex.getObject().urlPorIds(ids, de, ate);
+
+            while (url != null) {
+                List<Livro> pagina = new ArrayList<>(32);
+                String proxima = lerPagina(url, pagina);
+                requisicoes++;
+                if (proxima == null) {
+                    falhas++;
+                    break;
+                }
+                for (Livro livro : pagina) {
+                    recebidos++;
+                    if (livro.getGutenbergId() == null || livro.getDownloads() == null) continue;
+                    // ids em ordem: a busca binária fica restrita ao bloco consultado
+                    int i = Arrays.binarySearch(ids, de, ate, livro.getGutenbergId());
+                    if (i >= 0 && downloads[i] != livro.getDownloads()) {
+                        pendentes.add(new int[]{ids[i], livro.getDownloads()});
+                    }
+                }
+                url = proxima.isEmpty() ? null : proxima;
+            }
+
+            if (pendentes.size() >= ALTERACOES_POR_LOTE) {
+                alterados += catalogoRepo.atualizarDownloads(pendentes);
+                novosValores.addAll(pendentes);
+                pendentes.clear();
+            }
+        }
+        alterados += catalogoRepo.atualizarDownloads(pendentes);
+        novosValores.addAll(pendentes);
+        eventos.publishEvent(new DownloadsAtualizadosEvent(alterados, novosValores));
+
+        ResumoAtualizacao resumo = new ResumoAtualizacao(ids.length, recebidos, alterados, requisicoes, falhas,
+                (System.nanoTime() - inicio) / 1_000_000_000.0);
+        System.out.printf("Downloads atualizados: %d de %d livros (%d recebidos, %d requisições, %d falhas) em %.1f s%n",
+                resumo.alterados(), resumo.livros(), resumo.recebidos(), resumo.requisicoes(), resumo.falhas(),
+                resumo.segundos());
+        return resumo;
+    }
+
+    /**
+     * Lê uma página para a lista (falhas passageiras já são repetidas pelo {@link GutendexClient}).
+     * Devolve a URL da próxima página, "" se for a última, ou null se a página não pôde ser lida.
+     */
+    private String lerPagina(String url, List<Livro> destino) {
+        List<Livro> livros = new ArrayList<>(32);
+        try {
+            GutendexStreamReader.Pagina pagina = gutendex.getObject().lerPagina(url, livros::add);
+            destino.addAll(livros);
+            return pagina.next() != null ? pagina.next() : "";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            System.err.println("Falha ao buscar " + url + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
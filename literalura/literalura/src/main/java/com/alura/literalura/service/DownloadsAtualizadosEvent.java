@@ -0,0 +1,10 @@
+package com.alura.literalura.service;
+
+import java.util.List;
+
+/**
+ * Publicado depois que a atualização de downloads alterou livros direto no banco (JDBC).
+ * {@code novosValores} traz pares {id do Gutenberg, downloads} dos livros alterados.
+ */
+public record DownloadsAtualizadosEvent(int alterados, List<int[]> novosValores) {
+}
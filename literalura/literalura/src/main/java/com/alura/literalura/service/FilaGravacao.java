@@ -0,0 +1,247 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.model.Livro;
+import com.alura.literalura.repository.CatalogoUpsertRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Gravação assíncrona (write-behind) dos livros encontrados nas buscas.
+ * <p>
+ * Quem busca só coloca o livro numa fila limitada e segue; uma única thread grava em
+ * lotes de {@code tamanhoLote}, ou o que houver quando o mais antigo completar
+ * {@code intervalo} na fila, com um upsert em lote por transação. Fila cheia faz quem
+ * enfileira esperar (o banco dita o ritmo). No desligamento da aplicação a fila é
+ * esvaziada antes de o pool de conexões fechar.
+ * <p>
+ * Métricas: {@code literalura.gravacao.upsert} (latência do upsert, em lote ou livro a
+ * livro), {@code literalura.gravacao.espera} (do enfileiramento até o livro estar gravado),
+ * {@code literalura.gravacao.livros} e {@code literalura.gravacao.fila}.
+ */
+@Component
+public class FilaGravacao implements SmartLifecycle {
+
+    private final CatalogoUpsertRepository upsertRepo;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher eventos;
+    private final BlockingQueue<Pedido> fila;
+    private final int tamanhoLote;
+    private final long intervaloNanos;
+
+    // leitura: enfileirar; escrita: ligar/desligar. Assim nenhum pedido entra depois do último esvaziamento.
+    private final ReentrantReadWriteLock estado = new ReentrantReadWriteLock();
+    private volatile boolean rodando;
+    private Thread escritor;
+
+    private final LongAdder enfileirados = new LongAdder();
+    private final LongAdder gravados = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder lotes = new LongAdder();
+
+    private final MeterRegistry metricas;
+    private final Timer espera;
+
+    public FilaGravacao(CatalogoUpsertRepository upsertRepo,
+                        TransactionTemplate transactionTemplate,
+                        ApplicationEventPublisher eventos,
+                        MeterRegistry metricas,
+                        @Value("${literalura.gravacao.capacidade-fila:1000}") int capacidade,
+                        @Value("${literalura.gravacao.tamanho-lote:50}") int tamanhoLote,
+                        @Value("${literalura.gravacao.intervalo:PT0.5S}") Duration intervalo) {
+        this.upsertRepo = upsertRepo;
+        this.tx = transactionTemplate;
+        this.eventos = eventos;
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+        this.fila = new ArrayBlockingQueue<>(Math.max(this.tamanhoLote, capacidade));
+        this.intervaloNanos = intervalo.toNanos();
+
+        this.metricas = metricas;
+        this.espera = metricas.timer("literalura.gravacao.espera");
+        metricas.gauge("literalura.gravacao.fila", fila, BlockingQueue::size);
+        FunctionCounter.builder("literalura.gravacao.livros", gravados, LongAdder::sum)
+                .tag("resultado", "gravado").register(metricas);
+        FunctionCounter.builder("literalura.gravacao.livros", falhas, LongAdder::sum)
+                .tag("resultado", "falha").register(metricas);
+    }
+
+    private record Pedido(Livro livro, CompletableFuture<Livro> gravado, long enfileiradoEm) {
+    }
+
+    /**
+     * Contadores: pedidos enfileirados, livros gravados, livros que falharam, lotes gravados
+     * e pedidos aguardando na fila.
+     */
+    public record EstatisticasGravacao(long enfileirados, long gravados, long falhas, long lotes, int naFila) {
+    }
+
+    /**
+     * Coloca o livro na fila e devolve um futuro que completa com o livro já com ids,
+     * depois que o lote dele for gravado. Espera se a fila estiver cheia.
+     * Com a fila parada (antes de subir ou depois do desligamento), grava na hora.
+     */
+    public CompletableFuture<Livro> enfileirar(Livro livro) throws InterruptedException {
+        Pedido pedido = new Pedido(livro, new CompletableFuture<>(), System.nanoTime());
+        estado.readLock().lockInterruptibly();
+        try {
+            if (rodando) {
+                fila.put(pedido);
+                enfileirados.increment();
+                return pedido.gravado();
+            }
+        } finally {
+            estado.readLock().unlock();
+        }
+        gravar(List.of(pedido));
+        return pedido.gravado();
+    }
+
+    public EstatisticasGravacao estatisticas() {
+        return new EstatisticasGravacao(enfileirados.sum(), gravados.sum(), falhas.sum(), lotes.sum(), fila.size());
+    }
+
+    @Override
+    public void start() {
+        estado.writeLock().lock();
+        try {
+            if (rodando) return;
+            rodando = true;
+            escritor = new Thread(this::escrever, "literalura-gravacao");
+            escritor.start();
+        } finally {
+            estado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void stop() {
+        Thread thread;
+        estado.writeLock().lock();
+        try {
+            if (!rodando) return;
+            rodando = false;
+            thread = escritor;
+        } finally {
+            estado.writeLock().unlock();
+        }
+        if (fila.size() > 0) System.out.println("Gravando " + fila.size() + " livros pendentes antes de encerrar...");
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return rodando;
+    }
+
+    private void escrever() {
+        List<Pedido> lote = new ArrayList<>(tamanhoLote);
+        long prazo = 0;
+        try {
+            while (rodando || !fila.isEmpty()) {
+                long espera = lote.isEmpty() ? intervaloNanos : Math.max(0, prazo - System.nanoTime());
+                Pedido pedido = fila.poll(espera, TimeUnit.NANOSECONDS);
+                if (pedido != null) {
+                    if (lote.isEmpty()) prazo = System.nanoTime() + intervaloNanos;
+                    lote.add(pedido);
+                    fila.drainTo(lote, tamanhoLote - lote.size());
+                }
+                if (lote.size() >= tamanhoLote || (!lote.isEmpty() && System.nanoTime() >= prazo)) {
+                    gravar(lote);
+                    lote = new ArrayList<>(tamanhoLote);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fila.drainTo(lote);
+        }
+        if (!lote.isEmpty()) gravar(lote);
+    }
+
+    /**
+     * Grava um lote em uma transação. Se o lote falhar, tenta livro a livro para que um
+     * registro problemático não derrube os demais.
+     */
+    private void gravar(List<Pedido> pedidos) {
+        // a mesma obra pode ter sido buscada mais de uma vez enquanto esperava na fila
+        Map<Object, Livro> unicos = new LinkedHashMap<>();
+        for (Pedido p : pedidos) {
+            unicos.putIfAbsent(chave(p.livro()), p.livro());
+        }
+        List<Livro> livros = new ArrayList<>(unicos.values());
+        List<Livro> gravadosNoLote = new ArrayList<>(livros.size());
+        Map<Object, Exception> erros = new LinkedHashMap<>();
+
+        try {
+            upsert(livros, "lote");
+            gravadosNoLote.addAll(livros);
+        } catch (Exception falhaDoLote) {
+            for (Livro livro : livros) {
+                try {
+                    upsert(List.of(livro), "individual");
+                    gravadosNoLote.add(livro);
+                } catch (Exception e) {
+                    erros.put(chave(livro), e);
+                    System.err.println("Falha ao gravar '" + livro.getTitulo() + "': " + e.getMessage());
+                }
+            }
+        }
+
+        lotes.increment();
+        gravados.add(gravadosNoLote.size());
+        falhas.add(erros.size());
+
+        // os futuros completam antes do evento: quem espera o livro não depende dos ouvintes
+        long agora = System.nanoTime();
+        for (Pedido p : pedidos) {
+            Object chave = chave(p.livro());
+            Exception erro = erros.get(chave);
+            if (erro != null) p.gravado().completeExceptionally(erro);
+            else p.gravado().complete(unicos.get(chave));
+            espera.record(agora - p.enfileiradoEm(), TimeUnit.NANOSECONDS);
+        }
+
+        if (gravadosNoLote.isEmpty()) return;
+        try {
+            eventos.publishEvent(new LivrosPersistidosEvent(gravadosNoLote));
+        } catch (RuntimeException e) {
+            // um ouvinte com defeito (índices, estatísticas, cache) não pode parar a thread de gravação
+            System.err.println("Falha ao avisar sobre " + gravadosNoLote.size() + " livros gravados: " + e.getMessage());
+        }
+    }
+
+    private void upsert(List<Livro> livros, String modo) {
+        Timer.Sample amostra = Timer.start(metricas);
+        String resultado = "erro";
+        try {
+            tx.executeWithoutResult(status -> upsertRepo.upsertAll(livros));
+            resultado = "ok";
+        } finally {
+            amostra.stop(metricas.timer("literalura.gravacao.upsert", "modo", modo, "resultado", resultado));
+        }
+    }
+
+    private static Object chave(Livro livro) {
+        return livro.getGutenbergId() != null ? livro.getGutenbergId() : livro;
+    }
+}
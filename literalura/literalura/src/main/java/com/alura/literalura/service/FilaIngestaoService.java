@@ -0,0 +1,264 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.client.GutendexClient;
+import com.alura.literalura.client.Retentativas;
+import com.alura.literalura.mapper.GutendexStreamReader;
+import com.alura.literalura.mapper.GutenbergResultMapper;
+import com.alura.literalura.model.Livro;
+import com.alura.literalura.model.TarefaIngestao;
+import com.alura.literalura.repository.CatalogoUpsertRepository;
+import com.alura.literalura.repository.FilaIngestaoRepository;
+import com.alura.literalura.repository.FilaIngestaoRepository.Tarefa;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ingestão distribuída pela fila do banco ({@link FilaIngestaoRepository}): qualquer número
+ * de instâncias apontando para o mesmo banco roda {@link #importarCatalogo} (opção 14 do
+ * menu ou {@code --fila=catalogo}) e divide o trabalho, sem repetir páginas e sem disputar a
+ * gravação dos mesmos livros.
+ * <p>
+ * A primeira página da listagem é a semente; quem a processa descobre o total de páginas e
+ * enfileira as demais, que passam a ser reservadas por todos os trabalhadores de todas as
+ * instâncias. Cada tarefa é gravada (upsert dos livros + conclusão da tarefa) numa única
+ * transação; se a instância cair antes, a reserva vence e a tarefa volta para a fila. As
+ * falhas voltam com espera crescente até {@code literalura.fila.tentativas}.
+ * <p>
+ * Tarefas também podem ser títulos ({@link #enfileirarTitulos}) e faixas de ids do Gutenberg
+ * ({@link #enfileirarIds}). O limite de requisições à Gutendex continua por instância.
+ */
+@Service
+public class FilaIngestaoService {
+
+    public static final String FILA_CATALOGO = "catalogo";
+
+    private static final Pattern PARAMETRO_PAGINA = Pattern.compile("([?&]page=)\\d+");
+    private static final int IDS_POR_TAREFA = 32;   // uma requisição ?ids= por tarefa
+
+    /**
+     * O que fazer com uma tarefa reservada: os livros devolvidos são gravados na mesma
+     * transação que conclui a tarefa. Exceções devolvem a tarefa para a fila.
+     */
+    @FunctionalInterface
+    public interface Trabalho {
+        List<Livro> executar(Tarefa tarefa) throws Exception;
+    }
+
+    public record ResumoFila(String fila, int trabalhadores, int concluidas, int falhas, int reservasPerdidas,
+                             long livros, double segundos, FilaIngestaoRepository.Resumo situacao) {
+
+        public double tarefasPorSegundo() {
+            return segundos > 0 ? concluidas / segundos : 0;
+        }
+
+        public void imprimir() {
+            System.out.println("\n=== FILA DE INGESTÃO '" + fila + "' ===");
+            System.out.printf("Nesta instância: %d trabalhadores | %d tarefas concluídas (%.1f/s) | %d falhas"
+                            + " | %d reservas perdidas | %d livros gravados | %.1f s%n",
+                    trabalhadores, concluidas, tarefasPorSegundo(), falhas, reservasPerdidas, livros, segundos);
+            System.out.printf("Na fila (todas as instâncias): %s | %d livros%n", situacao.tarefas(), situacao.livros());
+        }
+    }
+
+    private final FilaIngestaoRepository fila;
+    private final GutendexClient gutendex;
+    private final GutenbergService gutenberg;
+    private final CatalogoUpsertRepository upsertRepo;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher eventos;
+    private final int trabalhadoresPadrao;
+    private final Duration prazoReserva;
+    private final int maxTentativas;
+    private final Duration intervaloConsulta;
+    private final Retentativas esperaAposFalha;
+    private final String instancia;
+
+    public FilaIngestaoService(FilaIngestaoRepository fila,
+                               GutendexClient gutendex,
+                               GutenbergService gutenberg,
+                               CatalogoUpsertRepository upsertRepo,
+                               TransactionTemplate transactionTemplate,
+                               ApplicationEventPublisher eventos,
+                               @Value("${literalura.fila.trabalhadores:8}") int trabalhadoresPadrao,
+                               @Value("${literalura.fila.prazo-reserva:PT2M}") Duration prazoReserva,
+                               @Value("${literalura.fila.tentativas:5}") int maxTentativas,
+                               @Value("${literalura.fila.intervalo-consulta:PT1S}") Duration intervaloConsulta,
+                               @Value("${literalura.fila.espera-base:PT2S}") Duration esperaBase,
+                               @Value("${literalura.fila.espera-maxima:PT1M}") Duration esperaMaxima) {
+        this.fila = fila;
+        this.gutendex = gutendex;
+        this.gutenberg = gutenberg;
+        this.upsertRepo = upsertRepo;
+        this.tx = transactionTemplate;
+        this.eventos = eventos;
+        this.trabalhadoresPadrao = Math.max(1, trabalhadoresPadrao);
+        this.prazoReserva = prazoReserva;
+        this.maxTentativas = Math.max(1, maxTentativas);
+        this.intervaloConsulta = intervaloConsulta;
+        this.esperaAposFalha = new Retentativas(this.maxTentativas, esperaBase.toMillis(), esperaMaxima.toMillis());
+        // nome do processo na JVM: "pid@host"
+        this.instancia = ManagementFactory.getRuntimeMXBean().getName();
+    }
+
+    /**
+     * Enfileira a semente do catálogo (se ainda não estiver na fila) e trabalha até não
+     * sobrar tarefa aberta, com os trabalhadores padrão. Com a fila toda encerrada (de uma
+     * importação anterior), começa uma nova; com tarefas abertas, junta-se à que está em curso.
+     */
+    public ResumoFila importarCatalogo() {
+        FilaIngestaoRepository.Resumo situacao = fila.resumo(FILA_CATALOGO);
+        if (situacao.abertas() == 0 && !situacao.tarefas().isEmpty()) fila.apagar(FILA_CATALOGO);
+        fila.enfileirar(FILA_CATALOGO, TarefaIngestao.Tipo.PAGINA, List.of(gutendex.baseUrl()));
+        return trabalhar(FILA_CATALOGO);
+    }
+
+    public int enfileirarTitulos(String nomeFila, List<String> titulos) {
+        return fila.enfileirar(nomeFila, TarefaIngestao.Tipo.TITULO, titulos);
+    }
+
+    /**
+     * Enfileira os ids do Gutenberg de {@code de} a {@code ate} (inclusive) em faixas de
+     * {@value #IDS_POR_TAREFA}.
+     */
+    public int enfileirarIds(String nomeFila, int de, int ate) {
+        List<String> faixas = new ArrayList<>();
+        for (int inicio = de; inicio <= ate; inicio += IDS_POR_TAREFA) {
+            faixas.add(inicio + "-" + Math.min(ate, inicio + IDS_POR_TAREFA - 1));
+        }
+        return fila.enfileirar(nomeFila, TarefaIngestao.Tipo.IDS, faixas);
+    }
+
+    public ResumoFila trabalhar(String nomeFila) {
+        return trabalhar(nomeFila, trabalhadoresPadrao, tarefa -> executar(nomeFila, tarefa));
+    }
+
+    /**
+     * Roda {@code trabalhadores} trabalhadores nesta instância (em threads virtuais)
+     * até a fila não ter tarefas pendentes nem em andamento, nesta ou em outra instância
+     * (uma tarefa em andamento ainda pode enfileirar outras).
+     */
+    public ResumoFila trabalhar(String nomeFila, int trabalhadores, Trabalho trabalho) {
+        long inicio = System.nanoTime();
+        AtomicInteger concluidas = new AtomicInteger();
+        AtomicInteger falhas = new AtomicInteger();
+        AtomicInteger reservasPerdidas = new AtomicInteger();
+        AtomicLong livros = new AtomicLong();
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<?>> emExecucao = new ArrayList<>(trabalhadores);
+            for (int i = 1; i <= trabalhadores; i++) {
+                String dono = instancia + "/" + i;
+                emExecucao.add(executor.submit(() -> {
+                    trabalhador(nomeFila, dono, trabalho, concluidas, falhas, reservasPerdidas, livros);
+                    return null;
+                }));
+            }
+            for (Future<?> f : emExecucao) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Trabalhador da fila parou com erro: " + e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return new ResumoFila(nomeFila, trabalhadores, concluidas.get(), falhas.get(), reservasPerdidas.get(),
+                livros.get(), (System.nanoTime() - inicio) / 1e9, fila.resumo(nomeFila));
+    }
+
+    private void trabalhador(String nomeFila, String dono, Trabalho trabalho, AtomicInteger concluidas,
+                             AtomicInteger falhas, AtomicInteger reservasPerdidas, AtomicLong livros)
+            throws InterruptedException {
+        while (!Thread.currentThread().isInterrupted()) {
+            Optional<Tarefa> reservada = fila.reservar(nomeFila, dono, prazoReserva, maxTentativas);
+            if (reservada.isEmpty()) {
+                fila.abandonarVencidas(nomeFila, maxTentativas);
+                if (fila.resumo(nomeFila).abertas() == 0) return;
+                Thread.sleep(intervaloConsulta.toMillis());
+                continue;
+            }
+            Tarefa tarefa = reservada.get();
+            try {
+                List<Livro> encontrados = trabalho.executar(tarefa);
+                Boolean minha = tx.execute(status -> {
+                    upsertRepo.upsertAll(encontrados);
+                    return fila.concluir(tarefa, dono, encontrados.size());
+                });
+                if (!encontrados.isEmpty()) eventos.publishEvent(new LivrosPersistidosEvent(encontrados));
+                concluidas.incrementAndGet();
+                livros.addAndGet(encontrados.size());
+                if (!Boolean.TRUE.equals(minha)) reservasPerdidas.incrementAndGet();
+            } catch (InterruptedException e) {
+                fila.falhar(tarefa, dono, "interrompida", Duration.ZERO, maxTentativas);
+                throw e;
+            } catch (Exception e) {
+                falhas.incrementAndGet();
+                Duration espera = Duration.ofMillis(esperaAposFalha.espera(tarefa.tentativas()));
+                fila.falhar(tarefa, dono, String.valueOf(e), espera, maxTentativas);
+                System.err.println("Falha na tarefa " + tarefa.tipo() + " " + tarefa.chave()
+                        + " (tentativa " + tarefa.tentativas() + "): " + e);
+            }
+        }
+    }
+
+    /**
+     * Tarefas de ingestão pela Gutendex.
+     */
+    private List<Livro> executar(String nomeFila, Tarefa tarefa) throws Exception {
+        return switch (tarefa.tipo()) {
+            case PAGINA -> pagina(nomeFila, tarefa);
+            case TITULO -> gutenberg.buscar(tarefa.chave())
+                    .map(book -> List.of(GutenbergResultMapper.toLivro(book)))
+                    .orElse(List.of());
+            case IDS -> porIds(tarefa.chave());
+        };
+    }
+
+    private List<Livro> pagina(String nomeFila, Tarefa tarefa) throws Exception {
+        List<Livro> livros = new ArrayList<>(32);
+        GutendexStreamReader.Pagina pagina = gutendex.lerPagina(tarefa.chave(), livros::add);
+        if (pagina.next() == null) return livros;
+        Matcher numero = PARAMETRO_PAGINA.matcher(pagina.next());
+        if (!numero.find()) {
+            // sem número de página no "next": uma página enfileira a seguinte
+            fila.enfileirar(nomeFila, TarefaIngestao.Tipo.PAGINA, List.of(pagina.next()));
+        } else if (tarefa.chave().equals(gutendex.baseUrl()) && pagina.itens() > 0) {
+            // a semente (primeira página) enfileira todas as outras de uma vez
+            int paginas = (pagina.count() + pagina.itens() - 1) / pagina.itens();
+            List<String> outras = new ArrayList<>(Math.max(0, paginas - 1));
+            for (int n = 2; n <= paginas; n++) outras.add(numero.replaceFirst("$1" + n));
+            int novas = fila.enfileirar(nomeFila, TarefaIngestao.Tipo.PAGINA, outras);
+            System.out.println("Catálogo com " + pagina.count() + " livros: " + novas + " páginas enfileiradas.");
+        }
+        return livros;
+    }
+
+    private List<Livro> porIds(String faixa) throws Exception {
+        int traco = faixa.indexOf('-');
+        int de = Integer.parseInt(faixa.substring(0, traco));
+        int ate = Integer.parseInt(faixa.substring(traco + 1));
+        int[] ids = new int[ate - de + 1];
+        for (int i = 0; i < ids.length; i++) ids[i] = de + i;
+        List<Livro> livros = new ArrayList<>(ids.length);
+        for (String url = gutendex.urlPorIds(ids, 0, ids.length); url != null; ) {
+            url = gutendex.lerPagina(url, livros::add).next();
+        }
+        return livros;
+    }
+}
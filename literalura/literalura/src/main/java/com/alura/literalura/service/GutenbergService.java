@@ -1,106 +1,237 @@
 package com.alura.literalura.service;
 
+import com.alura.literalura.client.GutendexClient;
+import com.alura.literalura.client.GutendexIndisponivelException;
+import com.alura.literalura.corpus.CorpusService;
 import com.alura.literalura.dto.ApiBookResponse;
 import com.alura.literalura.dto.GutenbergAuthor;
 import com.alura.literalura.dto.GutenbergBook;
-import com.alura.literalura.model.Autor;
+import com.alura.literalura.mapper.GutenbergResultMapper;
 import com.alura.literalura.model.Livro;
-import com.alura.literalura.repository.AutorRepository;
 import com.alura.literalura.repository.LivroRepository;
+import com.alura.literalura.search.IndiceTitulos;
+import com.alura.literalura.search.TitleMatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 
-import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Service
 public class GutenbergService {
 
-    private static final String BASE_URL = "https://gutendex.com/books";
+    // compilado uma vez: a busca por ID roda em toda consulta
+    private static final Pattern PRIMEIRO_NUMERO = Pattern.compile("\\d+");
 
-    private final RestTemplate rt;
-    private final AutorRepository autorRepo;
+    // tempo total da busca, por caminho que resolveu (indice-local, titulo, id, palavra-chave, nao-encontrado,
+    // indisponivel e local-aproximado, com o disjuntor da Gutendex aberto)
+    private static final String METRICA_BUSCA = "literalura.busca";
+    // tempo de cada estratégia até completar, por resultado (encontrado, vazio, erro, cancelada)
+    private static final String METRICA_ESTRATEGIA = "literalura.busca.estrategia";
+
+    private final GutendexClient gutendex;
+    private final FilaGravacao filaGravacao;
     private final LivroRepository livroRepo;
+    private final IndiceTitulos indice;
+    private final MeterRegistry metricas;
+    private final CorpusService corpus;
+    private final boolean baixarAoRegistrar;
+    private final long atrasoAlternativasMs;
 
-    public GutenbergService(RestTemplate restTemplate,
-                            AutorRepository autorRepo,
-                            LivroRepository livroRepo) {
-        this.rt = restTemplate;
-        this.autorRepo = autorRepo;
+    public GutenbergService(GutendexClient gutendex,
+                            FilaGravacao filaGravacao,
+                            LivroRepository livroRepo,
+                            IndiceTitulos indice,
+                            MeterRegistry metricas,
+                            CorpusService corpus,
+                            @Value("${literalura.corpus.ao-registrar:false}") boolean baixarAoRegistrar,
+                            @Value("${literalura.busca.atraso-alternativas:PT0.8S}") Duration atrasoAlternativas) {
+        this.gutendex = gutendex;
+        this.filaGravacao = filaGravacao;
         this.livroRepo = livroRepo;
+        this.indice = indice;
+        this.metricas = metricas;
+        this.corpus = corpus;
+        this.baixarAoRegistrar = baixarAoRegistrar;
+        this.atrasoAlternativasMs = atrasoAlternativas.toMillis();
     }
 
     /**
      * Busca um livro na API Gutendex por título (ou por ID/link) e persiste no banco.
+     * Livros já registrados são encontrados pelo índice local, sem chamada HTTP, quando o
+     * título gravado é igual à consulta ou a contém (ver {@link IndiceTitulos#buscarRegistrado}).
+     * Com a Gutendex fora do ar (disjuntor aberto), devolve o livro gravado mais parecido,
+     * se houver.
      */
     public Optional<Livro> buscarELancar(String tituloBusca) {
-        String url = UriComponentsBuilder
-                .fromHttpUrl(BASE_URL)
-                .queryParam("search", tituloBusca)
-                .encode()
-                .toUriString();
+        long inicio = System.nanoTime();
+        Optional<Livro> local = indice.buscarRegistrado(tituloBusca).flatMap(livroRepo::findById);
+        if (local.isPresent()) {
+            registrarBusca("indice-local", inicio);
+            System.out.println("Livro já registrado (encontrado no índice local).");
+            return local;
+        }
+        try {
+            return buscar(tituloBusca).flatMap(this::salvarLivro);
+        } catch (GutendexIndisponivelException e) {
+            System.err.println("Gutendex fora do ar no momento; procurando entre os livros já registrados.");
+            Optional<Livro> aproximado = indice.buscarAproximado(tituloBusca).flatMap(livroRepo::findById);
+            aproximado.ifPresent(livro -> {
+                registrarBusca("local-aproximado", inicio);
+                System.out.println("Livro registrado mais parecido: " + livro.getTitulo());
+            });
+            return aproximado;
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao acessar/processar Gutenberg: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
 
-        System.out.println("Chamando API Gutenberg em: " + url);
+    /**
+     * Resolve um título na Gutendex sem persistir nada.
+     * A busca pelo título parte na hora; as alternativas (busca direta por ID/link, só quando
+     * a entrada tem algum número, e busca pela primeira palavra) partem quando o título não
+     * encontra nada ou depois de {@code literalura.busca.atraso-alternativas}, o que vier
+     * primeiro. Vale a de maior prioridade que encontrar um livro. Assim uma busca que o
+     * título resolve rápido gasta uma requisição (e um token do limitador), e uma lenta não
+     * espera a soma das três.
+     * As alternativas já iniciadas não são interrompidas quando uma de maior prioridade
+     * encontra o livro: o resultado delas é descartado, mas a requisição termina (e a
+     * resposta fica no cache).
+     * Com o disjuntor da Gutendex aberto lança {@link GutendexIndisponivelException} na hora,
+     * em vez de responder "não encontrado".
+     */
+    public Optional<GutenbergBook> buscar(String tituloBusca) {
+        long inicio = System.nanoTime();
+        if (!gutendex.disponivel()) {
+            registrarBusca("indisponivel", inicio);
+            throw new GutendexIndisponivelException(gutendex.baseUrl());
+        }
+        List<String> nomes = new ArrayList<>(3);
+        List<String> caminhos = new ArrayList<>(3);
+        List<CompletableFuture<Optional<GutenbergBook>>> estrategias = new ArrayList<>(3);
+
+        // 1) search pelo título (respostas repetidas vêm do cache)
+        nomes.add("search");
+        caminhos.add("titulo");
+        CompletableFuture<Optional<GutenbergBook>> porTitulo = medir(gutendex.buscarPorTermo(tituloBusca)
+                .thenApply(resposta -> escolherResultado(resposta, tituloBusca)), "titulo", inicio);
+        estrategias.add(porTitulo);
+
+        // as alternativas esperam o título falhar ou o atraso passar (true = iniciar)
+        CompletableFuture<Boolean> alternativas = new CompletableFuture<>();
+        porTitulo.whenComplete((resultado, erro) -> alternativas.complete(resultado == null || resultado.isEmpty()));
+        CompletableFuture.delayedExecutor(atrasoAlternativasMs, TimeUnit.MILLISECONDS)
+                .execute(() -> alternativas.complete(true));
+
+        // 2) ID extraído da entrada -> /books/{id}
+        String id = extrairIdDoTituloOuLink(tituloBusca);
+        if (id != null) {
+            nomes.add("ID/link");
+            caminhos.add("id");
+            estrategias.add(depois(alternativas,
+                    () -> medir(gutendex.buscarPorId(id).thenApply(Optional::ofNullable), "id", inicio)));
+        }
+
+        // 3) fallback: busca por palavra-chave menor (ex.: primeira palavra)
+        String primeiraPalavra = extrairPrimeiraPalavra(tituloBusca);
+        if (primeiraPalavra != null && !primeiraPalavra.isBlank()
+                && !primeiraPalavra.equalsIgnoreCase(tituloBusca)) {
+            nomes.add("palavra-chave '" + primeiraPalavra + "'");
+            caminhos.add("palavra-chave");
+            estrategias.add(depois(alternativas, () -> medir(gutendex.buscarPorTermo(primeiraPalavra)
+                    .thenApply(GutenbergService::primeiroResultado), "palavra-chave", inicio)));
+        }
 
         try {
-            // tenta mapear diretamente para ApiBookResponse
-            ApiBookResponse rawResponse = rt.getForObject(url, ApiBookResponse.class);
-
-            // se não encontrou nada via search, tenta extrair ID e buscar /books/{id}
-            if (rawResponse == null || rawResponse.getResults() == null || rawResponse.getResults().isEmpty()) {
-                System.out.println("Nenhum resultado encontrado via 'search'. Tentando buscar por ID/link...");
-
-                String id = extrairIdDoTituloOuLink(tituloBusca);
-                if (id != null) {
-                    String urlDireta = BASE_URL + "/" + id;
-                    System.out.println("Tentando URL direta: " + urlDireta);
-                    GutenbergBook bookDireto = rt.getForObject(urlDireta, GutenbergBook.class);
-                    if (bookDireto != null) {
-                        return salvarLivro(bookDireto);
-                    } else {
-                        System.out.println("Nenhum livro retornado na busca direta por ID.");
-                        return Optional.empty();
-                    }
+            for (int i = 0; i < estrategias.size(); i++) {
+                Optional<GutenbergBook> resultado = aguardar(estrategias.get(i), nomes.get(i));
+                if (resultado.isPresent()) {
+                    registrarBusca(caminhos.get(i), inicio);
+                    return resultado;
                 }
+                System.out.println("Nenhum resultado encontrado via " + nomes.get(i) + ".");
+            }
+            // o disjuntor abriu durante a busca: as estratégias falharam, não ficaram vazias
+            if (!gutendex.disponivel()) {
+                registrarBusca("indisponivel", inicio);
+                throw new GutendexIndisponivelException(gutendex.baseUrl());
+            }
+            registrarBusca("nao-encontrado", inicio);
+            return Optional.empty();
+        } finally {
+            // as alternativas que ainda não partiram não partem mais; as em andamento são descartadas
+            alternativas.complete(false);
+            estrategias.forEach(f -> f.cancel(true));
+        }
+    }
 
-                // fallback: tentar fazer uma busca por palavra-chave menor (ex.: primeira palavra)
-                String primeiraPalavra = extrairPrimeiraPalavra(tituloBusca);
-                if (primeiraPalavra != null && !primeiraPalavra.isBlank()
-                        && !primeiraPalavra.equalsIgnoreCase(tituloBusca)) {
-                    System.out.println("Tentando busca por palavra-chave: " + primeiraPalavra);
-                    String urlKeyword = UriComponentsBuilder
-                            .fromHttpUrl(BASE_URL)
-                            .queryParam("search", primeiraPalavra)
-                            .encode()
-                            .toUriString();
-                    ApiBookResponse keywordResp = rt.getForObject(urlKeyword, ApiBookResponse.class);
-                    if (keywordResp != null && keywordResp.getResults() != null && !keywordResp.getResults().isEmpty()) {
-                        GutenbergBook book = keywordResp.getResults().get(0);
-                        return salvarLivro(book);
-                    }
-                }
+    /**
+     * Estratégia que só parte quando {@code gatilho} completar com {@code true}; com
+     * {@code false} (a busca já terminou) fica vazia sem chamar a Gutendex.
+     */
+    private static CompletableFuture<Optional<GutenbergBook>> depois(CompletableFuture<Boolean> gatilho,
+                                                                     Supplier<CompletableFuture<Optional<GutenbergBook>>> estrategia) {
+        return gatilho.thenCompose(iniciar -> iniciar ? estrategia.get() : CompletableFuture.completedFuture(Optional.empty()));
+    }
 
-                return Optional.empty();
-            }
+    /**
+     * Registra quanto a estratégia levou desde o início da busca e como terminou. Alternativas
+     * que não chegaram a partir não aparecem; as que partiram e foram descartadas contam pelo
+     * resultado que a requisição teve.
+     */
+    private CompletableFuture<Optional<GutenbergBook>> medir(CompletableFuture<Optional<GutenbergBook>> estrategia,
+                                                             String nome, long inicio) {
+        estrategia.whenComplete((resultado, erro) -> {
+            String desfecho = resultado != null ? (resultado.isPresent() ? "encontrado" : "vazio")
+                    : erro instanceof CancellationException ? "cancelada" : "erro";
+            metricas.timer(METRICA_ESTRATEGIA, "estrategia", nome, "resultado", desfecho)
+                    .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        });
+        return estrategia;
+    }
 
-            // se achou resultados, processa a lista
-            List<GutenbergBook> results = rawResponse.getResults();
-            String normalizedSearch = normalize(tituloBusca);
+    private void registrarBusca(String caminho, long inicio) {
+        metricas.timer(METRICA_BUSCA, "caminho", caminho).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+    }
 
-            GutenbergBook book = results.stream()
-                    .filter(b -> b.getTitle() != null && normalize(b.getTitle()).contains(normalizedSearch))
-                    .findFirst()
-                    .orElse(results.get(0)); // fallback: primeiro resultado
+    /**
+     * Entre os resultados da busca, escolhe o título mais parecido com o procurado
+     * (ver {@link TitleMatcher}).
+     */
+    private static Optional<GutenbergBook> escolherResultado(ApiBookResponse resposta, String tituloBusca) {
+        if (resposta == null || resposta.getResults() == null || resposta.getResults().isEmpty()) {
+            return Optional.empty();
+        }
+        return TitleMatcher.melhor(tituloBusca, resposta.getResults());
+    }
 
-            return salvarLivro(book);
+    private static Optional<GutenbergBook> primeiroResultado(ApiBookResponse resposta) {
+        if (resposta == null || resposta.getResults() == null || resposta.getResults().isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(resposta.getResults().get(0));
+    }
 
-        } catch (Exception e) {
-            System.err.println("Erro ao acessar/processar Gutenberg: " + e.getMessage());
-            e.printStackTrace();
+    /**
+     * Espera o resultado de uma estratégia; uma falha nela não impede as demais.
+     */
+    private static Optional<GutenbergBook> aguardar(CompletableFuture<Optional<GutenbergBook>> estrategia, String nome) {
+        try {
+            return estrategia.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            System.err.println("Falha na busca via " + nome + ": " + causa.getMessage());
             return Optional.empty();
         }
     }
@@ -108,31 +239,31 @@ public class GutenbergService {
     /**
      * Extrai um possível ID numérico de uma entrada (pode ser número puro ou link contendo número).
      */
-    private String extrairIdDoTituloOuLink(String entrada) {
+    static String extrairIdDoTituloOuLink(String entrada) {
         if (entrada == null) return null;
-        String trimmed = entrada.trim();
-        // se for número puro, retorna
-        if (trimmed.matches("\\d+")) return trimmed;
-        // procura o primeiro número no texto (por exemplo, em uma URL)
-        Pattern p = Pattern.compile("(\\d+)");
-        Matcher m = p.matcher(trimmed);
-        if (m.find()) return m.group(1);
-        return null;
+        // número puro ou o primeiro número no texto (por exemplo, em uma URL)
+        Matcher m = PRIMEIRO_NUMERO.matcher(entrada);
+        return m.find() ? m.group() : null;
     }
 
     /**
      * Pega a primeira palavra de uma frase (útil para tentativas de keyword search).
      */
-    private String extrairPrimeiraPalavra(String s) {
+    static String extrairPrimeiraPalavra(String s) {
         if (s == null) return null;
-        String t = s.trim();
-        if (t.isEmpty()) return null;
-        String[] parts = t.split("\\s+");
-        return parts.length > 0 ? parts[0] : null;
+        int inicio = 0;
+        while (inicio < s.length() && Character.isWhitespace(s.charAt(inicio))) inicio++;
+        if (inicio == s.length()) return null;
+        int fim = inicio;
+        while (fim < s.length() && !Character.isWhitespace(s.charAt(fim))) fim++;
+        return s.substring(inicio, fim);
     }
 
     /**
-     * Salva o livro/autor no banco e imprime dados no terminal.
+     * Imprime os dados do livro no terminal e o coloca na fila de gravação.
+     * O livro devolvido ainda não tem id; ele é preenchido quando o lote for gravado.
+     * Com {@code literalura.corpus.ao-registrar=true}, os formatos do livro também vão para
+     * o corpus local ({@link CorpusService}).
      */
     private Optional<Livro> salvarLivro(GutenbergBook book) {
         if (book == null) return Optional.empty();
@@ -154,37 +285,18 @@ public class GutenbergService {
         }
         System.out.println("=================================\n");
 
-        // persistência básica: cria autor + livro
-        GutenbergAuthor authorData = (book.getAuthors() != null && !book.getAuthors().isEmpty())
-                ? book.getAuthors().get(0)
-                : null;
-
-        Autor autor = new Autor();
-        // usar setName / setBirthYear / setDeathYear conforme entidade atual
-        autor.setName(authorData != null ? authorData.getName() : "Desconhecido");
-        autor.setBirthYear(authorData != null ? authorData.getBirthYear() : null);
-        autor.setDeathYear(authorData != null ? authorData.getDeathYear() : null);
-        autor = autorRepo.save(autor);
-
-        Livro livro = new Livro();
-        livro.setTitulo(book.getTitle());
-        livro.setIdioma(book.getLanguages() != null && !book.getLanguages().isEmpty()
-                ? book.getLanguages().get(0)
-                : "pt");
-        livro.setDownloads(book.getDownloadCount() != null ? book.getDownloadCount() : 0);
-        livro.setAutor(autor);
-        livro = livroRepo.save(livro);
-
-        System.out.println("Livro persistido no banco: " + livro);
-        return Optional.of(livro);
-    }
+        // a gravação fica com a FilaGravacao (upsert em lote, fora do caminho da busca)
+        Livro livro = GutenbergResultMapper.toLivro(book);
+        try {
+            filaGravacao.enfileirar(livro);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
 
-    /**
-     * Normaliza strings (remove acentos e coloca em minúsculas) para busca tolerante.
-     */
-    private static String normalize(String s) {
-        if (s == null) return "";
-        String n = Normalizer.normalize(s, Normalizer.Form.NFD);
-        return n.replaceAll("\\p{M}", "").toLowerCase().trim();
+        System.out.println("Livro enviado para gravação: " + livro.getTitulo());
+        // os textos baixam em segundo plano; a busca não espera por eles
+        if (baixarAoRegistrar) corpus.baixarLivro(book);
+        return Optional.of(livro);
     }
 }
\ No newline at end of file
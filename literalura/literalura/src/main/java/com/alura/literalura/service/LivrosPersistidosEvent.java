@@ -0,0 +1,12 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.model.Livro;
+
+import java.util.List;
+
+/**
+ * Publicado depois que livros (e seus autores) foram gravados no banco, já com ids.
+ * Índices e agregados em memória escutam este evento para se manter atualizados.
+ */
+public record LivrosPersistidosEvent(List<Livro> livros) {
+}
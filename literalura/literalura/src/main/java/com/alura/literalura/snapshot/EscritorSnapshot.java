@@ -0,0 +1,181 @@
+package com.alura.literalura.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import static com.alura.literalura.snapshot.FormatoSnapshot.*;
+
+/**
+ * Monta um snapshot do catálogo ({@link FormatoSnapshot}) a partir de linhas de autores e
+ * livros, em qualquer ordem, e grava o arquivo de uma vez (num temporário, movido para o
+ * destino no fim: quem estiver lendo o snapshot anterior não vê um arquivo pela metade).
+ */
+public class EscritorSnapshot {
+
+    private record LinhaAutor(long id, String nome, Integer nascimento, Integer morte) {
+    }
+
+    private record LinhaLivro(long id, Integer gutenbergId, String titulo, String idioma, Integer downloads,
+                              Long autorId) {
+    }
+
+    private final List<LinhaAutor> autores = new ArrayList<>();
+    private final List<LinhaLivro> livros = new ArrayList<>();
+
+    public void autor(long id, String nome, Integer nascimento, Integer morte) {
+        autores.add(new LinhaAutor(id, nome, nascimento, morte));
+    }
+
+    public void livro(long id, Integer gutenbergId, String titulo, String idioma, Integer downloads, Long autorId) {
+        livros.add(new LinhaLivro(id, gutenbergId, titulo, idioma, downloads, autorId));
+    }
+
+    /**
+     * Grava o snapshot e devolve o tamanho do arquivo em bytes.
+     */
+    public long gravar(Path destino) throws IOException {
+        autores.sort(Comparator.comparingLong(LinhaAutor::id));
+        livros.sort(Comparator.comparingLong(LinhaLivro::id));
+        int n = livros.size();
+        int m = autores.size();
+
+        String[] idiomas = livros.stream().map(LinhaLivro::idioma).filter(Objects::nonNull)
+                .collect(TreeSet<String>::new, TreeSet::add, TreeSet::addAll).toArray(String[]::new);
+        String[] nomes = autores.stream().map(LinhaAutor::nome).filter(Objects::nonNull)
+                .collect(TreeSet<String>::new, TreeSet::add, TreeSet::addAll).toArray(String[]::new);
+
+        long[] autorIds = new long[m];
+        int[] nascimentos = new int[m];
+        int[] mortes = new int[m];
+        int[] autorNomes = new int[m];
+        int[] livrosPorAutor = new int[m];
+        for (int i = 0; i < m; i++) {
+            LinhaAutor a = autores.get(i);
+            autorIds[i] = a.id();
+            nascimentos[i] = ouNulo(a.nascimento());
+            mortes[i] = ouNulo(a.morte());
+            autorNomes[i] = a.nome() != null ? Arrays.binarySearch(nomes, a.nome()) : -1;
+        }
+
+        long[] livroIds = new long[n];
+        int[] gutenbergIds = new int[n];
+        int[] downloads = new int[n];
+        int[] livroIdiomas = new int[n];
+        int[] livroAutores = new int[n];
+        int[] livrosPorIdioma = new int[idiomas.length];
+        byte[][] titulos = new byte[n][];
+        for (int i = 0; i < n; i++) {
+            LinhaLivro l = livros.get(i);
+            livroIds[i] = l.id();
+            gutenbergIds[i] = ouNulo(l.gutenbergId());
+            downloads[i] = ouNulo(l.downloads());
+            livroIdiomas[i] = l.idioma() != null ? Arrays.binarySearch(idiomas, l.idioma()) : -1;
+            if (livroIdiomas[i] >= 0) livrosPorIdioma[livroIdiomas[i]]++;
+            livroAutores[i] = l.autorId() != null ? Arrays.binarySearch(autorIds, l.autorId()) : -1;
+            if (livroAutores[i] < 0) livroAutores[i] = -1;
+            else livrosPorAutor[livroAutores[i]]++;
+            titulos[i] = l.titulo() != null ? l.titulo().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        }
+
+        // livros de cada idioma, contíguos (contagem + prefixos), mantendo a ordem de id
+        int[] inicioIdioma = new int[idiomas.length + 1];
+        for (int i = 0; i < idiomas.length; i++) inicioIdioma[i + 1] = inicioIdioma[i] + livrosPorIdioma[i];
+        int[] proximo = Arrays.copyOf(inicioIdioma, idiomas.length);
+        int[] linhasPorIdioma = new int[inicioIdioma[idiomas.length]];
+        for (int i = 0; i < n; i++) {
+            if (livroIdiomas[i] >= 0) linhasPorIdioma[proximo[livroIdiomas[i]]++] = i;
+        }
+
+        ByteBuffer[] secoes = new ByteBuffer[SECOES];
+        secoes[LIVRO_ID] = longs(livroIds);
+        secoes[LIVRO_GUTENBERG_ID] = ints(gutenbergIds);
+        secoes[LIVRO_DOWNLOADS] = ints(downloads);
+        secoes[LIVRO_IDIOMA] = ints(livroIdiomas);
+        secoes[LIVRO_AUTOR] = ints(livroAutores);
+        textos(titulos, secoes, LIVRO_TITULO_POSICOES, LIVRO_TITULO_BYTES);
+        secoes[AUTOR_ID] = longs(autorIds);
+        secoes[AUTOR_NASCIMENTO] = ints(nascimentos);
+        secoes[AUTOR_MORTE] = ints(mortes);
+        secoes[AUTOR_NOME] = ints(autorNomes);
+        secoes[AUTOR_LIVROS] = ints(livrosPorAutor);
+        textos(utf8(idiomas), secoes, IDIOMA_POSICOES, IDIOMA_BYTES);
+        textos(utf8(nomes), secoes, NOME_POSICOES, NOME_BYTES);
+        secoes[IDIOMA_INICIO] = ints(inicioIdioma);
+        secoes[IDIOMA_LIVROS] = ints(linhasPorIdioma);
+
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO).order(ByteOrder.LITTLE_ENDIAN);
+        cabecalho.putLong(MAGICO).putInt(VERSAO).putInt(n).putInt(m).putInt(idiomas.length).putInt(nomes.length)
+                .putInt(0);
+        long posicao = TAMANHO_CABECALHO;
+        for (ByteBuffer secao : secoes) {
+            posicao = alinhar((int) posicao);
+            cabecalho.putInt((int) posicao).putInt(secao.remaining());
+            posicao += secao.remaining();
+            if (posicao > Integer.MAX_VALUE) throw new IOException("Catálogo grande demais para um snapshot");
+        }
+        cabecalho.flip();
+        long tamanho = alinhar((int) posicao);   // termina alinhado: uma seção vazia no fim não aponta além do arquivo
+
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            escrever(canal, cabecalho, 0);
+            for (int s = 0; s < SECOES; s++) {
+                escrever(canal, secoes[s], cabecalho.getInt(32 + s * 8));
+            }
+            if (canal.size() < tamanho) escrever(canal, ByteBuffer.allocate((int) (tamanho - canal.size())), canal.size());
+            canal.force(true);
+        }
+        Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return Files.size(destino);
+    }
+
+    private static void escrever(FileChannel canal, ByteBuffer dados, long posicao) throws IOException {
+        while (dados.hasRemaining()) posicao += canal.write(dados, posicao);
+    }
+
+    private static int ouNulo(Integer valor) {
+        return valor != null ? valor : NULO;
+    }
+
+    private static ByteBuffer ints(int[] valores) {
+        ByteBuffer b = ByteBuffer.allocate(valores.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        b.asIntBuffer().put(valores);
+        return b;
+    }
+
+    private static ByteBuffer longs(long[] valores) {
+        ByteBuffer b = ByteBuffer.allocate(valores.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+        b.asLongBuffer().put(valores);
+        return b;
+    }
+
+    private static byte[][] utf8(String[] textos) {
+        byte[][] bytes = new byte[textos.length][];
+        for (int i = 0; i < textos.length; i++) bytes[i] = textos[i].getBytes(StandardCharsets.UTF_8);
+        return bytes;
+    }
+
+    // posições (n + 1 ints) e bytes concatenados
+    private static void textos(byte[][] textos, ByteBuffer[] secoes, int secaoPosicoes, int secaoBytes) {
+        int[] posicoes = new int[textos.length + 1];
+        for (int i = 0; i < textos.length; i++) posicoes[i + 1] = posicoes[i] + textos[i].length;
+        ByteBuffer bytes = ByteBuffer.allocate(posicoes[textos.length]);
+        for (byte[] t : textos) bytes.put(t);
+        secoes[secaoPosicoes] = ints(posicoes);
+        secoes[secaoBytes] = bytes.flip();
+    }
+}
@@ -0,0 +1,75 @@
+package com.alura.literalura.snapshot;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Exporta o catálogo do banco para um snapshot ({@link SnapshotCatalogo}): duas leituras
+ * JDBC, direto para as colunas do {@link EscritorSnapshot}, sem passar por entidades. O
+ * tempo de cada exportação vai para {@code literalura.snapshot.exportar}.
+ */
+@Component
+public class ExportadorSnapshot {
+
+    private static final String AUTORES = "SELECT id, name, birth_year, death_year FROM autores";
+    private static final String LIVROS = "SELECT id, gutenberg_id, titulo, idioma, downloads, autor_id FROM livros";
+
+    private final JdbcTemplate jdbc;
+    private final MeterRegistry metricas;
+    private final Path arquivoPadrao;
+
+    public ExportadorSnapshot(JdbcTemplate jdbc, MeterRegistry metricas,
+                              @Value("${literalura.snapshot.arquivo:catalogo.snapshot}") String arquivoPadrao) {
+        this.jdbc = jdbc;
+        this.metricas = metricas;
+        this.arquivoPadrao = Path.of(arquivoPadrao);
+    }
+
+    public record ResumoExportacao(Path arquivo, int livros, int autores, long bytes, double segundos) {
+    }
+
+    public ResumoExportacao exportar() {
+        return exportar(arquivoPadrao);
+    }
+
+    public ResumoExportacao exportar(Path destino) {
+        long inicio = System.nanoTime();
+        EscritorSnapshot escritor = new EscritorSnapshot();
+        int[] autores = {0};
+        int[] livros = {0};
+        jdbc.query(AUTORES, rs -> {
+            escritor.autor(rs.getLong(1), rs.getString(2), inteiro(rs, 3), inteiro(rs, 4));
+            autores[0]++;
+        });
+        jdbc.query(LIVROS, rs -> {
+            long autorId = rs.getLong(6);
+            Long autor = rs.wasNull() ? null : autorId;
+            escritor.livro(rs.getLong(1), inteiro(rs, 2), rs.getString(3), rs.getString(4), inteiro(rs, 5), autor);
+            livros[0]++;
+        });
+        long bytes;
+        try {
+            bytes = escritor.gravar(destino);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível gravar o snapshot em " + destino, e);
+        }
+        long nanos = System.nanoTime() - inicio;
+        Timer.builder("literalura.snapshot.exportar").register(metricas).record(Duration.ofNanos(nanos));
+        return new ResumoExportacao(destino, livros[0], autores[0], bytes, nanos / 1e9);
+    }
+
+    private static Integer inteiro(ResultSet rs, int coluna) throws SQLException {
+        int valor = rs.getInt(coluna);
+        return rs.wasNull() ? null : valor;
+    }
+}
@@ -0,0 +1,68 @@
+package com.alura.literalura.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Layout do arquivo de snapshot do catálogo (little-endian, seções alinhadas em 8 bytes):
+ * <pre>
+ * 0   long  mágico "LITERALU"
+ * 8   int   versão
+ * 12  int   livros (n)      16 int autores (m)
+ * 20  int   idiomas (k)     24 int nomes de autor distintos (q)
+ * 28  int   reservado
+ * 32  SECOES x (int posição, int tamanho em bytes)
+ * </pre>
+ * Livros e autores ficam em colunas ordenadas por id (uma linha = um índice nas colunas).
+ * Idiomas e nomes de autor são dicionários: as colunas guardam o índice da entrada, e cada
+ * dicionário é um {@code int[]} de posições mais os bytes UTF-8 (como os títulos).
+ * {@link #NULO} marca anos e downloads desconhecidos; -1, referências ausentes.
+ */
+final class FormatoSnapshot {
+
+    static final long MAGICO = 0x554C41524554494CL;   // bytes "LITERALU" lidos em little-endian
+    static final int VERSAO = 1;
+    static final int NULO = Integer.MIN_VALUE;
+
+    static final int LIVRO_ID = 0;              // long[n]
+    static final int LIVRO_GUTENBERG_ID = 1;    // int[n]
+    static final int LIVRO_DOWNLOADS = 2;       // int[n]
+    static final int LIVRO_IDIOMA = 3;          // int[n], índice no dicionário de idiomas
+    static final int LIVRO_AUTOR = 4;           // int[n], linha do autor
+    static final int LIVRO_TITULO_POSICOES = 5; // int[n + 1]
+    static final int LIVRO_TITULO_BYTES = 6;
+    static final int AUTOR_ID = 7;              // long[m]
+    static final int AUTOR_NASCIMENTO = 8;      // int[m]
+    static final int AUTOR_MORTE = 9;           // int[m]
+    static final int AUTOR_NOME = 10;           // int[m], índice no dicionário de nomes
+    static final int AUTOR_LIVROS = 11;         // int[m], quantidade de livros
+    static final int IDIOMA_POSICOES = 12;      // int[k + 1], dicionário em ordem alfabética
+    static final int IDIOMA_BYTES = 13;
+    static final int NOME_POSICOES = 14;        // int[q + 1], dicionário em ordem alfabética
+    static final int NOME_BYTES = 15;
+    static final int IDIOMA_INICIO = 16;        // int[k + 1], livros do idioma i: IDIOMA_LIVROS[inicio[i]..inicio[i+1])
+    static final int IDIOMA_LIVROS = 17;        // int[], linhas de livros, em ordem de id
+    static final int SECOES = 18;
+
+    static final int TAMANHO_CABECALHO = 32 + SECOES * 8;
+
+    private FormatoSnapshot() {
+    }
+
+    /**
+     * Fatia da seção no arquivo mapeado (sem cópia), já em little-endian.
+     */
+    static ByteBuffer secao(ByteBuffer arquivo, int secao) throws IOException {
+        int posicao = arquivo.getInt(32 + secao * 8);
+        int tamanho = arquivo.getInt(32 + secao * 8 + 4);
+        if (posicao < TAMANHO_CABECALHO || tamanho < 0 || (long) posicao + tamanho > arquivo.limit()) {
+            throw new IOException("Snapshot corrompido: seção " + secao + " fora do arquivo");
+        }
+        return arquivo.slice(posicao, tamanho).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static int alinhar(int posicao) {
+        return (posicao + 7) & ~7;
+    }
+}
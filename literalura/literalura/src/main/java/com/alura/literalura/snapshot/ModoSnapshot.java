@@ -0,0 +1,86 @@
+package com.alura.literalura.snapshot;
+
+import com.alura.literalura.dto.AutorResumo;
+import com.alura.literalura.dto.LivroResumo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Modo somente leitura ({@code --snapshot=arquivo}): abre o snapshot exportado pela opção 13
+ * do menu e responde às consultas de listagem sem subir o Spring nem conectar ao banco.
+ */
+public final class ModoSnapshot {
+
+    private static final int TAMANHO_PAGINA = 20;
+
+    private ModoSnapshot() {
+    }
+
+    public static void executar(Path arquivo) throws IOException {
+        long inicio = System.nanoTime();
+        SnapshotCatalogo catalogo = SnapshotCatalogo.abrir(arquivo);
+        System.out.printf("Snapshot %s: %d livros, %d autores, %.1f KB (aberto em %.1f ms)%n", arquivo,
+                catalogo.livros(), catalogo.autores(), catalogo.bytes() / 1024.0, (System.nanoTime() - inicio) / 1e6);
+
+        Scanner scanner = new Scanner(System.in);
+        int opcao;
+        do {
+            System.out.println("\n=== MENU (somente leitura) ===");
+            System.out.println("2. Listar livros registrados");
+            System.out.println("4. Listar autores em determinado ano");
+            System.out.println("5. Listar livros em determinado idioma");
+            System.out.println("0. Sair");
+            System.out.print("Escolha uma opção: ");
+
+            opcao = scanner.nextInt();
+            scanner.nextLine();
+
+            switch (opcao) {
+                case 2 -> {
+                    System.out.println("\n-- Livros Registrados --");
+                    listarLivros(scanner, catalogo);
+                }
+                case 4 -> {
+                    System.out.print("Informe o ano: ");
+                    int ano = scanner.nextInt();
+                    List<AutorResumo> vivos = catalogo.autoresVivosEm(ano);
+                    System.out.println("\n-- Autores vivos em " + ano + " --");
+                    vivos.forEach(System.out::println);
+                }
+                case 5 -> {
+                    System.out.print("Informe o idioma (" + String.join(", ", catalogo.idiomas()) + "): ");
+                    String idioma = scanner.nextLine().trim();
+                    List<LivroResumo> porIdioma = catalogo.livrosPorIdioma(idioma);
+                    System.out.println("\n-- Livros em " + idioma + " (" + porIdioma.size() + ") --");
+                    if (porIdioma.isEmpty()) {
+                        System.out.println("Nenhum livro encontrado nesse idioma.");
+                    } else {
+                        porIdioma.forEach(System.out::println);
+                    }
+                }
+                case 0 -> System.out.println("Encerrando aplicação.");
+                default -> System.out.println("Opção indisponível no modo somente leitura.");
+            }
+        } while (opcao != 0);
+        scanner.close();
+    }
+
+    private static void listarLivros(Scanner scanner, SnapshotCatalogo catalogo) {
+        long depoisDe = 0;
+        while (true) {
+            List<LivroResumo> pagina = catalogo.paginaDeLivros(depoisDe, TAMANHO_PAGINA);
+            pagina.forEach(System.out::println);
+            if (pagina.isEmpty()) {
+                if (depoisDe == 0) System.out.println("Nenhum registro encontrado.");
+                return;
+            }
+            if (pagina.size() < TAMANHO_PAGINA) return;
+            depoisDe = pagina.get(pagina.size() - 1).id();
+            System.out.print("Enter para a próxima página, 0 para voltar: ");
+            if (scanner.nextLine().trim().equals("0")) return;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.alura.literalura.snapshot;
+
+import com.alura.literalura.dto.AutorResumo;
+import com.alura.literalura.dto.LivroResumo;
+import com.alura.literalura.search.IndiceVidaAutores;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.alura.literalura.snapshot.FormatoSnapshot.*;
+
+/**
+ * Snapshot do catálogo aberto só para leitura, mapeado em memória: as consultas leem as
+ * colunas direto do arquivo e só montam os {@link LivroResumo}/{@link AutorResumo} que
+ * devolvem, sem banco e sem entidades. Abrir custa um {@code mmap} e a leitura do cabeçalho
+ * (e dos poucos códigos de idioma); o resto só é lido quando uma consulta passa por ele.
+ * <p>
+ * As consultas respondem como as do BookService: listagem por id em páginas, livros de um
+ * idioma e autores vivos num ano, com a mesma estimativa de {@link IndiceVidaAutores} para
+ * anos desconhecidos. Thread-safe (só leituras absolutas).
+ */
+public class SnapshotCatalogo {
+
+    private final Path arquivo;
+    private final long bytes;
+    private final int livros;
+    private final int autores;
+
+    private final LongBuffer livroIds;
+    private final IntBuffer gutenbergIds;
+    private final IntBuffer downloads;
+    private final IntBuffer livroIdiomas;
+    private final IntBuffer livroAutores;
+    private final IntBuffer tituloPosicoes;
+    private final ByteBuffer tituloBytes;
+    private final LongBuffer autorIds;
+    private final IntBuffer nascimentos;
+    private final IntBuffer mortes;
+    private final IntBuffer autorNomes;
+    private final IntBuffer livrosPorAutor;
+    private final IntBuffer nomePosicoes;
+    private final ByteBuffer nomeBytes;
+    private final IntBuffer inicioIdioma;
+    private final IntBuffer linhasPorIdioma;
+    private final String[] idiomas;
+
+    private SnapshotCatalogo(Path arquivo, ByteBuffer mapa) throws IOException {
+        this.arquivo = arquivo;
+        this.bytes = mapa.limit();
+        if (mapa.limit() < TAMANHO_CABECALHO || mapa.getLong(0) != MAGICO) {
+            throw new IOException(arquivo + " não é um snapshot do catálogo");
+        }
+        if (mapa.getInt(8) != VERSAO) {
+            throw new IOException("Versão de snapshot não suportada: " + mapa.getInt(8));
+        }
+        this.livros = mapa.getInt(12);
+        this.autores = mapa.getInt(16);
+        int quantidadeIdiomas = mapa.getInt(20);
+
+        livroIds = secao(mapa, LIVRO_ID).asLongBuffer();
+        gutenbergIds = secao(mapa, LIVRO_GUTENBERG_ID).asIntBuffer();
+        downloads = secao(mapa, LIVRO_DOWNLOADS).asIntBuffer();
+        livroIdiomas = secao(mapa, LIVRO_IDIOMA).asIntBuffer();
+        livroAutores = secao(mapa, LIVRO_AUTOR).asIntBuffer();
+        tituloPosicoes = secao(mapa, LIVRO_TITULO_POSICOES).asIntBuffer();
+        tituloBytes = secao(mapa, LIVRO_TITULO_BYTES);
+        autorIds = secao(mapa, AUTOR_ID).asLongBuffer();
+        nascimentos = secao(mapa, AUTOR_NASCIMENTO).asIntBuffer();
+        mortes = secao(mapa, AUTOR_MORTE).asIntBuffer();
+        autorNomes = secao(mapa, AUTOR_NOME).asIntBuffer();
+        livrosPorAutor = secao(mapa, AUTOR_LIVROS).asIntBuffer();
+        nomePosicoes = secao(mapa, NOME_POSICOES).asIntBuffer();
+        nomeBytes = secao(mapa, NOME_BYTES);
+        inicioIdioma = secao(mapa, IDIOMA_INICIO).asIntBuffer();
+        linhasPorIdioma = secao(mapa, IDIOMA_LIVROS).asIntBuffer();
+        if (livroIds.limit() != livros || autorIds.limit() != autores || inicioIdioma.limit() != quantidadeIdiomas + 1) {
+            throw new IOException("Snapshot corrompido: colunas com tamanhos diferentes do cabeçalho");
+        }
+
+        // o dicionário de idiomas é pequeno (dezenas de códigos): decodificado uma vez
+        IntBuffer idiomaPosicoes = secao(mapa, IDIOMA_POSICOES).asIntBuffer();
+        ByteBuffer idiomaBytes = secao(mapa, IDIOMA_BYTES);
+        idiomas = new String[quantidadeIdiomas];
+        for (int i = 0; i < quantidadeIdiomas; i++) idiomas[i] = texto(idiomaPosicoes, idiomaBytes, i);
+    }
+
+    public static SnapshotCatalogo abrir(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) throw new IOException("Snapshot grande demais: " + arquivo);
+            // o mapeamento continua válido depois de fechar o canal
+            ByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()).order(ByteOrder.LITTLE_ENDIAN);
+            return new SnapshotCatalogo(arquivo, mapa);
+        }
+    }
+
+    public Path arquivo() { return arquivo; }
+
+    public long bytes() { return bytes; }
+
+    public int livros() { return livros; }
+
+    public int autores() { return autores; }
+
+    public List<String> idiomas() {
+        return List.of(idiomas);
+    }
+
+    /**
+     * Próxima página de livros em ordem de id, depois de {@code depoisDe} (0 para a
+     * primeira), como {@code BookService.paginaDeLivros}. Página menor que {@code tamanho}
+     * é a última.
+     */
+    public List<LivroResumo> paginaDeLivros(long depoisDe, int tamanho) {
+        int inicio = primeiraLinhaDepoisDe(depoisDe);
+        int fim = (int) Math.min(livros, (long) inicio + tamanho);
+        List<LivroResumo> pagina = new ArrayList<>(Math.max(0, fim - inicio));
+        for (int i = inicio; i < fim; i++) pagina.add(livro(i));
+        return pagina;
+    }
+
+    public List<LivroResumo> livrosPorIdioma(String idioma) {
+        int i = Arrays.binarySearch(idiomas, idioma.toLowerCase());
+        if (i < 0) return List.of();
+        int de = inicioIdioma.get(i);
+        int ate = inicioIdioma.get(i + 1);
+        List<LivroResumo> resultado = new ArrayList<>(ate - de);
+        for (int k = de; k < ate; k++) resultado.add(livro(linhasPorIdioma.get(k)));
+        return resultado;
+    }
+
+    public int quantidadeLivrosPorIdioma(String idioma) {
+        int i = Arrays.binarySearch(idiomas, idioma.toLowerCase());
+        return i < 0 ? 0 : inicioIdioma.get(i + 1) - inicioIdioma.get(i);
+    }
+
+    /**
+     * Autores vivos no ano, em ordem de nome. A varredura é sobre as duas colunas de anos
+     * ({@code int}), sem montar nada para quem não está vivo.
+     */
+    public List<AutorResumo> autoresVivosEm(int ano) {
+        List<AutorResumo> vivos = new ArrayList<>();
+        for (int i = 0; i < autores; i++) {
+            int nascimento = nascimentos.get(i);
+            int morte = mortes.get(i);
+            if (nascimento == NULO && morte == NULO) continue;
+            int inicio = nascimento != NULO ? nascimento : morte - IndiceVidaAutores.LONGEVIDADE_PADRAO;
+            int fim = morte != NULO ? morte : nascimento + IndiceVidaAutores.LONGEVIDADE_PADRAO;
+            if (inicio <= ano && ano <= fim) vivos.add(autor(i));
+        }
+        vivos.sort(Comparator.comparing(AutorResumo::name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+        return vivos;
+    }
+
+    private LivroResumo livro(int i) {
+        int idioma = livroIdiomas.get(i);
+        int autor = livroAutores.get(i);
+        return new LivroResumo(livroIds.get(i), nuloOu(gutenbergIds.get(i)), texto(tituloPosicoes, tituloBytes, i),
+                idioma >= 0 ? idiomas[idioma] : null, nuloOu(downloads.get(i)), autor >= 0 ? nomeDoAutor(autor) : null);
+    }
+
+    private AutorResumo autor(int i) {
+        return new AutorResumo(autorIds.get(i), nomeDoAutor(i), nuloOu(nascimentos.get(i)), nuloOu(mortes.get(i)),
+                livrosPorAutor.get(i));
+    }
+
+    private String nomeDoAutor(int autor) {
+        int nome = autorNomes.get(autor);
+        return nome >= 0 ? texto(nomePosicoes, nomeBytes, nome) : null;
+    }
+
+    // busca binária na coluna de ids: primeira linha com id > depoisDe
+    private int primeiraLinhaDepoisDe(long depoisDe) {
+        int baixo = 0;
+        int alto = livros;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (livroIds.get(meio) <= depoisDe) baixo = meio + 1;
+            else alto = meio;
+        }
+        return baixo;
+    }
+
+    private static String texto(IntBuffer posicoes, ByteBuffer bytes, int i) {
+        int de = posicoes.get(i);
+        byte[] utf8 = new byte[posicoes.get(i + 1) - de];
+        bytes.get(de, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static Integer nuloOu(int valor) {
+        return valor == NULO ? null : valor;
+    }
+}
@@ -0,0 +1,265 @@
+package com.alura.literalura.stats;
+
+import com.alura.literalura.dto.LivroResumo;
+import com.alura.literalura.model.Livro;
+import com.alura.literalura.repository.LivroRepository;
+import com.alura.literalura.service.DownloadsAtualizadosEvent;
+import com.alura.literalura.service.LivrosPersistidosEvent;
+import com.alura.literalura.util.CargaSobDemanda;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Estatísticas do catálogo mantidas em memória e atualizadas a cada gravação, para não
+ * depender de {@code GROUP BY} sobre as tabelas inteiras.
+ * <p>
+ * Cada livro é guardado uma vez (por id; um upsert do mesmo livro substitui a entrada
+ * anterior, desfazendo a contribuição dela). Por idioma há um conjunto ordenado por
+ * downloads, que dá a contagem e os mais baixados; por autor, a quantidade de livros, num
+ * ranking também ordenado. Soma e percentis de downloads vêm de um
+ * {@link HistogramaDownloads}. Atualizar custa O(log n); as consultas não dependem do
+ * tamanho do catálogo (só de N e do número de idiomas).
+ */
+@Component
+public class EstatisticasCatalogo {
+
+    // mais baixados primeiro; livros sem downloads no fim; id desempata
+    private static final Comparator<Registro> POR_DOWNLOADS = Comparator
+            .comparingInt((Registro r) -> r.livro().downloads() != null ? r.livro().downloads() : -1).reversed()
+            .thenComparingLong(r -> r.livro().id());
+
+    private static final Comparator<LivrosDoAutor> POR_LIVROS = Comparator
+            .comparingInt(LivrosDoAutor::livros).reversed()
+            .thenComparingLong(LivrosDoAutor::autorId);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CargaSobDemanda carga;
+
+    private final Map<Long, Registro> porLivro = new HashMap<>();
+    private final Map<Integer, Long> livroPorGutenbergId = new HashMap<>();
+    private final Map<String, TreeSet<Registro>> porIdioma = new HashMap<>();
+    private final Map<Long, LivrosDoAutor> porAutor = new HashMap<>();
+    private final TreeSet<LivrosDoAutor> rankingAutores = new TreeSet<>(POR_LIVROS);
+    private final HistogramaDownloads histograma = new HistogramaDownloads();
+    private long somaDownloads;
+
+    public EstatisticasCatalogo(LivroRepository livroRepo) {
+        this(livroRepo, false);
+    }
+
+    @Autowired
+    public EstatisticasCatalogo(LivroRepository livroRepo, @Value("${literalura.indices.sob-demanda:false}") boolean sobDemanda) {
+        this.carga = new CargaSobDemanda(lock, () -> livroRepo.findLivrosEstatisticos(), this::reconstruir,
+                sobDemanda);
+    }
+
+    private record Registro(LivroResumo livro, Long autorId) {
+    }
+
+    /**
+     * Quantidade de livros de um autor.
+     */
+    public record LivrosDoAutor(long autorId, String nome, int livros) {
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d livro(s)", nome, livros);
+        }
+    }
+
+    /**
+     * Visão geral: totais, livros por idioma (do mais frequente ao menos) e distribuição
+     * dos downloads (percentis aproximados, máximo exato).
+     */
+    public record Resumo(long livros, int autores, Map<String, Integer> livrosPorIdioma,
+                         long livrosComDownloads, long somaDownloads, double mediaDownloads,
+                         int p50, int p90, int p99, int maxDownloads) {
+    }
+
+    @EventListener(value = ContextRefreshedEvent.class, condition = CargaSobDemanda.NA_SUBIDA)
+    public void aoSubir() {
+        carga.executar();
+    }
+
+    private void reconstruir(List<LivroRepository.LivroEstatistico> livros) {
+        porLivro.clear();
+        livroPorGutenbergId.clear();
+        porIdioma.clear();
+        porAutor.clear();
+        rankingAutores.clear();
+        histograma.limpar();
+        somaDownloads = 0;
+        for (LivroRepository.LivroEstatistico l : livros) {
+            registrarSemLock(new LivroResumo(l.getId(), l.getGutenbergId(), l.getTitulo(), l.getIdioma(),
+                    l.getDownloads(), l.getAutor()), l.getAutorId());
+        }
+    }
+
+    @EventListener
+    public void aoPersistir(LivrosPersistidosEvent evento) {
+        carga.aplicar(() -> {
+            for (Livro livro : evento.livros()) {
+                if (livro.getId() == null) continue;
+                registrarSemLock(new LivroResumo(livro.getId(), livro.getGutenbergId(), livro.getTitulo(),
+                                livro.getIdioma(), livro.getDownloads(),
+                                livro.getAutor() != null ? livro.getAutor().getName() : null),
+                        livro.getAutor() != null ? livro.getAutor().getId() : null);
+            }
+        });
+    }
+
+    @EventListener
+    public void aoAtualizarDownloads(DownloadsAtualizadosEvent evento) {
+        carga.aplicar(() -> {
+            for (int[] par : evento.novosValores()) {
+                Long livroId = livroPorGutenbergId.get(par[0]);
+                Registro atual = livroId != null ? porLivro.get(livroId) : null;
+                if (atual == null) continue;
+                LivroResumo l = atual.livro();
+                registrarSemLock(new LivroResumo(l.id(), l.gutenbergId(), l.titulo(), l.idioma(), par[1], l.autor()),
+                        atual.autorId());
+            }
+        });
+    }
+
+    public void registrar(LivroResumo livro, Long autorId) {
+        carga.aplicar(() -> registrarSemLock(livro, autorId));
+    }
+
+    public Resumo resumo() {
+        carga.garantir();
+        lock.readLock().lock();
+        try {
+            List<Map.Entry<String, TreeSet<Registro>>> idiomas = new ArrayList<>(porIdioma.entrySet());
+            idiomas.sort(Comparator.comparingInt((Map.Entry<String, TreeSet<Registro>> e) -> e.getValue().size())
+                    .reversed().thenComparing(Map.Entry::getKey));
+            Map<String, Integer> livrosPorIdioma = new LinkedHashMap<>();
+            int max = 0;
+            for (Map.Entry<String, TreeSet<Registro>> e : idiomas) {
+                livrosPorIdioma.put(e.getKey(), e.getValue().size());
+                Integer maisBaixado = e.getValue().first().livro().downloads();
+                if (maisBaixado != null) max = Math.max(max, maisBaixado);
+            }
+            long comDownloads = histograma.total();
+            return new Resumo(porLivro.size(), porAutor.size(), livrosPorIdioma, comDownloads, somaDownloads,
+                    comDownloads > 0 ? (double) somaDownloads / comDownloads : 0,
+                    histograma.percentil(0.50), histograma.percentil(0.90), histograma.percentil(0.99), max);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int quantidadePorIdioma(String idioma) {
+        carga.garantir();
+        lock.readLock().lock();
+        try {
+            TreeSet<Registro> doIdioma = porIdioma.get(idioma);
+            return doIdioma != null ? doIdioma.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Os {@code n} livros mais baixados no idioma.
+     */
+    public List<LivroResumo> maisBaixados(String idioma, int n) {
+        carga.garantir();
+        lock.readLock().lock();
+        try {
+            TreeSet<Registro> doIdioma = porIdioma.get(idioma);
+            if (doIdioma == null) return List.of();
+            List<LivroResumo> livros = new ArrayList<>(Math.min(n, doIdioma.size()));
+            for (Iterator<Registro> it = doIdioma.iterator(); it.hasNext() && livros.size() < n; ) {
+                livros.add(it.next().livro());
+            }
+            return livros;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int livrosDoAutor(long autorId) {
+        carga.garantir();
+        lock.readLock().lock();
+        try {
+            LivrosDoAutor contagem = porAutor.get(autorId);
+            return contagem != null ? contagem.livros() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Os {@code n} autores com mais livros no catálogo.
+     */
+    public List<LivrosDoAutor> autoresComMaisLivros(int n) {
+        carga.garantir();
+        lock.readLock().lock();
+        try {
+            List<LivrosDoAutor> autores = new ArrayList<>(Math.min(n, rankingAutores.size()));
+            for (Iterator<LivrosDoAutor> it = rankingAutores.iterator(); it.hasNext() && autores.size() < n; ) {
+                autores.add(it.next());
+            }
+            return autores;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void registrarSemLock(LivroResumo livro, Long autorId) {
+        Registro anterior = porLivro.remove(livro.id());
+        if (anterior != null) remover(anterior);
+
+        Registro novo = new Registro(livro, autorId);
+        porLivro.put(livro.id(), novo);
+        if (livro.gutenbergId() != null) livroPorGutenbergId.put(livro.gutenbergId(), livro.id());
+        porIdioma.computeIfAbsent(chaveIdioma(livro.idioma()), k -> new TreeSet<>(POR_DOWNLOADS)).add(novo);
+        if (autorId != null) somarAutor(autorId, livro.autor(), 1);
+        if (livro.downloads() != null) {
+            histograma.adicionar(livro.downloads());
+            somaDownloads += livro.downloads();
+        }
+    }
+
+    private void remover(Registro registro) {
+        LivroResumo livro = registro.livro();
+        if (livro.gutenbergId() != null) livroPorGutenbergId.remove(livro.gutenbergId());
+        String idioma = chaveIdioma(livro.idioma());
+        TreeSet<Registro> doIdioma = porIdioma.get(idioma);
+        doIdioma.remove(registro);
+        if (doIdioma.isEmpty()) porIdioma.remove(idioma);
+        if (registro.autorId() != null) somarAutor(registro.autorId(), livro.autor(), -1);
+        if (livro.downloads() != null) {
+            histograma.remover(livro.downloads());
+            somaDownloads -= livro.downloads();
+        }
+    }
+
+    private void somarAutor(long autorId, String nome, int delta) {
+        LivrosDoAutor atual = porAutor.remove(autorId);
+        if (atual != null) rankingAutores.remove(atual);
+        int livros = (atual != null ? atual.livros() : 0) + delta;
+        if (livros <= 0) return;
+        LivrosDoAutor novo = new LivrosDoAutor(autorId, nome != null ? nome : atual != null ? atual.nome() : null, livros);
+        porAutor.put(autorId, novo);
+        rankingAutores.add(novo);
+    }
+
+    private static String chaveIdioma(String idioma) {
+        return idioma != null ? idioma : "?";
+    }
+}
@@ -0,0 +1,71 @@
+package com.alura.literalura.stats;
+
+import java.util.Arrays;
+
+/**
+ * Histograma de downloads em baldes logarítmicos, que aceita remoções.
+ * <p>
+ * Valores até {@value #EXATOS} têm balde próprio; acima disso cada potência de 2 é
+ * dividida em {@value #SUBBALDES} baldes, então um percentil sai com erro relativo de
+ * no máximo ~3% e o custo de consulta não depende do tamanho do catálogo.
+ */
+class HistogramaDownloads {
+
+    static final int EXATOS = 64;
+    static final int SUBBALDES = 32;
+    private static final int BITS_SUBBALDE = 5;                       // log2(SUBBALDES)
+    private static final int PRIMEIRO_EXPOENTE = 6;                   // log2(EXATOS)
+
+    private final long[] contagens = new long[EXATOS + (31 - PRIMEIRO_EXPOENTE) * SUBBALDES];
+    private long total;
+
+    void adicionar(int downloads) {
+        contagens[balde(downloads)]++;
+        total++;
+    }
+
+    void remover(int downloads) {
+        contagens[balde(downloads)]--;
+        total--;
+    }
+
+    long total() {
+        return total;
+    }
+
+    /**
+     * Valor aproximado abaixo do qual está a fração {@code q} dos livros (0 sem dados).
+     */
+    int percentil(double q) {
+        if (total == 0) return 0;
+        long posicao = Math.max(1, (long) Math.ceil(q * total));
+        long acumulado = 0;
+        for (int b = 0; b < contagens.length; b++) {
+            acumulado += contagens[b];
+            if (acumulado >= posicao) return valorRepresentativo(b);
+        }
+        return valorRepresentativo(contagens.length - 1);
+    }
+
+    void limpar() {
+        Arrays.fill(contagens, 0);
+        total = 0;
+    }
+
+    static int balde(int valor) {
+        if (valor < EXATOS) return Math.max(0, valor);
+        int expoente = 31 - Integer.numberOfLeadingZeros(valor);
+        int sub = (valor >>> (expoente - BITS_SUBBALDE)) & (SUBBALDES - 1);
+        return EXATOS + (expoente - PRIMEIRO_EXPOENTE) * SUBBALDES + sub;
+    }
+
+    // ponto médio do balde
+    static int valorRepresentativo(int balde) {
+        if (balde < EXATOS) return balde;
+        int expoente = (balde - EXATOS) / SUBBALDES + PRIMEIRO_EXPOENTE;
+        int sub = (balde - EXATOS) % SUBBALDES;
+        long inicio = (long) (SUBBALDES + sub) << (expoente - BITS_SUBBALDE);
+        long largura = 1L << (expoente - BITS_SUBBALDE);
+        return (int) Math.min(Integer.MAX_VALUE, inicio + largura / 2);
+    }
+}
@@ -0,0 +1,105 @@
+package com.alura.literalura.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Carga de uma estrutura em memória a partir do banco: normalmente na subida do contexto;
+ * com {@code literalura.indices.sob-demanda=true}, só na primeira consulta que precisar dela
+ * (execuções curtas, como o modo em lote, não pagam pelo que não usam).
+ * <p>
+ * A consulta roda fora do lock da estrutura, para não travar as leituras, e a reconstrução
+ * depois, sob o lock de escrita. Uma gravação confirmada depois de a consulta começar pode
+ * não estar no que ela leu: por isso as alterações incrementais passam por
+ * {@link #aplicar}, que as executa na hora e, com uma carga em andamento, as guarda para
+ * repetir logo depois da reconstrução, ainda sob o mesmo lock. Repetir uma alteração que a
+ * consulta já tinha visto não muda o resultado.
+ */
+public final class CargaSobDemanda {
+
+    /**
+     * Condição para o {@code @EventListener(ContextRefreshedEvent.class)} que faz a carga na
+     * subida: com a carga sob demanda o evento nem chega ao bean, que assim não é criado (nem
+     * o repositório dele) antes do menu.
+     */
+    public static final String NA_SUBIDA = "@environment.getProperty('literalura.indices.sob-demanda') != 'true'";
+
+    private final ReentrantReadWriteLock lock;
+    private final Runnable carga;
+    private final boolean sobDemanda;
+    private volatile boolean feita;
+    // alterações aplicadas enquanto a consulta da carga roda; null fora da carga
+    private List<Runnable> duranteACarga;
+
+    /**
+     * @param lock         lock da estrutura carregada
+     * @param consulta     leitura do banco, feita fora do lock
+     * @param reconstrucao limpa e refaz a estrutura com o que foi lido; roda sob o lock de escrita
+     */
+    public <T> CargaSobDemanda(ReentrantReadWriteLock lock, Supplier<T> consulta, Consumer<T> reconstrucao,
+                               boolean sobDemanda) {
+        this.lock = lock;
+        this.carga = () -> carregar(consulta, reconstrucao);
+        this.sobDemanda = sobDemanda;
+    }
+
+    public synchronized void executar() {
+        carga.run();
+        feita = true;
+    }
+
+    /**
+     * Chamado antes de cada consulta: carrega na primeira vez, se a carga for sob demanda.
+     */
+    public void garantir() {
+        if (!sobDemanda || feita) return;
+        synchronized (this) {
+            if (!feita) executar();
+        }
+    }
+
+    /**
+     * Executa a alteração sob o lock de escrita e, se houver uma carga em andamento, guarda-a
+     * para repetir depois da reconstrução.
+     */
+    public void aplicar(Runnable alteracao) {
+        lock.writeLock().lock();
+        try {
+            alteracao.run();
+            if (duranteACarga != null) duranteACarga.add(alteracao);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> void carregar(Supplier<T> consulta, Consumer<T> reconstrucao) {
+        definirDuranteACarga(new ArrayList<>());
+        T dados;
+        try {
+            dados = consulta.get();
+        } catch (RuntimeException e) {
+            definirDuranteACarga(null);
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            reconstrucao.accept(dados);
+            duranteACarga.forEach(Runnable::run);
+        } finally {
+            duranteACarga = null;
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void definirDuranteACarga(List<Runnable> alteracoes) {
+        lock.writeLock().lock();
+        try {
+            duranteACarga = alteracoes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.alura.literalura.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public final class TextNormalizer {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}");
+    private static final String[] VAZIO = new String[0];
+
+    private TextNormalizer() {}
+
+    /**
+     * Normaliza strings (remove acentos e coloca em minúsculas) para busca tolerante.
+     * Textos só com ASCII (a maioria dos títulos) não passam pelo Normalizer nem por regex.
+     */
+    public static String normalize(String s) {
+        if (s == null) return "";
+        String ascii = normalizeAscii(s);
+        if (ascii != null) return ascii;
+        String n = Normalizer.normalize(s, Normalizer.Form.NFD);
+        return MARCAS.matcher(n).replaceAll("").toLowerCase().trim();
+    }
+
+    /**
+     * Caminho rápido: minúsculas + trim numa única cópia. Devolve null se houver
+     * algum caractere fora do ASCII, caso em que vale o caminho completo.
+     */
+    private static String normalizeAscii(String s) {
+        int inicio = 0;
+        int fim = s.length();
+        boolean temMaiuscula = false;
+        for (int i = 0; i < fim; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) return null;
+            if (c >= 'A' && c <= 'Z') temMaiuscula = true;
+        }
+        while (inicio < fim && s.charAt(inicio) <= ' ') inicio++;
+        while (fim > inicio && s.charAt(fim - 1) <= ' ') fim--;
+        if (!temMaiuscula) return s.substring(inicio, fim);
+
+        char[] saida = new char[fim - inicio];
+        for (int i = inicio; i < fim; i++) {
+            char c = s.charAt(i);
+            saida[i - inicio] = (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+        }
+        return new String(saida);
+    }
+
+    /**
+     * Quebra o texto em palavras normalizadas (letras e dígitos), descartando pontuação.
+     */
+    public static String[] tokenize(String s) {
+        return tokenizeNormalized(normalize(s));
+    }
+
+    /**
+     * Igual a {@link #tokenize}, para um texto que já passou por {@link #normalize}.
+     */
+    public static String[] tokenizeNormalized(String n) {
+        if (n.isEmpty()) return VAZIO;
+        List<String> palavras = new ArrayList<>();
+        int inicio = -1;
+        for (int i = 0; i <= n.length(); i++) {
+            boolean letra = i < n.length() && Character.isLetterOrDigit(n.charAt(i));
+            if (letra && inicio < 0) {
+                inicio = i;
+            } else if (!letra && inicio >= 0) {
+                palavras.add(n.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+        return palavras.toArray(VAZIO);
+    }
+}
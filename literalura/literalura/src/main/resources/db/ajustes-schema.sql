@@ -0,0 +1,38 @@
+-- Ajustes executados a cada inicialização, depois que o Hibernate (ddl-auto=update)
+-- criou/atualizou as tabelas. Todos os comandos são idempotentes.
+
+-- Migração de IDENTITY para sequence: tabelas antigas (bigserial/identity) perdem
+-- o default e passam a receber ids vindos de livros_seq/autores_seq. DROP IDENTITY vem
+-- antes: numa coluna identity o DROP DEFAULT falha ("use DROP IDENTITY").
+ALTER TABLE autores ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE autores ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE livros ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE livros ALTER COLUMN id DROP DEFAULT;
+
+-- Garante que as sequences comecem depois dos ids já existentes
+-- (o incremento de 50 acompanha o allocationSize das entidades).
+SELECT setval('autores_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM autores) + 50, (SELECT last_value FROM autores_seq)));
+SELECT setval('livros_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM livros) + 50, (SELECT last_value FROM livros_seq)));
+
+-- Autores gravados antes da chave natural (ver Autor.chaveNatural) ficaram com chave NULL e não
+-- seriam encontrados pelo ON CONFLICT (chave) do upsert. Mesma regra do Java: sem acentos (as
+-- letras latinas acentuadas; outras marcas são raras nos nomes da Gutendex), minúsculas, espaços
+-- colapsados, '|' e o ano de nascimento. Autores repetidos de antes da chave: só o de menor id
+-- recebe a chave, os demais continuam sem ela (e com os seus livros).
+WITH calculada AS (
+    SELECT id, chave, row_number() OVER (PARTITION BY chave ORDER BY id) AS ordem
+    FROM (
+        SELECT id,
+               regexp_replace(lower(btrim(translate(COALESCE(name, ''),
+                   'ÀÁÂÃÄÅÇÈÉÊËÌÍÎÏÑÒÓÔÕÖÙÚÛÜÝàáâãäåçèéêëìíîïñòóôõöùúûüýÿĀāĂăĄąĆćĈĉĊċČčĎďĒēĔĕĖėĘęĚěĜĝĞğĠġĢģĤĥĨĩĪīĬĭĮįİĴĵĶķĹĺĻļĽľŃńŅņŇňŌōŎŏŐőŔŕŖŗŘřŚśŜŝŞşŠšŢţŤťŨũŪūŬŭŮůŰűŲųŴŵŶŷŸŹźŻżŽžƠơƯưǍǎǏǐǑǒǓǔǕǖǗǘǙǚǛǜǞǟǠǡǢǣǦǧǨǩǪǫǬǭǮǯǰǴǵǸǹǺǻǼǽǾǿȀȁȂȃȄȅȆȇȈȉȊȋȌȍȎȏȐȑȒȓȔȕȖȗȘșȚțȞȟȦȧȨȩȪȫȬȭȮȯȰȱȲȳ',
+                   'AAAAAACEEEEIIIINOOOOOUUUUYaaaaaaceeeeiiiinooooouuuuyyAaAaAaCcCcCcCcDdEeEeEeEeEeGgGgGgGgHhIiIiIiIiIJjKkLlLlLlNnNnNnOoOoOoRrRrRrSsSsSsSsTtTtUuUuUuUuUuUuWwYyYZzZzZzOoUuAaIiOoUuUuUuUuUuAaAaÆæGgKkOoOoƷʒjGgNnAaÆæØøAaAaEeEeIiIiOoOoRrRrUuUuSsTtHhAaEeOoOoOoOoYy'),
+                   E' \t\n\r\f\v')), '\s+', ' ', 'g') || '|' || COALESCE(birth_year::text, '') AS chave
+        FROM autores
+        WHERE chave IS NULL
+    ) sem_chave
+)
+UPDATE autores SET chave = calculada.chave
+FROM calculada
+WHERE autores.id = calculada.id
+  AND calculada.ordem = 1
+  AND NOT EXISTS (SELECT 1 FROM autores outro WHERE outro.chave = calculada.chave);
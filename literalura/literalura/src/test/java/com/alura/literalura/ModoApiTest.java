@@ -0,0 +1,37 @@
+package com.alura.literalura;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModoApiTest {
+
+	@Test
+	void reconheceAsFormasDeLigarAApi() {
+		assertTrue(modoApi("--modo=api"));
+		assertTrue(modoApi("--modo", "api"));
+		assertTrue(LiteraluraApplication.modoApi(new MockEnvironment().withProperty("literalura.modo", "api"),
+				new DefaultApplicationArguments()));
+		assertTrue(LiteraluraApplication.modoApi(new MockEnvironment().withProperty("modo", "API"),
+				new DefaultApplicationArguments()));
+	}
+
+	@Test
+	void semModoOuComOutroModoFicaSemServidor() {
+		assertFalse(modoApi());
+		assertFalse(modoApi("--modo=menu"));
+		assertFalse(modoApi("--modo"));
+		assertFalse(modoApi("--lote=titulos.txt"));
+	}
+
+	private static boolean modoApi(String... args) {
+		StandardEnvironment ambiente = new StandardEnvironment();
+		ambiente.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+		return LiteraluraApplication.modoApi(ambiente, new DefaultApplicationArguments(args));
+	}
+}
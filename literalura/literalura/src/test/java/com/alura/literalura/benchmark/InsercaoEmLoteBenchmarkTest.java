@@ -0,0 +1,100 @@
+package com.alura.literalura.benchmark;
+
+import com.alura.literalura.model.Autor;
+import com.alura.literalura.model.Livro;
+import com.alura.literalura.repository.AutorRepository;
+import com.alura.literalura.repository.LivroRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mede linhas/s na inserção de pares Livro+Autor sintéticos contra o PostgreSQL
+ * configurado. Compara a gravação linha a linha com a gravação em lote (sequence
+ * pooled + jdbc.batch_size).
+ *
+ * O caso linha a linha é uma simulação do IDENTITY antigo: as entidades já usam
+ * sequence, e o que se reproduz é só o flush por registro que o IDENTITY obrigava.
+ * Os números servem de ordem de grandeza, não de medida do mapeamento antigo.
+ *
+ * Executar com: mvn test -Dtest=InsercaoEmLoteBenchmarkTest -Dbenchmark.insercao=true
+ * Tamanhos: -Dbenchmark.tamanhos=10000,100000 (padrão; tamanhos maiores só se pedidos)
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "literalura.menu.ativo=false"})
+@EnabledIfSystemProperty(named = "benchmark.insercao", matches = "true")
+class InsercaoEmLoteBenchmarkTest {
+
+    private static final String PREFIXO = "bench-insercao-";
+    private static final int LIVROS_POR_TRANSACAO = 5_000;
+
+    @Autowired private AutorRepository autorRepo;
+    @Autowired private LivroRepository livroRepo;
+    @Autowired private EntityManager em;
+    @Autowired private TransactionTemplate tx;
+
+    @Test
+    void compararInsercaoLinhaALinhaComLote() {
+        String[] tamanhos = System.getProperty("benchmark.tamanhos", "10000,100000").split(",");
+        System.out.printf("%-10s %18s %18s%n", "linhas", "simulado 1 a 1/s", "em lote/s");
+        for (String t : tamanhos) {
+            int n = Integer.parseInt(t.trim());
+            double linhaALinha = medir(n, false);
+            double emLote = medir(n, true);
+            System.out.printf("%-10d %18.0f %18.0f%n", n, linhaALinha, emLote);
+        }
+    }
+
+    /**
+     * Insere n pares Livro+Autor e devolve linhas/s (cada par conta como duas linhas).
+     */
+    private double medir(int n, boolean emLote) {
+        long inicio = System.nanoTime();
+        for (int base = 0; base < n; base += LIVROS_POR_TRANSACAO) {
+            int fim = Math.min(n, base + LIVROS_POR_TRANSACAO);
+            int de = base;
+            tx.executeWithoutResult(status -> {
+                List<Autor> autores = new ArrayList<>(fim - de);
+                List<Livro> livros = new ArrayList<>(fim - de);
+                for (int i = de; i < fim; i++) {
+                    Autor autor = new Autor(PREFIXO + i, 1800 + i % 200, 1860 + i % 200);
+                    Livro livro = new Livro();
+                    livro.setTitulo(PREFIXO + i);
+                    livro.setIdioma(i % 3 == 0 ? "pt" : "en");
+                    livro.setDownloads(i);
+                    livro.setAutor(autor);
+                    if (emLote) {
+                        autores.add(autor);
+                        livros.add(livro);
+                    } else {
+                        autorRepo.save(autor);
+                        livroRepo.save(livro);
+                        em.flush();
+                        em.clear();
+                    }
+                }
+                if (emLote) {
+                    autorRepo.saveAll(autores);
+                    livroRepo.saveAll(livros);
+                    em.flush();
+                }
+                em.clear();
+            });
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        limpar();
+        return (2.0 * n) / segundos;
+    }
+
+    private void limpar() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Livro l where l.titulo like :p").setParameter("p", PREFIXO + "%").executeUpdate();
+            em.createQuery("delete from Autor a where a.name like :p").setParameter("p", PREFIXO + "%").executeUpdate();
+        });
+    }
+}
@@ -0,0 +1,89 @@
+package com.alura.literalura.cache;
+
+import com.alura.literalura.dto.GutenbergBook;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GutendexCacheTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void repeteConsultaSemChamarCarregadorEReaproveitaDiscoAposReinicio() throws Exception {
+        AtomicInteger chamadas = new AtomicInteger();
+        GutendexCache cache = new GutendexCache(new ObjectMapper(), 100, Duration.ofHours(1), diretorio.toString());
+
+        GutenbergBook primeiro = cache.obterAsync("livro:1342", GutenbergBook.class, () -> livro(chamadas)).join();
+        GutenbergBook segundo = cache.obterAsync("livro:1342", GutenbergBook.class, () -> livro(chamadas)).join();
+
+        assertEquals(1, chamadas.get());
+        assertEquals(primeiro.getTitle(), segundo.getTitle());
+        assertEquals(1, cache.estatisticas().acertos());
+        assertEquals(1, cache.estatisticas().faltas());
+
+        // nova instância (como após reiniciar a aplicação) encontra o valor em disco
+        GutendexCache reiniciado = new GutendexCache(new ObjectMapper(), 100, Duration.ofHours(1), diretorio.toString());
+        GutenbergBook doDisco = reiniciado.obterAsync("livro:1342", GutenbergBook.class, () -> livro(chamadas)).join();
+
+        assertEquals(1, chamadas.get());
+        assertEquals("Pride and Prejudice", doDisco.getTitle());
+        assertEquals(1, reiniciado.estatisticas().acertosDisco());
+    }
+
+    @Test
+    void naoGuardaResultadoNulo() throws Exception {
+        AtomicInteger chamadas = new AtomicInteger();
+        GutendexCache cache = new GutendexCache(new ObjectMapper(), 100, Duration.ofHours(1), "");
+
+        cache.obterAsync("livro:0", GutenbergBook.class, () -> {
+            chamadas.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }).join();
+        cache.obterAsync("livro:0", GutenbergBook.class, () -> {
+            chamadas.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }).join();
+
+        assertEquals(2, chamadas.get());
+    }
+
+    @Test
+    void faltasSimultaneasDaMesmaChaveFazemUmaSoChamada() throws Exception {
+        AtomicInteger chamadas = new AtomicInteger();
+        CompletableFuture<GutenbergBook> resposta = new CompletableFuture<>();
+        GutendexCache cache = new GutendexCache(new ObjectMapper(), 100, Duration.ofHours(1), "");
+
+        CompletableFuture<GutenbergBook> primeiro = cache.obterAsync("livro:1342", GutenbergBook.class, () -> {
+            chamadas.incrementAndGet();
+            return resposta;
+        });
+        CompletableFuture<GutenbergBook> segundo = cache.obterAsync("livro:1342", GutenbergBook.class, () -> livro(chamadas));
+        // quem desiste não derruba o carregamento dos demais
+        CompletableFuture<GutenbergBook> cancelado = cache.obterAsync("livro:1342", GutenbergBook.class, () -> livro(chamadas));
+        cancelado.cancel(true);
+
+        livro(new AtomicInteger()).thenAccept(resposta::complete);
+
+        assertEquals("Pride and Prejudice", primeiro.join().getTitle());
+        assertEquals("Pride and Prejudice", segundo.join().getTitle());
+        assertEquals(1, chamadas.get());
+        assertEquals(2, cache.estatisticas().coalescidas());
+    }
+
+    private static CompletableFuture<GutenbergBook> livro(AtomicInteger chamadas) {
+        chamadas.incrementAndGet();
+        GutenbergBook book = new GutenbergBook();
+        book.setId(1342);
+        book.setTitle("Pride and Prejudice");
+        return CompletableFuture.completedFuture(book);
+    }
+}
@@ -0,0 +1,71 @@
+package com.alura.literalura.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DisjuntorTest {
+
+    @Test
+    void abreAposFalhasSeguidasELiberaUmTesteDepoisDoTempo() throws Exception {
+        List<Disjuntor.Estado> transicoes = new ArrayList<>();
+        Disjuntor disjuntor = new Disjuntor(3, TimeUnit.MILLISECONDS.toNanos(50), transicoes::add);
+
+        disjuntor.falha();
+        disjuntor.sucesso();   // resposta do servidor zera a conta
+        disjuntor.falha();
+        disjuntor.falha();
+        assertEquals(Disjuntor.Estado.FECHADO, disjuntor.estado());
+        disjuntor.falha();
+        assertEquals(Disjuntor.Estado.ABERTO, disjuntor.estado());
+
+        assertFalse(disjuntor.permitir());
+        assertFalse(disjuntor.disponivel());
+        assertEquals(1, disjuntor.recusadas());
+
+        Thread.sleep(60);
+        assertTrue(disjuntor.permitir());    // chamada de teste
+        assertFalse(disjuntor.permitir());   // só uma por vez
+        disjuntor.falha();
+        assertEquals(Disjuntor.Estado.ABERTO, disjuntor.estado());
+
+        Thread.sleep(60);
+        assertTrue(disjuntor.permitir());
+        disjuntor.sucesso();
+        assertEquals(Disjuntor.Estado.FECHADO, disjuntor.estado());
+        assertTrue(disjuntor.permitir());
+
+        assertEquals(List.of(Disjuntor.Estado.ABERTO, Disjuntor.Estado.MEIO_ABERTO, Disjuntor.Estado.ABERTO,
+                Disjuntor.Estado.MEIO_ABERTO, Disjuntor.Estado.FECHADO), transicoes);
+    }
+
+    @Test
+    void chamadaDeTesteInterrompidaLiberaOutra() throws Exception {
+        Disjuntor disjuntor = new Disjuntor(1, 0, estado -> { });
+        disjuntor.falha();
+
+        assertTrue(disjuntor.permitir());
+        disjuntor.desistir();
+        assertTrue(disjuntor.permitir());
+    }
+
+    @Test
+    void soRepeteFalhasPassageiras() {
+        assertTrue(Retentativas.retentavel(new GutendexHttpException("u", 503)));
+        assertTrue(Retentativas.retentavel(new GutendexHttpException("u", 429)));
+        assertTrue(Retentativas.retentavel(new java.net.http.HttpTimeoutException("lento")));
+        assertFalse(Retentativas.retentavel(new GutendexHttpException("u", 404)));
+
+        Retentativas retentativas = new Retentativas(5, 100, 1000);
+        for (int tentativa = 1; tentativa <= 10; tentativa++) {
+            long espera = retentativas.espera(tentativa);
+            assertTrue(espera >= 0 && espera < Math.min(1000, 100L << (tentativa - 1)));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.alura.literalura.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GutendexClientTest {
+
+    private HttpServer servidor;
+    private GutendexClient cliente;
+    private final AtomicInteger requisicoes = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile String corpo = "{\"count\": 1, \"next\": null, \"results\": [{\"id\": 1, \"title\"";
+
+    @BeforeEach
+    void subirServidor() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.createContext("/", this::responder);
+        servidor.start();
+        String base = "http://localhost:" + servidor.getAddress().getPort() + "/books";
+        // 3 tentativas, espera curta, disjuntor abrindo na segunda falha seguida
+        cliente = new GutendexClient(HttpClient.newHttpClient(), new ObjectMapper(), null, new SimpleMeterRegistry(),
+                base, "", Duration.ofSeconds(5), 0, 1, 3, Duration.ofMillis(1), Duration.ofMillis(5),
+                2, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void pararServidor() {
+        servidor.stop(0);
+    }
+
+    private void responder(HttpExchange troca) throws IOException {
+        requisicoes.incrementAndGet();
+        byte[] bytes = corpo.getBytes(StandardCharsets.UTF_8);
+        troca.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = troca.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Test
+    void jsonInvalidoNaPaginaNaoERepetidoNemAbreODisjuntor() {
+        String url = cliente.baseUrl() + "/?page=1";
+        for (int i = 0; i < 3; i++) {
+            assertThrows(JsonProcessingException.class, () -> cliente.lerPagina(url, livro -> { }));
+        }
+        assertEquals(3, requisicoes.get());
+        assertEquals(Disjuntor.Estado.FECHADO, cliente.estadoDisjuntor());
+    }
+
+    @Test
+    void erroDoServidorNaPaginaERepetido() {
+        status = 503;
+        corpo = "";
+        assertThrows(GutendexIndisponivelException.class, () -> cliente.lerPagina(cliente.baseUrl() + "/?page=1", livro -> { }));
+        assertEquals(2, requisicoes.get());   // a segunda falha abre o disjuntor, que corta a terceira
+        assertEquals(Disjuntor.Estado.ABERTO, cliente.estadoDisjuntor());
+    }
+}
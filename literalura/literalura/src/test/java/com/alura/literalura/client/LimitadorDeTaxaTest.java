@@ -0,0 +1,35 @@
+package com.alura.literalura.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimitadorDeTaxaTest {
+
+    @Test
+    void semFichaOFuturoEsperaSemPrenderQuemChama() throws Exception {
+        LimitadorDeTaxa limitador = new LimitadorDeTaxa(5, 1);
+        assertTrue(limitador.adquirirAsync().isDone());
+
+        long inicio = System.nanoTime();
+        CompletableFuture<Void> segunda = limitador.adquirirAsync();
+        long retorno = System.nanoTime() - inicio;
+        assertFalse(segunda.isDone());
+        assertTrue(retorno < TimeUnit.MILLISECONDS.toNanos(100), "adquirirAsync bloqueou por " + retorno + " ns");
+
+        segunda.get(2, TimeUnit.SECONDS);
+        assertTrue(System.nanoTime() - inicio >= TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    @Test
+    void taxaZeroNaoLimita() {
+        LimitadorDeTaxa limitador = new LimitadorDeTaxa(0, 1);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limitador.adquirirAsync().isDone());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.alura.literalura.corpus;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AnalisadorTextoTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void contaComoUmaPassadaIngenuaMesmoDivididoEmTrechos() throws Exception {
+        Random aleatorio = new Random(3);
+        String[] vocabulario = new String[5000];
+        for (int i = 0; i < vocabulario.length; i++) {
+            StringBuilder palavra = new StringBuilder();
+            int tamanho = 2 + aleatorio.nextInt(9);
+            for (int k = 0; k < tamanho; k++) palavra.append((char) ('a' + aleatorio.nextInt(26)));
+            vocabulario[i] = i % 7 == 0 ? palavra.substring(0, 1).toUpperCase() + palavra.substring(1) : palavra.toString();
+        }
+        StringBuilder texto = new StringBuilder();
+        for (int linha = 0; linha < 20_000; linha++) {
+            int palavras = aleatorio.nextInt(12);
+            for (int p = 0; p < palavras; p++) {
+                // distribuição concentrada, como num texto de verdade
+                texto.append(vocabulario[(int) Math.min(vocabulario.length - 1, Math.abs(aleatorio.nextGaussian()) * 400)]);
+                texto.append(p == palavras - 1 ? (linha % 3 == 0 ? ". " : ",") : (p % 5 == 4 ? " 42 " : " "));
+            }
+            texto.append('\n');
+        }
+        Path arquivo = Files.writeString(dir.resolve("texto.txt"), texto, StandardCharsets.UTF_8);
+
+        Map<String, Integer> esperado = new HashMap<>();
+        Matcher m = Pattern.compile("[a-z]+").matcher(texto.toString().toLowerCase());
+        long totalEsperado = 0;
+        while (m.find()) {
+            esperado.merge(m.group(), 1, Integer::sum);
+            totalEsperado++;
+        }
+
+        // trechos pequenos: muitas divisões e junções
+        EstatisticasTexto e = new AnalisadorTexto(4096).analisar(arquivo);
+        assertEquals(totalEsperado, e.palavras());
+        assertEquals(esperado.size(), e.vocabulario());
+        assertEquals(20_000, e.linhas());
+        assertEquals(Files.size(arquivo), e.bytes());
+
+        List<ContadorPalavras.Frequencia> top = e.maisFrequentes(10);
+        assertEquals(10, top.size());
+        for (ContadorPalavras.Frequencia f : top) {
+            assertEquals(esperado.get(f.palavra()).longValue(), f.vezes());
+        }
+        long maior = esperado.values().stream().mapToLong(Integer::longValue).max().orElseThrow();
+        assertEquals(maior, top.get(0).vezes());
+
+        EstatisticasTexto inteiro = new AnalisadorTexto(Integer.MAX_VALUE).analisar(arquivo);
+        assertEquals(e.palavras(), inteiro.palavras());
+        assertEquals(e.vocabulario(), inteiro.vocabulario());
+        assertEquals(e.frases(), inteiro.frases());
+    }
+
+    @Test
+    void ignoraCabecalhoELicencaDoGutenbergETrataApostrofosEAcentos() throws Exception {
+        String texto = """
+                The Project Gutenberg eBook of Teste
+                License text license text
+                *** START OF THE PROJECT GUTENBERG EBOOK TESTE ***
+                Don't stop — the café’s open! Ação, ação.
+                'Quoted' words—dashes.
+                *** END OF THE PROJECT GUTENBERG EBOOK TESTE ***
+                License license license license
+                """;
+        Path arquivo = Files.writeString(dir.resolve("gutenberg.txt"), texto, StandardCharsets.UTF_8);
+
+        EstatisticasTexto e = new AnalisadorTexto().analisar(arquivo);
+        // don't, stop, the, café’s, open, ação, ação, quoted, words, dashes
+        assertEquals(10, e.palavras());
+        assertEquals(9, e.vocabulario());
+        assertEquals(2, e.linhas());
+        assertEquals(3, e.frases());
+        assertEquals(new ContadorPalavras.Frequencia("ação", 2), e.maisFrequentes(1).get(0));
+    }
+}
@@ -0,0 +1,142 @@
+package com.alura.literalura.corpus;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BaixadorCorpusTest {
+
+    @TempDir
+    Path raiz;
+
+    private HttpServer servidor;
+    private String base;
+    private final byte[] texto = new byte[3 * 1024 * 1024 + 17];
+    private final AtomicBoolean aceitaRange = new AtomicBoolean(true);
+
+    @BeforeEach
+    void subirServidor() throws IOException {
+        new Random(7).nextBytes(texto);
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        // toda URL serve o mesmo conteúdo (a.txt e b.txt são duplicatas)
+        servidor.createContext("/", this::responder);
+        servidor.start();
+        base = "http://localhost:" + servidor.getAddress().getPort();
+    }
+
+    @AfterEach
+    void pararServidor() {
+        servidor.stop(0);
+    }
+
+    private void responder(HttpExchange troca) throws IOException {
+        String range = troca.getRequestHeaders().getFirst("Range");
+        int inicio = 0;
+        if (range != null && aceitaRange.get()) {
+            inicio = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+            if (inicio >= texto.length) {
+                troca.sendResponseHeaders(416, -1);
+                troca.close();
+                return;
+            }
+            troca.getResponseHeaders().set("Content-Range",
+                    "bytes " + inicio + "-" + (texto.length - 1) + "/" + texto.length);
+            troca.sendResponseHeaders(206, texto.length - inicio);
+        } else {
+            troca.sendResponseHeaders(200, texto.length);
+        }
+        try (OutputStream out = troca.getResponseBody()) {
+            out.write(texto, inicio, texto.length - inicio);
+        }
+    }
+
+    private BaixadorCorpus baixador(ArmazemCorpus armazem) {
+        return new BaixadorCorpus(HttpClient.newHttpClient(), armazem, Duration.ofSeconds(10));
+    }
+
+    @Test
+    void baixaParaOObjetoDoHashEDeduplicaConteudoIgual() throws Exception {
+        ArmazemCorpus armazem = new ArmazemCorpus(raiz);
+        BaixadorCorpus baixador = baixador(armazem);
+
+        BaixadorCorpus.Baixado a = baixador.baixar(base + "/a.txt");
+        assertEquals(sha256(texto), a.sha256());
+        assertEquals(texto.length, a.tamanho());
+        assertEquals(texto.length, a.transferidos());
+        assertFalse(a.duplicado());
+        assertFalse(a.retomado());
+        assertArrayEquals(texto, Files.readAllBytes(armazem.objeto(a.sha256())));
+
+        BaixadorCorpus.Baixado b = baixador.baixar(base + "/b.txt");
+        assertEquals(a.sha256(), b.sha256());
+        assertTrue(b.duplicado());
+        assertFalse(Files.exists(armazem.parcial(base + "/b.txt")));
+    }
+
+    @Test
+    void retomaDeOndeOParcialParou() throws Exception {
+        ArmazemCorpus armazem = new ArmazemCorpus(raiz);
+        String url = base + "/a.txt";
+        int jaBaixados = 1_000_000;
+        Files.write(armazem.parcial(url), Arrays.copyOf(texto, jaBaixados));
+
+        BaixadorCorpus.Baixado baixado = baixador(armazem).baixar(url);
+        assertTrue(baixado.retomado());
+        assertEquals(texto.length - jaBaixados, baixado.transferidos());
+        assertEquals(sha256(texto), baixado.sha256());
+        assertArrayEquals(texto, Files.readAllBytes(armazem.objeto(baixado.sha256())));
+    }
+
+    @Test
+    void servidorSemRangeRecomecaDoZero() throws Exception {
+        aceitaRange.set(false);
+        ArmazemCorpus armazem = new ArmazemCorpus(raiz);
+        String url = base + "/a.txt";
+        Files.write(armazem.parcial(url), "lixo de uma tentativa anterior".getBytes(StandardCharsets.UTF_8));
+
+        BaixadorCorpus.Baixado baixado = baixador(armazem).baixar(url);
+        assertFalse(baixado.retomado());
+        assertEquals(texto.length, baixado.tamanho());
+        assertArrayEquals(texto, Files.readAllBytes(armazem.objeto(baixado.sha256())));
+    }
+
+    @Test
+    void escolheOsTiposPedidosPreferindoUtf8() {
+        Map<String, String> formatos = Map.of(
+                "text/plain; charset=us-ascii", "http://x/1.txt",
+                "text/plain; charset=utf-8", "http://x/1.txt.utf-8",
+                "application/epub+zip", "http://x/1.epub",
+                "image/jpeg", "http://x/1.jpg");
+
+        Map<String, String> escolhidos = CorpusService.selecionar(formatos, List.of("text/plain", "application/epub+zip"));
+        assertEquals(Map.of("text/plain", "http://x/1.txt.utf-8", "application/epub+zip", "http://x/1.epub"), escolhidos);
+    }
+
+    private static String sha256(byte[] dados) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(dados));
+    }
+}
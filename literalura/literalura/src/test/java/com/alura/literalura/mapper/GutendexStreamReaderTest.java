@@ -0,0 +1,50 @@
+package com.alura.literalura.mapper;
+
+import com.alura.literalura.dto.ApiBookResponse;
+import com.alura.literalura.model.Livro;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GutendexStreamReaderTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void mapeiaPaginaIgualAoCaminhoComDtos() throws IOException {
+        byte[] json = fixture();
+
+        List<Livro> streaming = new ArrayList<>();
+        GutendexStreamReader.Pagina pagina = GutendexStreamReader.lerPagina(new ByteArrayInputStream(json), streaming::add);
+        List<Livro> viaDto = GutenbergResultMapper.toLivroList(
+                MAPPER.readValue(json, ApiBookResponse.class).getResults());
+
+        assertEquals(76241, pagina.count());
+        assertEquals("https://gutendex.com/books/?page=2", pagina.next());
+        assertEquals(viaDto.size(), pagina.itens());
+        for (int i = 0; i < viaDto.size(); i++) {
+            Livro esperado = viaDto.get(i);
+            Livro lido = streaming.get(i);
+            assertEquals(esperado.getGutenbergId(), lido.getGutenbergId());
+            assertEquals(esperado.getTitulo(), lido.getTitulo());
+            assertEquals(esperado.getIdioma(), lido.getIdioma());
+            assertEquals(esperado.getDownloads(), lido.getDownloads());
+            assertEquals(esperado.getAutor().getName(), lido.getAutor().getName());
+            assertEquals(esperado.getAutor().getBirthYear(), lido.getAutor().getBirthYear());
+            assertEquals(esperado.getAutor().getDeathYear(), lido.getAutor().getDeathYear());
+        }
+    }
+
+    private static byte[] fixture() throws IOException {
+        try (InputStream in = GutendexStreamReaderTest.class.getResourceAsStream("/gutendex/pagina-livros.json")) {
+            return in.readAllBytes();
+        }
+    }
+}
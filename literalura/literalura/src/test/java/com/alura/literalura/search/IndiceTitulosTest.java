@@ -0,0 +1,92 @@
+package com.alura.literalura.search;
+
+import com.alura.literalura.repository.LivroRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndiceTitulosTest {
+
+    @Test
+    void encontraPorTituloAutorOuIdIgnorandoAcentos() {
+        IndiceTitulos indice = new IndiceTitulos(null);
+        indice.indexar(1L, 55752, "Dom Casmurro", "Machado de Assis");
+        indice.indexar(2L, 54829, "Memórias Póstumas de Brás Cubas", "Machado de Assis");
+        indice.indexar(3L, 1342, "Pride and Prejudice", "Austen, Jane");
+
+        assertEquals(Optional.of(2L), indice.buscar("memorias postumas"));
+        assertEquals(Optional.of(1L), indice.buscar("DOM CASMURRO"));
+        assertEquals(Optional.of(3L), indice.buscar("austen prejudice"));
+        assertEquals(Optional.of(3L), indice.buscar("1342"));
+        assertEquals(Optional.empty(), indice.buscar("Moby Dick"));
+    }
+
+    @Test
+    void registradoExigeTituloQueContenhaAConsulta() {
+        IndiceTitulos indice = new IndiceTitulos(null);
+        indice.indexar(1L, 2600, "War and Peace", "Tolstoy, Leo");
+        indice.indexar(2L, 1342, "Pride and Prejudice", "Austen, Jane");
+
+        assertEquals(Optional.of(1L), indice.buscarRegistrado("war and peace"));
+        assertEquals(Optional.of(2L), indice.buscarRegistrado("prejudice"));
+        assertEquals(Optional.of(2L), indice.buscarRegistrado("1342"));
+        // palavras espalhadas entre título e autor não dispensam a Gutendex
+        assertEquals(Optional.of(2L), indice.buscar("austen prejudice"));
+        assertEquals(Optional.empty(), indice.buscarRegistrado("austen prejudice"));
+        assertEquals(Optional.empty(), indice.buscarRegistrado("Jane Austen"));
+        assertEquals(Optional.empty(), indice.buscarRegistrado("peace war"));
+    }
+
+    @Test
+    void buscaAproximadaExigeMetadeDasPalavras() {
+        IndiceTitulos indice = new IndiceTitulos(null);
+        indice.indexar(1L, 55752, "Dom Casmurro", "Machado de Assis");
+        indice.indexar(2L, 54829, "Memórias Póstumas de Brás Cubas", "Machado de Assis");
+
+        assertEquals(Optional.empty(), indice.buscar("memorias de um sargento"));
+        assertEquals(Optional.of(2L), indice.buscarAproximado("memorias postumas sargento"));
+        assertEquals(Optional.empty(), indice.buscarAproximado("memorias de um sargento de milicias"));
+    }
+
+    @Test
+    void reindexarLivroSubstituiEntradaAntiga() {
+        IndiceTitulos indice = new IndiceTitulos(null);
+        indice.indexar(1L, 10, "Titulo Antigo", "Autor");
+        indice.indexar(1L, 10, "Titulo Novo", "Autor");
+
+        assertEquals(Optional.empty(), indice.buscar("antigo"));
+        assertEquals(Optional.of(1L), indice.buscar("novo"));
+        assertEquals(1, indice.tamanho());
+    }
+
+    @Test
+    void livroIndexadoDuranteACargaContinuaNoIndice() {
+        IndiceTitulos[] indice = new IndiceTitulos[1];
+        LivroRepository repo = (LivroRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{LivroRepository.class}, (proxy, metodo, args) -> {
+                    if (!metodo.getName().equals("findTitulosIndexaveis")) throw new UnsupportedOperationException();
+                    // gravado depois que o banco foi lido
+                    indice[0].indexar(2L, 1342, "Pride and Prejudice", "Austen, Jane");
+                    return List.of(titulo(1L, 2600, "War and Peace", "Tolstoy, Leo"));
+                });
+        indice[0] = new IndiceTitulos(repo, true);
+        indice[0].aoSubir();
+
+        assertEquals(Optional.of(1L), indice[0].buscarRegistrado("war and peace"));
+        assertEquals(Optional.of(2L), indice[0].buscarRegistrado("pride and prejudice"));
+        assertEquals(2, indice[0].tamanho());
+    }
+
+    private static LivroRepository.TituloIndexavel titulo(Long id, Integer gutenbergId, String titulo, String autor) {
+        return new LivroRepository.TituloIndexavel() {
+            public Long getId() { return id; }
+            public Integer getGutenbergId() { return gutenbergId; }
+            public String getTitulo() { return titulo; }
+            public String getAutor() { return autor; }
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package com.alura.literalura.search;
+
+import com.alura.literalura.repository.AutorRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndiceVidaAutoresTest {
+
+    @Test
+    void anosDesconhecidosSaoEstimadosOuContados() {
+        IndiceVidaAutores indice = new IndiceVidaAutores(null);
+        indice.indexar(1L, 1839, 1908);     // Machado de Assis
+        indice.indexar(2L, 1775, null);     // vivo até 1875 pela estimativa
+        indice.indexar(3L, null, -400);     // só a morte: vivo desde -500
+        indice.indexar(4L, null, null);
+
+        assertEquals(List.of(1L, 2L), ordenado(indice.vivosEm(1850)));
+        assertEquals(List.of(3L), indice.vivosEm(-450));
+        assertEquals(List.of(1L), indice.vivosEm(1876));
+        assertEquals(1, indice.semDatas());
+        assertEquals(2, indice.quantidadeVivosEm(1850));
+
+        // o upsert mantém o ano de morte já conhecido quando chega um nulo
+        indice.indexar(1L, 1839, null);
+        assertEquals(List.of(), indice.vivosEm(1909));
+        indice.indexar(4L, 1900, 1950);
+        assertEquals(0, indice.semDatas());
+        assertEquals(List.of(4L), indice.vivosEm(1920));
+    }
+
+    @Test
+    void reindexarSemMudancaNaoDuplica() {
+        IndiceVidaAutores indice = new IndiceVidaAutores(null);
+        for (int n = 0; n < 3; n++) {
+            indice.indexar(1L, 1812, 1870);   // Dickens, reimportado a cada página
+            indice.indexar(2L, 1775, null);
+        }
+        indice.indexar(2L, null, null);       // nulos não apagam os anos conhecidos
+
+        assertEquals(List.of(1L, 2L), ordenado(indice.vivosEntre(1812, 1870)));
+        assertEquals(2, indice.quantidadeVivosEm(1850));
+        assertEquals(2, indice.tamanho());
+
+        indice.indexar(2L, 1775, 1817);       // Jane Austen, agora com a morte
+        assertEquals(List.of(1L), indice.vivosEm(1850));
+        assertEquals(1, indice.quantidadeVivosEm(1850));
+    }
+
+    /**
+     * Compara consultas, histograma e autor-anos com uma varredura simples
+     * sobre autores aleatórios, incluindo reindexações.
+     */
+    @Test
+    void equivaleAVarreduraCompleta() {
+        Random random = new Random(7);
+        IndiceVidaAutores indice = new IndiceVidaAutores(null);
+        Map<Long, int[]> intervalos = new HashMap<>();
+        for (int n = 0; n < 20_000; n++) {
+            long id = random.nextInt(5_000);
+            int nascimento = random.nextInt(2_500) - 500;
+            int morte = nascimento + random.nextInt(95);
+            indice.indexar(id, nascimento, morte);
+            intervalos.put(id, new int[]{nascimento, morte});
+        }
+
+        for (int k = 0; k < 200; k++) {
+            int de = random.nextInt(2_700) - 600;
+            int ate = de + random.nextInt(k % 2 == 0 ? 1 : 60);
+            List<Long> esperado = new ArrayList<>();
+            long autorAnos = 0;
+            for (Map.Entry<Long, int[]> e : intervalos.entrySet()) {
+                int[] i = e.getValue();
+                if (i[0] <= ate && i[1] >= de) esperado.add(e.getKey());
+                autorAnos += Math.max(0, Math.min(ate, i[1]) - Math.max(de, i[0]) + 1);
+            }
+            esperado.sort(null);
+            assertEquals(esperado, ordenado(indice.vivosEntre(de, ate)));
+            assertEquals(autorAnos, indice.autorAnosEntre(de, ate));
+
+            IndiceVidaAutores.Histograma h = indice.histograma(de, ate);
+            for (int ano = de; ano <= ate; ano++) {
+                final int a = ano;
+                long vivos = intervalos.values().stream().filter(i -> i[0] <= a && i[1] >= a).count();
+                assertEquals(vivos, h.vivosEm(ano));
+            }
+        }
+    }
+
+    @Test
+    void autorIndexadoDuranteACargaContinuaNoIndice() {
+        IndiceVidaAutores[] indice = new IndiceVidaAutores[1];
+        AutorRepository repo = (AutorRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{AutorRepository.class}, (proxy, metodo, args) -> {
+                    if (!metodo.getName().equals("findPeriodosVida")) throw new UnsupportedOperationException();
+                    // gravado depois que o banco foi lido
+                    indice[0].indexar(2L, 1775, 1817);
+                    return List.of(periodo(1L, 1812, 1870));
+                });
+        indice[0] = new IndiceVidaAutores(repo, true);
+        indice[0].aoSubir();
+
+        assertEquals(2, indice[0].tamanho());
+        assertEquals(2, indice[0].quantidadeVivosEm(1815));
+        assertEquals(List.of(1L, 2L), ordenado(indice[0].vivosEm(1815)));
+    }
+
+    private static AutorRepository.PeriodoVida periodo(Long id, Integer nascimento, Integer morte) {
+        return new AutorRepository.PeriodoVida() {
+            public Long getId() { return id; }
+            public Integer getBirthYear() { return nascimento; }
+            public Integer getDeathYear() { return morte; }
+        };
+    }
+
+    private static List<Long> ordenado(List<Long> ids) {
+        List<Long> copia = new ArrayList<>(ids);
+        copia.sort(null);
+        return copia;
+    }
+}
@@ -0,0 +1,75 @@
+package com.alura.literalura.search;
+
+import com.alura.literalura.dto.ApiBookResponse;
+import com.alura.literalura.dto.GutenbergBook;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TitleMatcherTest {
+
+    // página gravada da Gutendex com 32 livros (Pride and Prejudice é o primeiro)
+    private static List<GutenbergBook> pagina;
+
+    @BeforeAll
+    static void carregar() throws IOException {
+        try (InputStream in = TitleMatcherTest.class.getResourceAsStream("/gutendex/pagina-livros.json")) {
+            pagina = new ObjectMapper().readValue(in, ApiBookResponse.class).getResults();
+        }
+    }
+
+    @Test
+    void escolheOTituloMaisParecidoNaPagina() {
+        assertEquals(1342, melhor("pride and prejudice"));
+        assertEquals(2701, melhor("Moby Dick"));
+        assertEquals(54829, melhor("memorias postumas de bras cubas"));
+        assertEquals(2600, melhor("peace war"));
+        assertEquals(5427, melhor("emile"));
+        // erros de digitação: a escolha antiga (contém a consulta, senão o primeiro) dava Pride and Prejudice
+        assertEquals(1661, melhor("sherlok holmes"));
+        assertEquals(1184, melhor("count of monte christo"));
+        assertEquals(768, melhor("wuthering hieghts"));
+    }
+
+    @Test
+    void igualVenceContemQueVenceParecido() {
+        TitleMatcher.Consulta consulta = TitleMatcher.Consulta.de("Great Expectations");
+        double igual = TitleMatcher.pontuar(consulta, "great expectations");
+        double contem = TitleMatcher.pontuar(consulta, "great expectations, volume 1");
+        double parecido = TitleMatcher.pontuar(consulta, "grand expectations");
+        assertTrue(igual > contem, igual + " > " + contem);
+        assertTrue(contem > parecido, contem + " > " + parecido);
+        assertEquals(0, TitleMatcher.pontuar(consulta, ""));
+        assertEquals(0, TitleMatcher.pontuar(TitleMatcher.Consulta.de("  "), "great expectations"));
+    }
+
+    @Test
+    void empateFicaComOMaisBaixado() {
+        GutenbergBook menos = livro(1, "Dracula", 100);
+        GutenbergBook mais = livro(2, "Dracula", 5000);
+        GutenbergBook semContagem = livro(3, "Dracula", null);
+        assertEquals(Optional.of(mais), TitleMatcher.melhor("dracula", List.of(semContagem, menos, mais)));
+        assertEquals(Optional.empty(), TitleMatcher.melhor("dracula", List.of()));
+        assertEquals(Optional.empty(), TitleMatcher.melhor("dracula", null));
+    }
+
+    private static int melhor(String consulta) {
+        return TitleMatcher.melhor(consulta, pagina).orElseThrow().getId();
+    }
+
+    private static GutenbergBook livro(int id, String titulo, Integer downloads) {
+        GutenbergBook livro = new GutenbergBook();
+        livro.setId(id);
+        livro.setTitle(titulo);
+        livro.setDownloadCount(downloads);
+        return livro;
+    }
+}
@@ -0,0 +1,265 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.model.Livro;
+import com.alura.literalura.repository.CatalogoUpsertRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fila de gravação sem banco: o upsert só anota os lotes recebidos e as transações são de mentira.
+ */
+class FilaGravacaoTest {
+
+    private static final Duration SEM_PRAZO = Duration.ofHours(1);
+
+    private final UpsertEmMemoria upsert = new UpsertEmMemoria();
+    private final List<Object> eventos = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void gravaQuandoOLoteEnche() throws Exception {
+        FilaGravacao fila = fila(100, 3, SEM_PRAZO, eventos::add);
+        fila.start();
+        try {
+            List<CompletableFuture<Livro>> futuros = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) futuros.add(fila.enfileirar(livro(i)));
+            for (CompletableFuture<Livro> f : futuros) f.get(5, TimeUnit.SECONDS);
+        } finally {
+            fila.stop();
+        }
+        assertEquals(List.of(List.of(1, 2, 3)), upsert.lotes());
+        assertEquals(1, fila.estatisticas().lotes());
+        assertEquals(3, evento(0).livros().size());
+    }
+
+    @Test
+    void gravaOQueHouverQuandoOPrazoVence() throws Exception {
+        FilaGravacao fila = fila(100, 50, Duration.ofMillis(100), eventos::add);
+        fila.start();
+        try {
+            long inicio = System.nanoTime();
+            fila.enfileirar(livro(1)).get(5, TimeUnit.SECONDS);
+            assertTrue(System.nanoTime() - inicio >= TimeUnit.MILLISECONDS.toNanos(50));
+        } finally {
+            fila.stop();
+        }
+        assertEquals(List.of(List.of(1)), upsert.lotes());
+    }
+
+    @Test
+    void filaCheiaFazQuemEnfileiraEsperar() throws Exception {
+        FilaGravacao fila = fila(1, 1, SEM_PRAZO, eventos::add);
+        upsert.segurar();
+        fila.start();
+        try {
+            CompletableFuture<Livro> primeiro = fila.enfileirar(livro(1));
+            assertTrue(upsert.emAndamento.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Livro> segundo = fila.enfileirar(livro(2));   // ocupa a única vaga
+
+            CompletableFuture<CompletableFuture<Livro>> terceiro = new CompletableFuture<>();
+            Thread produtor = new Thread(() -> {
+                try {
+                    terceiro.complete(fila.enfileirar(livro(3)));
+                } catch (Exception e) {
+                    terceiro.completeExceptionally(e);
+                }
+            });
+            produtor.start();
+            Thread.sleep(200);
+            assertFalse(terceiro.isDone(), "enfileirar deveria esperar uma vaga na fila");
+            assertEquals(Thread.State.WAITING, produtor.getState());
+
+            upsert.liberar();
+            primeiro.get(5, TimeUnit.SECONDS);
+            segundo.get(5, TimeUnit.SECONDS);
+            terceiro.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+        } finally {
+            upsert.liberar();
+            fila.stop();
+        }
+        assertEquals(List.of(List.of(1), List.of(2), List.of(3)), upsert.lotes());
+    }
+
+    @Test
+    void mesmaObraNoLoteGravaUmaVez() throws Exception {
+        FilaGravacao fila = fila(100, 3, SEM_PRAZO, eventos::add);
+        fila.start();
+        Livro primeiro = livro(1);
+        try {
+            CompletableFuture<Livro> a = fila.enfileirar(primeiro);
+            CompletableFuture<Livro> b = fila.enfileirar(livro(1));
+            CompletableFuture<Livro> c = fila.enfileirar(livro(2));
+            c.get(5, TimeUnit.SECONDS);
+            assertSame(primeiro, a.get(5, TimeUnit.SECONDS));
+            assertSame(primeiro, b.get(5, TimeUnit.SECONDS));
+        } finally {
+            fila.stop();
+        }
+        assertEquals(List.of(List.of(1, 2)), upsert.lotes());
+        assertEquals(2, fila.estatisticas().gravados());
+    }
+
+    @Test
+    void loteComFalhaGravaLivroALivro() throws Exception {
+        FilaGravacao fila = fila(100, 3, SEM_PRAZO, eventos::add);
+        upsert.recusar(2);
+        fila.start();
+        CompletableFuture<Livro> ruim;
+        try {
+            CompletableFuture<Livro> antes = fila.enfileirar(livro(1));
+            ruim = fila.enfileirar(livro(2));
+            CompletableFuture<Livro> depois = fila.enfileirar(livro(3));
+            antes.get(5, TimeUnit.SECONDS);
+            depois.get(5, TimeUnit.SECONDS);
+        } finally {
+            fila.stop();
+        }
+        ExecutionException erro = assertThrows(ExecutionException.class, () -> ruim.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, erro.getCause());
+        assertEquals(List.of(List.of(1, 2, 3), List.of(1), List.of(2), List.of(3)), upsert.lotes());
+        assertEquals(2, fila.estatisticas().gravados());
+        assertEquals(1, fila.estatisticas().falhas());
+        assertEquals(List.of(1, 3), evento(0).livros().stream().map(Livro::getGutenbergId).toList());
+    }
+
+    @Test
+    void desligarGravaOsPendentes() throws Exception {
+        FilaGravacao fila = fila(100, 50, Duration.ofMillis(200), eventos::add);
+        fila.start();
+        List<CompletableFuture<Livro>> futuros = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) futuros.add(fila.enfileirar(livro(i)));
+        fila.stop();
+
+        assertTrue(futuros.stream().allMatch(CompletableFuture::isDone));
+        assertEquals(5, fila.estatisticas().gravados());
+        assertEquals(0, fila.estatisticas().naFila());
+        assertEquals(5, upsert.lotes().stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void ouvinteComDefeitoNaoParaAGravacao() throws Exception {
+        AtomicInteger avisos = new AtomicInteger();
+        FilaGravacao fila = fila(10, 1, Duration.ofMillis(10), evento -> {
+            avisos.incrementAndGet();
+            throw new IllegalStateException("ouvinte quebrado");
+        });
+        fila.start();
+        try {
+            for (int i = 1; i <= 3; i++) {
+                Livro livro = livro(i);
+                assertSame(livro, fila.enfileirar(livro).get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            fila.stop();
+        }
+        assertEquals(3, avisos.get());
+        assertEquals(3, fila.estatisticas().gravados());
+    }
+
+    private FilaGravacao fila(int capacidade, int tamanhoLote, Duration intervalo, ApplicationEventPublisher ouvinte) {
+        return new FilaGravacao(upsert, new TransactionTemplate(new TransacaoVazia()), ouvinte,
+                new SimpleMeterRegistry(), capacidade, tamanhoLote, intervalo);
+    }
+
+    private LivrosPersistidosEvent evento(int i) {
+        return (LivrosPersistidosEvent) eventos.get(i);
+    }
+
+    private static Livro livro(int gutenbergId) {
+        Livro livro = new Livro();
+        livro.setGutenbergId(gutenbergId);
+        livro.setTitulo("Livro " + gutenbergId);
+        return livro;
+    }
+
+    /**
+     * Anota os ids do Gutenberg de cada chamada; pode recusar um id ou segurar a gravação
+     * até {@link #liberar()}.
+     */
+    private static class UpsertEmMemoria extends CatalogoUpsertRepository {
+
+        private final List<List<Integer>> lotes = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch emAndamento = new CountDownLatch(1);
+        private volatile CountDownLatch liberado = new CountDownLatch(0);
+        private volatile Integer recusado;
+
+        UpsertEmMemoria() {
+            super(new JdbcTemplate(), new SimpleMeterRegistry());
+        }
+
+        void segurar() {
+            liberado = new CountDownLatch(1);
+        }
+
+        void liberar() {
+            liberado.countDown();
+        }
+
+        void recusar(int gutenbergId) {
+            recusado = gutenbergId;
+        }
+
+        List<List<Integer>> lotes() {
+            synchronized (lotes) {
+                return new ArrayList<>(lotes);
+            }
+        }
+
+        @Override
+        public void upsertAll(List<Livro> livros) {
+            List<Integer> ids = livros.stream().map(Livro::getGutenbergId).toList();
+            lotes.add(ids);
+            emAndamento.countDown();
+            try {
+                liberado.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (recusado != null && ids.contains(recusado)) {
+                throw new IllegalStateException("livro " + recusado + " recusado");
+            }
+        }
+    }
+
+    private static class TransacaoVazia extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
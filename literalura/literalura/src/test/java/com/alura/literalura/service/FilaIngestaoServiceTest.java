@@ -0,0 +1,139 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.model.TarefaIngestao;
+import com.alura.literalura.repository.FilaIngestaoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fila de ingestão com vários trabalhadores no mesmo processo, contra o PostgreSQL
+ * configurado (a reserva depende de FOR UPDATE SKIP LOCKED). O trabalho de cada tarefa é
+ * um substituto que não chama a Gutendex nem grava livros; cada teste usa uma fila própria.
+ *
+ * Executar com: mvn test -Dtest=FilaIngestaoServiceTest -Dteste.fila=true
+ *     -Dspring.datasource.url=jdbc:postgresql://localhost:5432/banco_de_teste
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "literalura.menu.ativo=false",
+        "literalura.atualizacao-downloads.cron=-", "literalura.fila.tentativas=3",
+        "literalura.fila.intervalo-consulta=PT0.05S", "literalura.fila.espera-base=PT0.01S",
+        "literalura.fila.espera-maxima=PT0.05S"})
+@EnabledIfSystemProperty(named = "teste.fila", matches = "true")
+class FilaIngestaoServiceTest {
+
+    @Autowired private FilaIngestaoService servico;
+    @Autowired private FilaIngestaoRepository repo;
+    @Autowired private JdbcTemplate jdbc;
+
+    private final String fila = "teste-" + System.nanoTime();
+
+    @AfterEach
+    void limpar() {
+        repo.apagar(fila);
+    }
+
+    @Test
+    void cadaTarefaSaiParaUmTrabalhadorSo() {
+        servico.enfileirarTitulos(fila, chaves(400));
+        // enfileirar de novo (outra instância) não duplica
+        assertEquals(0, servico.enfileirarTitulos(fila, chaves(400)));
+
+        Map<String, AtomicInteger> execucoes = new ConcurrentHashMap<>();
+        FilaIngestaoService.ResumoFila resumo = servico.trabalhar(fila, 8, tarefa -> {
+            execucoes.computeIfAbsent(tarefa.chave(), c -> new AtomicInteger()).incrementAndGet();
+            Thread.sleep(2);
+            return List.of();
+        });
+
+        assertEquals(400, execucoes.size());
+        assertTrue(execucoes.values().stream().allMatch(n -> n.get() == 1), "tarefa executada mais de uma vez");
+        assertEquals(400, resumo.concluidas());
+        assertEquals(400, resumo.situacao().quantidade(TarefaIngestao.Estado.CONCLUIDA));
+        assertEquals(0, resumo.situacao().abertas());
+    }
+
+    @Test
+    void falhasVoltamParaAFilaAteOLimiteDeTentativas() {
+        servico.enfileirarTitulos(fila, List.of("ok", "falha-uma-vez", "sempre-falha"));
+        Map<String, AtomicInteger> execucoes = new ConcurrentHashMap<>();
+
+        FilaIngestaoService.ResumoFila resumo = servico.trabalhar(fila, 2, tarefa -> {
+            int vez = execucoes.computeIfAbsent(tarefa.chave(), c -> new AtomicInteger()).incrementAndGet();
+            if (tarefa.chave().equals("sempre-falha") || (tarefa.chave().equals("falha-uma-vez") && vez == 1)) {
+                throw new IllegalStateException("falha simulada " + vez);
+            }
+            return List.of();
+        });
+
+        assertEquals(2, resumo.concluidas());
+        assertEquals(4, resumo.falhas());
+        assertEquals("CONCLUIDA 1", situacao("ok"));
+        assertEquals("CONCLUIDA 2", situacao("falha-uma-vez"));
+        assertEquals("FALHOU 3", situacao("sempre-falha"));
+    }
+
+    @Test
+    void reservaVencidaVoltaParaAFila() throws Exception {
+        servico.enfileirarTitulos(fila, List.of("abandonada"));
+        FilaIngestaoRepository.Tarefa reservada =
+                repo.reservar(fila, "instancia-que-caiu", Duration.ofMillis(50), 3).orElseThrow();
+        // enquanto a reserva vale, ninguém mais pega a tarefa
+        assertTrue(repo.reservar(fila, "outra", Duration.ofMinutes(1), 3).isEmpty());
+        Thread.sleep(100);
+
+        FilaIngestaoService.ResumoFila resumo = servico.trabalhar(fila, 2, tarefa -> List.of());
+
+        assertEquals(1, resumo.concluidas());
+        assertEquals("CONCLUIDA 2", situacao("abandonada"));
+        // a instância antiga volta e tenta concluir: a reserva não é mais dela
+        assertFalse(repo.concluir(reservada, "instancia-que-caiu", 0));
+    }
+
+    @Test
+    void vazaoCresceComOsTrabalhadores() {
+        int tarefas = 160;
+        FilaIngestaoService.Trabalho espera = tarefa -> {
+            Thread.sleep(20);   // o tempo de uma página da Gutendex, em escala menor
+            return List.of();
+        };
+        List<Double> vazoes = new ArrayList<>();
+        for (int trabalhadores : new int[]{1, 4, 8}) {
+            String rodada = fila + "-" + trabalhadores;
+            try {
+                servico.enfileirarTitulos(rodada, chaves(tarefas));
+                FilaIngestaoService.ResumoFila resumo = servico.trabalhar(rodada, trabalhadores, espera);
+                assertEquals(tarefas, resumo.concluidas());
+                vazoes.add(resumo.tarefasPorSegundo());
+                System.out.printf("%d trabalhadores: %.1f tarefas/s%n", trabalhadores, resumo.tarefasPorSegundo());
+            } finally {
+                repo.apagar(rodada);
+            }
+        }
+        assertTrue(vazoes.get(2) > 5 * vazoes.get(0), "8 trabalhadores deveriam render bem mais que 1: " + vazoes);
+    }
+
+    private static List<String> chaves(int quantidade) {
+        List<String> chaves = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) chaves.add("Synthetic Book " + i);
+        return chaves;
+    }
+
+    private String situacao(String chave) {
+        return jdbc.queryForObject("SELECT estado || ' ' || tentativas FROM fila_ingestao WHERE fila = ? AND chave = ?",
+                String.class, fila, chave);
+    }
+}
@@ -0,0 +1,90 @@
+package com.alura.literalura.snapshot;
+
+import com.alura.literalura.dto.AutorResumo;
+import com.alura.literalura.dto.LivroResumo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotCatalogoTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void respondeAsListagensComoForamGravadas() throws Exception {
+        EscritorSnapshot escritor = new EscritorSnapshot();
+        // fora de ordem, com anos desconhecidos e nomes não ASCII
+        escritor.autor(30, "Machado de Assis", 1839, 1908);
+        escritor.autor(10, "Shelley, Mary Wollstonecraft", 1797, 1851);
+        escritor.autor(20, "Anônimo", null, null);
+        escritor.autor(40, "Camões, Luís de", null, 1580);
+        escritor.autor(50, "Dostoiévski", 1821, null);
+        escritor.livro(7, 55752, "Dom Casmurro", "pt", 1200, 30L);
+        escritor.livro(3, 84, "Frankenstein; Or, The Modern Prometheus", "en", 80_000, 10L);
+        escritor.livro(5, 3333, "Os Lusíadas", "pt", null, 40L);
+        escritor.livro(9, null, "Преступление и наказание", "ru", 15, 50L);
+        escritor.livro(11, 999, null, null, 0, null);
+        escritor.livro(12, 1000, "Contos populares", "pt", 3, 20L);
+        Path arquivo = dir.resolve("catalogo.snapshot");
+        long bytes = escritor.gravar(arquivo);
+
+        SnapshotCatalogo catalogo = SnapshotCatalogo.abrir(arquivo);
+        assertEquals(Files.size(arquivo), bytes);
+        assertEquals(6, catalogo.livros());
+        assertEquals(5, catalogo.autores());
+        assertEquals(List.of("en", "pt", "ru"), catalogo.idiomas());
+
+        List<LivroResumo> todos = new ArrayList<>();
+        for (long depoisDe = 0; ; ) {
+            List<LivroResumo> pagina = catalogo.paginaDeLivros(depoisDe, 4);
+            todos.addAll(pagina);
+            if (pagina.size() < 4) break;
+            depoisDe = pagina.get(pagina.size() - 1).id();
+        }
+        assertEquals(List.of(
+                new LivroResumo(3L, 84, "Frankenstein; Or, The Modern Prometheus", "en", 80_000, "Shelley, Mary Wollstonecraft"),
+                new LivroResumo(5L, 3333, "Os Lusíadas", "pt", null, "Camões, Luís de"),
+                new LivroResumo(7L, 55752, "Dom Casmurro", "pt", 1200, "Machado de Assis"),
+                new LivroResumo(9L, null, "Преступление и наказание", "ru", 15, "Dostoiévski"),
+                new LivroResumo(11L, 999, "", null, 0, null),
+                new LivroResumo(12L, 1000, "Contos populares", "pt", 3, "Anônimo")), todos);
+        assertEquals(List.of(7L, 12L), catalogo.paginaDeLivros(5, 10).stream().filter(l -> "pt".equals(l.idioma()))
+                .map(LivroResumo::id).toList());
+
+        assertEquals(List.of(5L, 7L, 12L), catalogo.livrosPorIdioma("PT").stream().map(LivroResumo::id).toList());
+        assertEquals(3, catalogo.quantidadeLivrosPorIdioma("pt"));
+        assertTrue(catalogo.livrosPorIdioma("fr").isEmpty());
+
+        // sem morte conhecida: vivo até nascimento + 100; sem nascimento: desde morte - 100
+        assertEquals(List.of(new AutorResumo(40L, "Camões, Luís de", null, 1580, 1)), catalogo.autoresVivosEm(1500));
+        assertEquals(List.of("Dostoiévski", "Machado de Assis", "Shelley, Mary Wollstonecraft"),
+                catalogo.autoresVivosEm(1840).stream().map(AutorResumo::name).toList());
+        assertEquals(List.of("Dostoiévski", "Machado de Assis"),
+                catalogo.autoresVivosEm(1908).stream().map(AutorResumo::name).toList());
+        assertEquals(List.of("Dostoiévski"), catalogo.autoresVivosEm(1921).stream().map(AutorResumo::name).toList());
+        assertTrue(catalogo.autoresVivosEm(1922).isEmpty());
+    }
+
+    @Test
+    void catalogoVazioERejeitaArquivoQueNaoESnapshot() throws Exception {
+        Path vazio = dir.resolve("vazio.snapshot");
+        new EscritorSnapshot().gravar(vazio);
+        SnapshotCatalogo catalogo = SnapshotCatalogo.abrir(vazio);
+        assertEquals(0, catalogo.livros());
+        assertTrue(catalogo.paginaDeLivros(0, 20).isEmpty());
+        assertTrue(catalogo.autoresVivosEm(1900).isEmpty());
+
+        Path outro = Files.writeString(dir.resolve("outro.txt"), "não é um snapshot ".repeat(20));
+        assertThrows(IOException.class, () -> SnapshotCatalogo.abrir(outro));
+    }
+}
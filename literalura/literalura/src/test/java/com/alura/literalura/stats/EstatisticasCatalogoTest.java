@@ -0,0 +1,123 @@
+package com.alura.literalura.stats;
+
+import com.alura.literalura.dto.LivroResumo;
+import com.alura.literalura.model.Livro;
+import com.alura.literalura.repository.LivroRepository;
+import com.alura.literalura.service.DownloadsAtualizadosEvent;
+import com.alura.literalura.service.LivrosPersistidosEvent;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EstatisticasCatalogoTest {
+
+    private static final String[] IDIOMAS = {"en", "pt", "fr", "de"};
+
+    /**
+     * Compara os agregados com uma varredura simples depois de inserções e regravações
+     * (mudança de idioma, autor e downloads) aleatórias.
+     */
+    @Test
+    void equivaleAVarreduraCompleta() {
+        Random random = new Random(11);
+        EstatisticasCatalogo estatisticas = new EstatisticasCatalogo(null);
+        Map<Long, LivroResumo> livros = new HashMap<>();
+        Map<Long, Long> autorDoLivro = new HashMap<>();
+        for (int n = 0; n < 5_000; n++) {
+            long id = random.nextInt(1_500) + 1;
+            long autorId = random.nextInt(200);
+            Integer downloads = random.nextInt(10) == 0 ? null : (int) Math.pow(10, random.nextDouble() * 5);
+            LivroResumo livro = new LivroResumo(id, (int) id + 10_000, "Livro " + id,
+                    IDIOMAS[random.nextInt(IDIOMAS.length)], downloads, "Autor " + autorId);
+            estatisticas.registrar(livro, autorId);
+            livros.put(id, livro);
+            autorDoLivro.put(id, autorId);
+        }
+
+        EstatisticasCatalogo.Resumo resumo = estatisticas.resumo();
+        assertEquals(livros.size(), resumo.livros());
+        assertEquals(autorDoLivro.values().stream().distinct().count(), resumo.autores());
+        List<Integer> downloads = livros.values().stream().map(LivroResumo::downloads)
+                .filter(d -> d != null).sorted().toList();
+        assertEquals(downloads.size(), resumo.livrosComDownloads());
+        assertEquals(downloads.stream().mapToLong(Integer::longValue).sum(), resumo.somaDownloads());
+        assertEquals(downloads.get(downloads.size() - 1), resumo.maxDownloads());
+        int mediana = downloads.get((int) Math.ceil(0.5 * downloads.size()) - 1);
+        assertTrue(Math.abs(resumo.p50() - mediana) <= mediana * 0.035 + 1, resumo.p50() + " vs " + mediana);
+
+        for (String idioma : IDIOMAS) {
+            List<LivroResumo> doIdioma = new ArrayList<>(livros.values().stream()
+                    .filter(l -> l.idioma().equals(idioma)).toList());
+            assertEquals(doIdioma.size(), estatisticas.quantidadePorIdioma(idioma));
+            assertEquals(doIdioma.size(), resumo.livrosPorIdioma().get(idioma));
+            doIdioma.sort(Comparator.comparingInt((LivroResumo l) -> l.downloads() != null ? l.downloads() : -1)
+                    .reversed().thenComparingLong(LivroResumo::id));
+            assertEquals(doIdioma.subList(0, 5), estatisticas.maisBaixados(idioma, 5));
+        }
+
+        Map<Long, Integer> porAutor = new HashMap<>();
+        autorDoLivro.values().forEach(a -> porAutor.merge(a, 1, Integer::sum));
+        int maisLivros = porAutor.values().stream().max(Integer::compare).orElseThrow();
+        assertEquals(maisLivros, estatisticas.autoresComMaisLivros(1).get(0).livros());
+        porAutor.forEach((autorId, quantidade) -> assertEquals(quantidade, estatisticas.livrosDoAutor(autorId)));
+    }
+
+    /**
+     * Eventos tratados enquanto a consulta da carga roda não podem sumir na reconstrução.
+     */
+    @Test
+    void eventosDuranteACargaSobrevivemAReconstrucao() {
+        EstatisticasCatalogo[] estatisticas = new EstatisticasCatalogo[1];
+        LivroRepository repo = (LivroRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{LivroRepository.class}, (proxy, metodo, args) -> {
+                    if (!metodo.getName().equals("findLivrosEstatisticos")) throw new UnsupportedOperationException();
+                    // o banco foi lido antes destas gravações chegarem
+                    estatisticas[0].aoAtualizarDownloads(new DownloadsAtualizadosEvent(1, List.of(new int[]{101, 500})));
+                    Livro novo = new Livro();
+                    novo.setId(2L);
+                    novo.setGutenbergId(102);
+                    novo.setTitulo("Novo");
+                    novo.setIdioma("pt");
+                    novo.setDownloads(7);
+                    estatisticas[0].aoPersistir(new LivrosPersistidosEvent(List.of(novo)));
+                    return List.of(estatistico(1L, 101, "en", 10));
+                });
+        estatisticas[0] = new EstatisticasCatalogo(repo, true);
+        estatisticas[0].aoSubir();
+
+        EstatisticasCatalogo.Resumo resumo = estatisticas[0].resumo();
+        assertEquals(2, resumo.livros());
+        assertEquals(507, resumo.somaDownloads());
+        assertEquals(1, estatisticas[0].quantidadePorIdioma("pt"));
+    }
+
+    private static LivroRepository.LivroEstatistico estatistico(Long id, Integer gutenbergId, String idioma,
+                                                                Integer downloads) {
+        return new LivroRepository.LivroEstatistico() {
+            public Long getId() { return id; }
+            public Integer getGutenbergId() { return gutenbergId; }
+            public String getTitulo() { return "Livro " + id; }
+            public String getIdioma() { return idioma; }
+            public Integer getDownloads() { return downloads; }
+            public Long getAutorId() { return null; }
+            public String getAutor() { return null; }
+        };
+    }
+
+    @Test
+    void baldesDoHistogramaCobremOsValores() {
+        for (int v : new int[]{0, 1, 63, 64, 65, 100, 1_000, 123_456, Integer.MAX_VALUE}) {
+            int representativo = HistogramaDownloads.valorRepresentativo(HistogramaDownloads.balde(v));
+            assertTrue(Math.abs((double) representativo - v) <= v / 32.0, v + " -> " + representativo);
+        }
+    }
+}
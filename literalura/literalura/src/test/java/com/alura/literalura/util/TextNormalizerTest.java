@@ -0,0 +1,88 @@
+package com.alura.literalura.util;
+
+import com.alura.literalura.dto.ApiBookResponse;
+import com.alura.literalura.dto.GutenbergAuthor;
+import com.alura.literalura.dto.GutenbergBook;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TextNormalizerTest {
+
+    private static final Pattern SEPARADORES_ANTIGOS = Pattern.compile("[^\\p{Alnum}]+");
+
+    @Test
+    void normalizaComoOCaminhoComNormalizer() throws IOException {
+        for (String texto : corpus()) {
+            assertEquals(normalizeAntigo(texto), TextNormalizer.normalize(texto), texto);
+        }
+        assertEquals("", TextNormalizer.normalize(null));
+    }
+
+    /**
+     * Depois da normalização, textos só com ASCII são quebrados como antes (\p{Alnum});
+     * os demais mantêm letras fora do ASCII dentro da palavra, em vez de tratá-las como
+     * separadores.
+     */
+    @Test
+    void tokenizaComoAntesNoAsciiEMantemLetrasUnicode() throws IOException {
+        for (String texto : corpus()) {
+            if (!TextNormalizer.normalize(texto).chars().allMatch(c -> c < 0x80)) continue;
+            assertArrayEquals(tokenizeAntigo(texto), TextNormalizer.tokenize(texto), texto);
+        }
+
+        assertArrayEquals(new String[]{"memorias", "postumas", "de", "bras", "cubas"},
+                TextNormalizer.tokenize("Memórias Póstumas de Brás Cubas"));
+        assertArrayEquals(new String[]{"emile", "ou", "de", "l", "education"},
+                TextNormalizer.tokenize("Émile; ou, De l'éducation"));
+        // antes: "stra", "e" e nenhuma palavra para títulos em cirílico ou grego (o breve de "й"
+        // sai com os acentos)
+        assertArrayEquals(new String[]{"die", "straße"}, TextNormalizer.tokenize("Die Straße"));
+        assertArrayEquals(new String[]{"воина", "и", "мир"}, TextNormalizer.tokenize("Война и мир"));
+        assertArrayEquals(new String[]{"οδυσσεια"}, TextNormalizer.tokenize("Ὀδύσσεια"));
+        assertArrayEquals(new String[0], TextNormalizer.tokenize("  ;,-  "));
+    }
+
+    /**
+     * Títulos e autores da página gravada da Gutendex, mais casos de borda do caminho ASCII.
+     */
+    private static List<String> corpus() throws IOException {
+        List<String> textos = new ArrayList<>(Arrays.asList(
+                "", "   ", "\t Dom Casmurro \n", "PRIDE AND PREJUDICE", "already lower", "Zz@[`{",
+                "R.U.R. (Rossum's Universal Robots)", "1984", "\u0000controle\u001f", "Café", "ÇÃO", "FIn"));
+        try (InputStream in = TextNormalizerTest.class.getResourceAsStream("/gutendex/pagina-livros.json")) {
+            for (GutenbergBook livro : new ObjectMapper().readValue(in, ApiBookResponse.class).getResults()) {
+                textos.add(livro.getTitle());
+                for (GutenbergAuthor autor : livro.getAuthors()) textos.add(autor.getName());
+            }
+        }
+        return textos;
+    }
+
+    // implementação anterior de TextNormalizer.normalize
+    private static String normalizeAntigo(String s) {
+        String n = Normalizer.normalize(s, Normalizer.Form.NFD);
+        return n.replaceAll("\\p{M}", "").toLowerCase().trim();
+    }
+
+    // implementação anterior de TextNormalizer.tokenize
+    private static String[] tokenizeAntigo(String s) {
+        String n = normalizeAntigo(s);
+        if (n.isEmpty()) return new String[0];
+        String[] partes = SEPARADORES_ANTIGOS.split(n);
+        if (partes.length > 0 && partes[0].isEmpty()) {
+            return Arrays.copyOfRange(partes, 1, partes.length);
+        }
+        return partes;
+    }
+}
@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Início a frio do LiterAlura: gera o arquivo CDS da JVM e compara as variantes de subida com
+# o benchmark InicioFrio (tempo até o menu, até a primeira consulta e até o fim do processo).
+#
+# Pré-requisitos, a partir de literalura/:
+#   mvn -B -Prapido package -DskipTests
+#   (o banco já criado por uma execução normal da aplicação)
+#
+# Uso: scripts/inicio-rapido.sh [repeticoes] [argumentos extras da aplicação...]
+#   ex.: scripts/inicio-rapido.sh 5 --spring.datasource.url=jdbc:postgresql://localhost:5432/literalura_bench
+#
+# O arquivo CDS (target/literalura.jsa) vale para esta JVM e este classpath; o jar comum
+# (target/literalura-*.jar, com as dependências em target/lib) é distribuído junto com ele.
+set -euo pipefail
+
+raiz="$(cd "$(dirname "$0")/.." && pwd)"
+app="$raiz/literalura/target"
+bench="$raiz/literalura-benchmarks/target/benchmarks.jar"
+repeticoes="${1:-5}"
+shift || true
+
+jar_comum="$(ls "$app"/literalura-*.jar | grep -v -- '-exec.jar$' | head -n 1)"
+jar_exec="$(ls "$app"/literalura-*-exec.jar | head -n 1)"
+jsa="$app/literalura.jsa"
+rapido=(--spring.profiles.active=rapido)
+
+for f in "$jar_comum" "$jar_exec" "$bench"; do
+    [[ -f "$f" ]] || { echo "Não encontrado: $f (rode mvn -B -Prapido package)" >&2; exit 1; }
+done
+
+# o arquivo CDS registra as classes carregadas numa execução de treino que abre o menu, lista
+# os livros e sai; precisa ser gerado com as mesmas opções de AOT das execuções medidas
+echo "Gerando o arquivo CDS em $jsa"
+printf '2\n0\n0\n' | java -XX:ArchiveClassesAtExit="$jsa" -Dspring.aot.enabled=true \
+    -jar "$jar_comum" "${rapido[@]}" "$@" > /dev/null
+
+medir() {
+    local rotulo="$1"
+    shift
+    java -cp "$bench" com.alura.literalura.benchmarks.InicioFrio repeticoes="$repeticoes" rotulo="$rotulo" -- "$@"
+}
+
+medir padrao java -jar "$jar_exec" "$@"
+medir rapido java -jar "$jar_comum" "${rapido[@]}" "$@"
+medir rapido+aot java -Dspring.aot.enabled=true -jar "$jar_comum" "${rapido[@]}" "$@"
+medir rapido+aot+cds java -XX:SharedArchiveFile="$jsa" -XX:TieredStopAtLevel=1 \
+    -Dspring.aot.enabled=true -jar "$jar_comum" "${rapido[@]}" "$@"